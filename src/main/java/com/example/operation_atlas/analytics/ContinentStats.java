@@ -0,0 +1,59 @@
+package com.example.operation_atlas.analytics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Agrégats d'un continent sur une fenêtre : tentatives, résolutions, indices, mauvaises réponses par code
+// et temps de jeu écoulé au moment de la résolution
+final class ContinentStats {
+
+    // Les codes viennent de PuzzleService (ensemble fini) ; la borne protège d'un code inattendu
+    private static final int MAX_ERROR_CODES = 16;
+    private static final String OTHER_CODE = "OTHER";
+
+    final LongAdder attempts = new LongAdder();
+    final LongAdder solved = new LongAdder();
+    final LongAdder hints = new LongAdder();
+    final SecondsHistogram solveSeconds = new SecondsHistogram();
+    private final Map<String, LongAdder> wrongByCode = new ConcurrentHashMap<>();
+
+    void recordWrong(String errorCode) {
+        String code = errorCode == null ? OTHER_CODE : errorCode;
+        LongAdder counter = wrongByCode.get(code);
+        if (counter == null) {
+            counter = wrongByCode.size() < MAX_ERROR_CODES
+                    ? wrongByCode.computeIfAbsent(code, key -> new LongAdder())
+                    : wrongByCode.computeIfAbsent(OTHER_CODE, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    boolean isEmpty() {
+        return attempts.sum() == 0 && hints.sum() == 0;
+    }
+
+    void mergeInto(ContinentStats target) {
+        target.attempts.add(attempts.sum());
+        target.solved.add(solved.sum());
+        target.hints.add(hints.sum());
+        solveSeconds.mergeInto(target.solveSeconds);
+        wrongByCode.forEach((code, count) ->
+                target.wrongByCode.computeIfAbsent(code, key -> new LongAdder()).add(count.sum()));
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Long> wrong = new TreeMap<>();
+        wrongByCode.forEach((code, count) -> wrong.put(code, count.sum()));
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("attempts", attempts.sum());
+        map.put("solved", solved.sum());
+        map.put("hints", hints.sum());
+        map.put("wrong", wrong);
+        map.put("solveSeconds", solveSeconds.toMap());
+        return map;
+    }
+}
\ No newline at end of file
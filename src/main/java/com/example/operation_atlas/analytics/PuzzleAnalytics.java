@@ -0,0 +1,150 @@
+package com.example.operation_atlas.analytics;
+
+import com.example.operation_atlas.model.Continent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+// Agrégation en continu des soumissions de puzzles pour régler la difficulté. GameService alimente la fenêtre
+// courante (compteurs et histogrammes sans verrou, mémoire fixe) ; rollover() la remplace, l'ajoute au total
+// et l'écrit dans un petit fichier de résumé, fusionnable avec les autres.
+@Service
+public class PuzzleAnalytics {
+
+    private static final Logger log = LoggerFactory.getLogger(PuzzleAnalytics.class);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+
+    private static final class Window {
+        final long startedAt = System.currentTimeMillis();
+        final EnumMap<Continent, ContinentStats> continents = new EnumMap<>(Continent.class);
+
+        Window() {
+            for (Continent continent : Continent.values()) {
+                continents.put(continent, new ContinentStats());
+            }
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Window total = new Window();
+    // Un enregistrement en cours au moment du rollover peut arriver après la fusion : perdu pour le total
+    private volatile Window current = new Window();
+
+    @Value("${atlas.save.dir}")
+    private String saveDir;
+
+    @Value("${atlas.analytics.keep-files:288}")
+    private int keepFiles;
+
+    // Secondes de jeu passées sur le continent (depuis la résolution précédente de la room ou le départ),
+    // négatif si inconnu (room restaurée après redémarrage) : compté comme résolu, hors histogramme
+    public void recordSolved(Continent continent, int elapsedSeconds) {
+        ContinentStats stats = current.continents.get(continent);
+        stats.attempts.increment();
+        stats.solved.increment();
+        if (elapsedSeconds >= 0) {
+            stats.solveSeconds.record(elapsedSeconds);
+        }
+    }
+
+    public void recordWrong(Continent continent, String errorCode) {
+        ContinentStats stats = current.continents.get(continent);
+        stats.attempts.increment();
+        stats.recordWrong(errorCode);
+    }
+
+    public void recordHint(Continent continent) {
+        current.continents.get(continent).hints.increment();
+    }
+
+    // Fenêtre courante et total depuis le démarrage (total fusionné avec la fenêtre en cours)
+    public Map<String, Object> snapshot() {
+        Window window = current;
+        Window merged = new Window();
+        synchronized (total) {
+            merge(total, merged);
+        }
+        merge(window, merged);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("bucketBoundsSeconds", SecondsHistogram.BOUNDS);
+        long now = System.currentTimeMillis();
+        response.put("window", toMap(window, window.startedAt, now));
+        response.put("total", toMap(merged, total.startedAt, now));
+        return response;
+    }
+
+    public void rollover() {
+        Window closed = current;
+        current = new Window();
+        long closedAt = System.currentTimeMillis();
+        synchronized (total) {
+            merge(closed, total);
+        }
+        if (closed.continents.values().stream().allMatch(ContinentStats::isEmpty)) {
+            return;
+        }
+        writeSummary(closed, closedAt);
+    }
+
+    private void writeSummary(Window window, long closedAt) {
+        Path directory = Paths.get(saveDir, "analytics");
+        Map<String, Object> summary = toMap(window, window.startedAt, closedAt);
+        summary.put("bucketBoundsSeconds", SecondsHistogram.BOUNDS);
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve("summary-" + FILE_TIME.format(Instant.ofEpochMilli(window.startedAt)) + ".json");
+            objectMapper.writeValue(file.toFile(), summary);
+            pruneSummaries(directory);
+        } catch (IOException e) {
+            log.error("Failed to write puzzle analytics summary in {}", directory, e);
+        }
+    }
+
+    // Les noms horodatés se trient chronologiquement : on garde les keepFiles plus récents
+    private void pruneSummaries(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "summary-*.json")) {
+            stream.forEach(files::add);
+        }
+        if (files.size() <= keepFiles) {
+            return;
+        }
+        Collections.sort(files);
+        for (Path file : files.subList(0, files.size() - keepFiles)) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void merge(Window source, Window target) {
+        source.continents.forEach((continent, stats) -> stats.mergeInto(target.continents.get(continent)));
+    }
+
+    // Seuls les continents ayant reçu des soumissions ou des demandes d'indice apparaissent
+    private static Map<String, Object> toMap(Window window, long from, long until) {
+        Map<String, Object> continents = new LinkedHashMap<>();
+        window.continents.forEach((continent, stats) -> {
+            if (!stats.isEmpty()) {
+                continents.put(continent.name(), stats.toMap());
+            }
+        });
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("from", from);
+        map.put("to", until);
+        map.put("continents", continents);
+        return map;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.operation_atlas.analytics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// /actuator/puzzleanalytics : fenêtre en cours et total depuis le démarrage (équipe contenu)
+@Component
+@Endpoint(id = "puzzleanalytics")
+public class PuzzleAnalyticsEndpoint {
+
+    private final PuzzleAnalytics puzzleAnalytics;
+
+    public PuzzleAnalyticsEndpoint(PuzzleAnalytics puzzleAnalytics) {
+        this.puzzleAnalytics = puzzleAnalytics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> analytics() {
+        return puzzleAnalytics.snapshot();
+    }
+}
\ No newline at end of file
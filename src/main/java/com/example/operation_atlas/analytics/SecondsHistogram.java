@@ -0,0 +1,87 @@
+package com.example.operation_atlas.analytics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histogramme à bornes fixes (secondes de jeu) : mémoire constante, enregistrement sans verrou,
+// et deux histogrammes s'additionnent bucket à bucket (fenêtres -> total, fichiers de résumé entre eux)
+final class SecondsHistogram {
+
+    // Bornes supérieures incluses ; le dernier bucket reçoit tout ce qui dépasse
+    static final int[] BOUNDS = {15, 30, 45, 60, 90, 120, 180, 240, 300, 420, 600, 900, 1200, 1500};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length + 1);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(int seconds) {
+        int value = Math.max(0, seconds);
+        buckets.incrementAndGet(bucketOf(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    void mergeInto(SecondsHistogram target) {
+        for (int i = 0; i < buckets.length(); i++) {
+            long count = buckets.get(i);
+            if (count != 0) {
+                target.buckets.addAndGet(i, count);
+            }
+        }
+        target.sum.add(sum.sum());
+        target.max.accumulate(max.get());
+    }
+
+    long count() {
+        long count = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    // Borne supérieure du bucket contenant le quantile (précision = largeur du bucket)
+    long quantile(double q) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(q * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return i < BOUNDS.length ? BOUNDS[i] : max.get();
+            }
+        }
+        return max.get();
+    }
+
+    Map<String, Object> toMap() {
+        long count = count();
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", count);
+        map.put("mean", count == 0 ? 0 : sum.sum() / count);
+        map.put("p50", quantile(0.5));
+        map.put("p90", quantile(0.9));
+        map.put("max", max.get());
+        map.put("buckets", counts);
+        return map;
+    }
+
+    private static int bucketOf(int seconds) {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            if (seconds <= BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS.length;
+    }
+}
\ No newline at end of file
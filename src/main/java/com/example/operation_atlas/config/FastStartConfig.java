@@ -0,0 +1,46 @@
+package com.example.operation_atlas.config;
+
+import com.example.operation_atlas.dto.*;
+import com.example.operation_atlas.leaderboard.LeaderboardEntry;
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.model.Player;
+import com.example.operation_atlas.model.RoomState;
+import com.example.operation_atlas.relay.EventRelay;
+import com.example.operation_atlas.relay.RelayTransport;
+import com.example.operation_atlas.scheduler.GameScheduler;
+import com.example.operation_atlas.service.PuzzleService;
+import com.example.operation_atlas.service.ShardRouter;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+// Démarrage rapide (profil Maven fast-start, profil Spring faststart) : indices AOT pour le binding Jackson
+// et le contenu des puzzles, et beans gardés eager quand spring.main.lazy-initialization est actif.
+@Configuration
+@RegisterReflectionForBinding({GameRoom.class, RoomState.class, Player.class, RoomSnapshot.class,
+        CreateRoomRequest.class, JoinRequest.class, SubmitRequest.class, BatchRequest.class, RoomCommand.class,
+        CommandResult.class, ErrorResponse.class, ProvisionRequest.class, LeaderboardEntry.class})
+@ImportRuntimeHints(FastStartConfig.ContentHints.class)
+public class FastStartConfig {
+
+    // Contenu validé au boot (échec immédiat), anneau de shards, relay qui doit écouter les pairs
+    // et jobs de fond : rien de cela ne doit attendre la première requête
+    @Bean
+    public static LazyInitializationExcludeFilter eagerGameBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(PuzzleService.class, ShardRouter.class,
+                GameScheduler.class, EventRelay.class, RelayTransport.class);
+    }
+
+    static class ContentHints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern("content/atlas.pack");
+            hints.resources().registerPattern("content/*.json");
+            hints.resources().registerPattern("content/locales/*.pack");
+        }
+    }
+}
\ No newline at end of file
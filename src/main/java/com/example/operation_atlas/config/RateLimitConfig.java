@@ -2,6 +2,7 @@ package com.example.operation_atlas.config;
 
 
 import com.example.operation_atlas.service.RateLimitService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,7 +10,7 @@ import org.springframework.context.annotation.Configuration;
 public class RateLimitConfig {
 
     @Bean
-    public RateLimitService rateLimitService() {
-        return new RateLimitService();
+    public RateLimitService rateLimitService(MeterRegistry meterRegistry) {
+        return new RateLimitService(meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.operation_atlas.config;
+
+import com.example.operation_atlas.relay.EventRelay;
+import com.example.operation_atlas.relay.InProcessRelayTransport;
+import com.example.operation_atlas.relay.RelayTransport;
+import com.example.operation_atlas.relay.SocketRelayTransport;
+import com.example.operation_atlas.service.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+@ConditionalOnExpression("'${atlas.relay.transport:none}' != 'none'")
+public class RelayConfig {
+
+    @Value("${atlas.relay.transport}")
+    private String transport;
+
+    @Value("${atlas.relay.batch-size:256}")
+    private int batchSize;
+
+    @Value("${atlas.relay.linger-ms:5}")
+    private long lingerMs;
+
+    @Value("${atlas.relay.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // Port fixe : les pairs le connaissent par atlas.relay.socket.peers, un port éphémère serait injoignable
+    @Value("${atlas.relay.socket.port:7400}")
+    private int socketPort;
+
+    @Value("${atlas.relay.socket.peers:}")
+    private String socketPeers;
+
+    @Bean
+    public RelayTransport relayTransport() {
+        switch (transport) {
+            case "in-process":
+                return new InProcessRelayTransport();
+            case "socket":
+                if (socketPort < 1 || socketPort > 65535) {
+                    throw new IllegalStateException("atlas.relay.socket.port must be a fixed port (1-65535) with "
+                            + "atlas.relay.transport=socket, got " + socketPort);
+                }
+                List<String> peers = Arrays.stream(socketPeers.split(","))
+                        .map(String::trim)
+                        .filter(p -> !p.isEmpty())
+                        .toList();
+                return new SocketRelayTransport(socketPort, peers);
+            default:
+                throw new IllegalStateException("Unknown atlas.relay.transport: " + transport);
+        }
+    }
+
+    @Bean
+    public EventRelay eventRelay(RelayTransport relayTransport, ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        return new EventRelay(relayTransport, shardRouter.getSelf(), batchSize, lingerMs, queueCapacity,
+                meterRegistry);
+    }
+}
\ No newline at end of file
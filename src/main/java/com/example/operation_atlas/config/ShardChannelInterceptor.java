@@ -0,0 +1,62 @@
+package com.example.operation_atlas.config;
+
+import com.example.operation_atlas.service.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ShardChannelInterceptor implements ChannelInterceptor {
+
+    private static final String TOPIC_PREFIX = "/topic/rooms/";
+    private static final String APP_PREFIX = "/app/rooms/";
+
+    private final ShardRouter shardRouter;
+
+    @Value("${atlas.relay.transport:none}")
+    private String relayTransport;
+
+    public ShardChannelInterceptor(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!shardRouter.isClustered()) {
+            return message;
+        }
+
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getDestination() == null) {
+            return message;
+        }
+
+        String roomId = null;
+        // Avec le relais actif, les événements de toutes les rooms arrivent sur chaque noeud
+        if (accessor.getCommand() == StompCommand.SUBSCRIBE && "none".equals(relayTransport)) {
+            roomId = extractRoomId(accessor.getDestination(), TOPIC_PREFIX);
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            roomId = extractRoomId(accessor.getDestination(), APP_PREFIX);
+        }
+
+        if (roomId != null && !shardRouter.isLocal(roomId)) {
+            // Renvoyé au client dans une trame ERROR, il se reconnecte sur le bon noeud
+            throw new MessageDeliveryException(message, "ERR_WRONG_SHARD " + shardRouter.ownerOf(roomId));
+        }
+        return message;
+    }
+
+    private String extractRoomId(String destination, String prefix) {
+        if (!destination.startsWith(prefix)) {
+            return null;
+        }
+        int end = destination.indexOf('/', prefix.length());
+        return end < 0 ? destination.substring(prefix.length()) : destination.substring(prefix.length(), end);
+    }
+}
\ No newline at end of file
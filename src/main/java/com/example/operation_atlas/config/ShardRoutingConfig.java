@@ -0,0 +1,49 @@
+package com.example.operation_atlas.config;
+
+import com.example.operation_atlas.exception.WrongShardException;
+import com.example.operation_atlas.service.ShardRouter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+@Configuration
+public class ShardRoutingConfig implements WebMvcConfigurer {
+
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingConfig(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!shardRouter.isClustered()) {
+            return;
+        }
+        // Le join est routé par code dans GameService, le roomId du chemin n'y est pas fiable
+        registry.addInterceptor(new RoomOwnershipInterceptor())
+                .addPathPatterns("/api/rooms/*/**")
+                .excludePathPatterns("/api/rooms/*/join");
+    }
+
+    private class RoomOwnershipInterceptor implements HandlerInterceptor {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            Map<String, String> variables = (Map<String, String>)
+                    request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            String roomId = variables != null ? variables.get("roomId") : null;
+            if (roomId != null && !shardRouter.isLocal(roomId)) {
+                throw new WrongShardException(shardRouter.ownerOf(roomId));
+            }
+            return true;
+        }
+    }
+}
\ No newline at end of file
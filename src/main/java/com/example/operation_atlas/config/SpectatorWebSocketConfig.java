@@ -0,0 +1,29 @@
+package com.example.operation_atlas.config;
+
+import com.example.operation_atlas.controller.SpectatorWebSocketHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class SpectatorWebSocketConfig implements WebSocketConfigurer {
+
+    @Value("${atlas.frontend.origin}")
+    private String frontendOrigin;
+
+    private final SpectatorWebSocketHandler spectatorHandler;
+
+    public SpectatorWebSocketConfig(SpectatorWebSocketHandler spectatorHandler) {
+        this.spectatorHandler = spectatorHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Flux brut (hors STOMP) : /spectate/{roomId}
+        registry.addHandler(spectatorHandler, "/spectate/*")
+                .setAllowedOrigins(frontendOrigin);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.example.operation_atlas.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+// Mode virtual threads, opt-in (spring.threads.virtual.enabled=true, JVM 21+) : Spring Boot bascule Tomcat,
+// ici on y ajoute les canaux STOMP (WebSocketConfig) et les écritures de snapshots.
+// Sans ce mode, les pools de plateforme actuels restent en place.
+@Configuration
+public class ThreadingConfig {
+
+    @Value("${atlas.snapshot.max-concurrent-writes:16}")
+    private int maxConcurrentWrites;
+
+    @Bean
+    public Executor snapshotWriteExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            if (maxConcurrentWrites < 1) {
+                throw new IllegalStateException("atlas.snapshot.max-concurrent-writes must be at least 1");
+            }
+            // Une écriture disque bloquante par virtual thread, en parallèle dans la limite configurée
+            return bounded(new VirtualThreadTaskExecutor("atlas-save-"), maxConcurrentWrites);
+        }
+        // Écritures séquentielles sur le thread du job snapshot
+        return Runnable::run;
+    }
+
+    // Le thread qui soumet attend un permis : au plus maxConcurrent tâches lancées à la fois, les autres
+    // rooms attendent leur tour au lieu d'ouvrir chacune un fichier
+    static Executor bounded(Executor delegate, int maxConcurrent) {
+        Semaphore permits = new Semaphore(maxConcurrent);
+        return task -> {
+            permits.acquireUninterruptibly();
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.example.operation_atlas.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -14,12 +18,35 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Value("${atlas.frontend.origin}")
     private String frontendOrigin;
 
+    private final ShardChannelInterceptor shardChannelInterceptor;
+    private final boolean virtualThreads;
+
+    public WebSocketConfig(ShardChannelInterceptor shardChannelInterceptor, Environment environment) {
+        this.shardChannelInterceptor = shardChannelInterceptor;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(shardChannelInterceptor);
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("atlas-ws-in-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("atlas-ws-out-"));
+        }
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
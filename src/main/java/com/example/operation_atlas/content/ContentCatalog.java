@@ -0,0 +1,232 @@
+package com.example.operation_atlas.content;
+
+import com.example.operation_atlas.exception.GameException;
+import com.example.operation_atlas.model.Continent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Contenu des énigmes servi aux clients, par langue : énoncés sans les réponses, paliers d'indices et messages
+// d'erreur. Un pack de langue (content/locales/<locale>.pack) est compilé au build par ContentPackCompiler :
+// JSON sérialisé, gzip et empreinte SHA-256 déjà calculés, rien n'est reparsé au runtime.
+// Au démarrage chaque pack est lu une fois (absent ou corrompu = démarrage refusé) pour n'en garder qu'un index :
+// empreintes connues, paliers d'indice et messages. Les blobs sont chargés au premier usage et gardés dans un
+// LRU borné : la mémoire dépend de atlas.content.locale-cache-size, pas du nombre de langues. Un pack évincé se
+// recharge à l'identique, les empreintes distribuées restent valides.
+@Service
+public class ContentCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentCatalog.class);
+
+    public static final int HINT_TIERS = 2;
+    public static final String META = "META";
+
+    public static final class Blob {
+        private final String hash;
+        private final byte[] identity;
+        private final byte[] gzip;
+
+        Blob(String hash, byte[] identity, byte[] gzip) {
+            this.hash = hash;
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public byte[] getIdentity() {
+            return identity;
+        }
+
+        // null quand la compression ne fait rien gagner
+        public byte[] getGzip() {
+            return gzip;
+        }
+    }
+
+    // Ce qui reste résident pour chaque langue : quelques empreintes et messages, pas les blobs
+    private static final class LocaleIndex {
+        private final Set<String> ids;
+        private final EnumMap<Continent, String[]> hints;
+        private final Map<String, String> messages;
+
+        private LocaleIndex(LocalePack pack) {
+            this.ids = Set.copyOf(pack.blobs.keySet());
+            this.hints = pack.hints;
+            this.messages = Map.copyOf(pack.messages);
+        }
+    }
+
+    private final ResourceLoader resourceLoader;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LocaleIndex> indexes = new LinkedHashMap<>();
+    // LRU en ordre d'accès : le verrou ne couvre que la table, un pack se charge hors verrou dans son future
+    private Map<String, CompletableFuture<LocalePack>> packs;
+    private Counter evictions;
+
+    @Value("${atlas.content.locales:fr}")
+    private String supportedLocales;
+
+    @Value("${atlas.content.default-locale:fr}")
+    private String defaultLocale;
+
+    @Value("${atlas.content.locale-cache-size:2}")
+    private int cacheSize;
+
+    public ContentCatalog(ResourceLoader resourceLoader, MeterRegistry meterRegistry) {
+        this.resourceLoader = resourceLoader;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        defaultLocale = defaultLocale.trim().toLowerCase();
+        int capacity = Math.max(1, cacheSize);
+        evictions = meterRegistry.counter("atlas.content.pack.evictions");
+        packs = new LinkedHashMap<>(capacity + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<LocalePack>> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                evictions.increment();
+                log.debug("Content pack {} evicted", eldest.getKey());
+                return true;
+            }
+        };
+
+        for (String locale : supportedLocales.split(",")) {
+            if (!locale.isBlank()) {
+                String normalized = locale.trim().toLowerCase();
+                LocalePack pack = load(normalized);
+                indexes.put(normalized, new LocaleIndex(pack));
+                if (normalized.equals(defaultLocale)) {
+                    packs.put(normalized, CompletableFuture.completedFuture(pack));
+                }
+            }
+        }
+        if (!indexes.containsKey(defaultLocale)) {
+            throw new IllegalStateException("atlas.content.default-locale " + defaultLocale
+                    + " is not listed in atlas.content.locales");
+        }
+        log.info("✅ Content catalog ready: locales {} (default {}), {} packs resident at most",
+                indexes.keySet(), defaultLocale, capacity);
+    }
+
+    public String getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    // Locale demandée par un client, normalisée ; null ou vide = locale par défaut
+    public String locale(String requested) {
+        if (requested == null || requested.isBlank()) {
+            return defaultLocale;
+        }
+        String locale = requested.trim().toLowerCase();
+        if (!indexes.containsKey(locale)) {
+            throw new GameException("ERR_LOCALE_UNSUPPORTED", "Unsupported locale: " + requested);
+        }
+        return locale;
+    }
+
+    public Blob manifest(String locale) {
+        return pack(locale(locale)).manifest;
+    }
+
+    // Empreinte au format <locale>-<hash> ; inconnue de l'index = null, sans charger de pack
+    public Blob get(String id) {
+        int dash = id.indexOf('-');
+        if (dash <= 0) {
+            return null;
+        }
+        String locale = id.substring(0, dash);
+        LocaleIndex index = indexes.get(locale);
+        if (index == null || !index.ids.contains(id)) {
+            return null;
+        }
+        return pack(locale).blobs.get(id);
+    }
+
+    // Empreinte du palier (1..HINT_TIERS) d'indice d'un continent ; locale null = locale par défaut
+    public String hintHash(String locale, Continent continent, int tier) {
+        String[] tiers = index(locale).hints.get(continent);
+        return tiers == null || tier < 1 || tier > tiers.length ? null : tiers[tier - 1];
+    }
+
+    // Message d'erreur du pack de la room, repli sur la locale par défaut puis sur le code lui-même
+    public String message(String locale, String code) {
+        String message = index(locale).messages.get(code);
+        if (message == null) {
+            message = indexes.get(defaultLocale).messages.get(code);
+        }
+        return message != null ? message : code;
+    }
+
+    private LocaleIndex index(String locale) {
+        LocaleIndex index = locale != null ? indexes.get(locale) : null;
+        return index != null ? index : indexes.get(defaultLocale);
+    }
+
+    // Un seul chargement par pack manquant : les autres appelants attendent son future, pas le verrou
+    private LocalePack pack(String locale) {
+        CompletableFuture<LocalePack> future;
+        boolean owner = false;
+        synchronized (packs) {
+            future = packs.get(locale);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                packs.put(locale, future);
+                owner = true;
+            }
+        }
+        if (owner) {
+            try {
+                future.complete(load(locale));
+            } catch (RuntimeException e) {
+                synchronized (packs) {
+                    packs.remove(locale, future);
+                }
+                future.completeExceptionally(e);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private LocalePack load(String locale) {
+        long start = System.nanoTime();
+        Resource resource = resourceLoader.getResource("classpath:" + ContentPack.localeResource(locale));
+        LocalePack pack;
+        try (InputStream in = resource.getInputStream()) {
+            pack = ContentPack.readLocale(ByteBuffer.wrap(in.readAllBytes()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load content pack " + locale, e);
+        }
+        if (!pack.locale.equals(locale)) {
+            throw new IllegalStateException("Content pack " + ContentPack.localeResource(locale) + " holds locale "
+                    + pack.locale);
+        }
+        meterRegistry.counter("atlas.content.pack.loads", "locale", locale).increment();
+        log.info("Content pack {} loaded in {} µs: {} blobs", locale, (System.nanoTime() - start) / 1000,
+                pack.blobs.size());
+        return pack;
+    }
+}
\ No newline at end of file
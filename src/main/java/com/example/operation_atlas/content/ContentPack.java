@@ -0,0 +1,207 @@
+package com.example.operation_atlas.content;
+
+import com.example.operation_atlas.model.Continent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Format binaire du pack de contenu (content/atlas.pack) :
+// magic "ATLP" | version u16 | longueur u32 | payload | CRC32 du payload (u64)
+// Les packs de langue (content/locales/<locale>.pack) ont le même cadre avec le magic "ATLL".
+public final class ContentPack {
+
+    public static final String RESOURCE = "content/atlas.pack";
+
+    private static final int MAGIC = 0x41544C50;
+    private static final int LOCALE_MAGIC = 0x41544C4C;
+    private static final short VERSION = 1;
+
+    private ContentPack() {
+    }
+
+    public static byte[] write(PuzzleContent content) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeUTF(content.getEuTargetWord());
+        payload.writeShort(content.getAsValidSlots().size());
+        for (String slot : content.getAsValidSlots().stream().sorted().toList()) {
+            payload.writeUTF(slot);
+        }
+        payload.writeInt(content.getAmCabinWeight());
+        payload.writeInt(content.getAfExpectedAmount());
+        payload.writeUTF(content.getOcCorrectRoute());
+        payload.writeUTF(content.getAnExpectedAnswer());
+        payload.flush();
+        return frame(MAGIC, payloadBytes.toByteArray());
+    }
+
+    // Lit directement dans le buffer (mappé ou non), sans copie intermédiaire
+    public static PuzzleContent read(ByteBuffer pack) throws IOException {
+        try {
+            ByteBuffer body = unframe(pack, MAGIC);
+            String euTargetWord = readUtf(body);
+            int slotCount = body.getShort();
+            List<String> asValidSlots = new ArrayList<>(slotCount);
+            for (int i = 0; i < slotCount; i++) {
+                asValidSlots.add(readUtf(body));
+            }
+            int amCabinWeight = body.getInt();
+            int afExpectedAmount = body.getInt();
+            String ocCorrectRoute = readUtf(body);
+            String anExpectedAnswer = readUtf(body);
+            return new PuzzleContent(euTargetWord, asValidSlots, amCabinWeight, afExpectedAmount,
+                    ocCorrectRoute, anExpectedAnswer);
+        } catch (RuntimeException e) {
+            throw new IOException("Truncated content pack", e);
+        }
+    }
+
+    public static String localeResource(String locale) {
+        return "content/locales/" + locale + ".pack";
+    }
+
+    // Payload : locale | messages (code, texte) | paliers d'indice par continent | blobs | manifeste.
+    // Chaînes et blobs en longueur u32 + octets (UTF-8 standard : les textes traduits peuvent contenir des emoji).
+    static byte[] writeLocale(LocalePack localePack) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        writeString(payload, localePack.locale);
+        payload.writeShort(localePack.messages.size());
+        for (Map.Entry<String, String> message : localePack.messages.entrySet()) {
+            writeString(payload, message.getKey());
+            writeString(payload, message.getValue());
+        }
+        payload.writeShort(localePack.hints.size());
+        for (Map.Entry<Continent, String[]> hint : localePack.hints.entrySet()) {
+            writeString(payload, hint.getKey().name());
+            payload.writeShort(hint.getValue().length);
+            for (String hash : hint.getValue()) {
+                writeString(payload, hash);
+            }
+        }
+        payload.writeShort(localePack.blobs.size());
+        for (ContentCatalog.Blob blob : localePack.blobs.values()) {
+            writeBlob(payload, blob);
+        }
+        writeBlob(payload, localePack.manifest);
+        payload.flush();
+        return frame(LOCALE_MAGIC, payloadBytes.toByteArray());
+    }
+
+    static LocalePack readLocale(ByteBuffer pack) throws IOException {
+        try {
+            ByteBuffer body = unframe(pack, LOCALE_MAGIC);
+            LocalePack localePack = new LocalePack(readString(body));
+            int messageCount = body.getShort();
+            for (int i = 0; i < messageCount; i++) {
+                localePack.messages.put(readString(body), readString(body));
+            }
+            int hintCount = body.getShort();
+            for (int i = 0; i < hintCount; i++) {
+                Continent continent = Continent.valueOf(readString(body));
+                String[] tiers = new String[body.getShort()];
+                for (int tier = 0; tier < tiers.length; tier++) {
+                    tiers[tier] = readString(body);
+                }
+                localePack.hints.put(continent, tiers);
+            }
+            int blobCount = body.getShort();
+            for (int i = 0; i < blobCount; i++) {
+                ContentCatalog.Blob blob = readBlob(body);
+                localePack.blobs.put(blob.getHash(), blob);
+            }
+            localePack.manifest = readBlob(body);
+            return localePack;
+        } catch (RuntimeException e) {
+            throw new IOException("Truncated content pack", e);
+        }
+    }
+
+    private static byte[] frame(int magic, byte[] body) throws IOException {
+        ByteArrayOutputStream packBytes = new ByteArrayOutputStream(body.length + 18);
+        DataOutputStream pack = new DataOutputStream(packBytes);
+        pack.writeInt(magic);
+        pack.writeShort(VERSION);
+        pack.writeInt(body.length);
+        pack.write(body);
+        pack.writeLong(checksum(ByteBuffer.wrap(body)));
+        pack.flush();
+        return packBytes.toByteArray();
+    }
+
+    // Payload vérifié par son CRC, en vue sur le buffer d'origine
+    private static ByteBuffer unframe(ByteBuffer pack, int magic) throws IOException {
+        if (pack.getInt() != magic) {
+            throw new IOException("Not a content pack");
+        }
+        short version = pack.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported content pack version " + version);
+        }
+        int length = pack.getInt();
+        ByteBuffer body = pack.slice(pack.position(), length);
+        long expected = pack.getLong(pack.position() + length);
+        if (checksum(body.duplicate()) != expected) {
+            throw new IOException("Content pack checksum mismatch");
+        }
+        return body;
+    }
+
+    private static void writeBlob(DataOutputStream out, ContentCatalog.Blob blob) throws IOException {
+        writeString(out, blob.getHash());
+        writeBytes(out, blob.getIdentity());
+        writeBytes(out, blob.getGzip());
+    }
+
+    private static ContentCatalog.Blob readBlob(ByteBuffer body) {
+        return new ContentCatalog.Blob(readString(body), readBytes(body), readBytes(body));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(ByteBuffer body) {
+        return new String(readBytes(body), StandardCharsets.UTF_8);
+    }
+
+    // Longueur -1 = null
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return bytes;
+    }
+
+    // writeUTF : longueur u16 puis UTF-8 modifié, identique à l'UTF-8 pour les réponses (pas de NUL ni d'emoji)
+    private static String readUtf(ByteBuffer body) {
+        byte[] bytes = new byte[Short.toUnsignedInt(body.getShort())];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long checksum(ByteBuffer body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return crc.getValue();
+    }
+}
\ No newline at end of file
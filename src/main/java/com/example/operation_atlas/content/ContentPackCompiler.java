@@ -0,0 +1,440 @@
+package com.example.operation_atlas.content;
+
+import com.example.operation_atlas.model.Continent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Valide les JSON de contenu, compile la clé de réponses et un pack par langue (énoncés sans réponses,
+// paliers d'indices, messages d'erreur). Lancé au build (process-classes, voir pom.xml) : un contenu
+// incohérent fait échouer le build au lieu de produire ERR_DATA_NOT_LOADED en jeu.
+// La clé de réponses sert aussi de repli au runtime si atlas.pack est absent ou corrompu.
+public final class ContentPackCompiler {
+
+    public static final List<String> FILES = List.of(
+            "eu_salutations.json", "as_time.json", "am_items.json", "af_currencies.json",
+            "oc_islands.json", "an_stations.json", "meta_config.json");
+
+    // Réponses attendues et données qui les donnent directement ('*' = chaque élément d'un tableau) :
+    // jamais diffusées, jamais surchargées par un pack de langue
+    static final Map<String, List<String>> ANSWERS = Map.of(
+            "EUROPE", List.of("targetWord"),
+            "ASIA", List.of("validSlotsUTC", "correctAnswer"),
+            "AMERICAS", List.of("expectedCabinWeightKg", "expectedCode", "obsoleteRule/isDecoy"),
+            "AFRICA", List.of("expectedFinalAmount"),
+            "OCEANIA", List.of("correctRoute", "routes/*/totalDistance"),
+            "ANTARCTICA", List.of("expectedAnswer"),
+            ContentCatalog.META, List.of("expectedKey", "jokerLetter"));
+
+    private ContentPackCompiler() {
+    }
+
+    // args : <dossier content source> <fichier pack de sortie> ; packs de langue dans locales/ à côté
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ContentPackCompiler <content dir> <pack file>");
+        }
+        Path sourceDir = Path.of(args[0]);
+        Path packFile = Path.of(args[1]);
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> documents = new LinkedHashMap<>();
+        for (String file : FILES) {
+            Path path = sourceDir.resolve(file);
+            if (!Files.exists(path)) {
+                throw new IllegalStateException("Missing content file " + path);
+            }
+            try {
+                documents.put(file, mapper.readTree(path.toFile()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Invalid JSON in " + path + ": " + e.getMessage(), e);
+            }
+        }
+
+        byte[] pack = ContentPack.write(compile(documents));
+
+        Map<String, JsonNode> localePacks = new TreeMap<>();
+        Path localeDir = sourceDir.resolve("locales");
+        if (Files.isDirectory(localeDir)) {
+            try (Stream<Path> files = Files.list(localeDir)) {
+                for (Path path : files.filter(f -> f.toString().endsWith(".json")).toList()) {
+                    String file = path.getFileName().toString();
+                    try {
+                        localePacks.put(file.substring(0, file.length() - 5), mapper.readTree(path.toFile()));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Invalid JSON in " + path + ": " + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        checkLocales(documents, localePacks);
+
+        Files.createDirectories(packFile.toAbsolutePath().getParent());
+        Files.write(packFile, pack);
+        System.out.println("Content pack: " + FILES.size() + " files, " + localePacks.size() + " locales -> "
+                + packFile + " (" + pack.length + " bytes)");
+
+        Path localePackDir = packFile.toAbsolutePath().getParent().resolve("locales");
+        Files.createDirectories(localePackDir);
+        for (Map.Entry<String, JsonNode> entry : localePacks.entrySet()) {
+            LocalePack localePack = compileLocale(mapper, entry.getKey(), documents, entry.getValue());
+            byte[] bytes = ContentPack.writeLocale(localePack);
+            Path localePackFile = localePackDir.resolve(entry.getKey() + ".pack");
+            Files.write(localePackFile, bytes);
+            System.out.println("Locale pack " + entry.getKey() + ": " + localePack.blobs.size() + " blobs -> "
+                    + localePackFile + " (" + bytes.length + " bytes)");
+        }
+    }
+
+    // Contenu source + surcharge de la langue, réponses retirées, indices découpés par palier ; chaque blob est
+    // sérialisé et compressé une fois pour toutes. Sortie déterministe : recompiler donne les mêmes empreintes.
+    static LocalePack compileLocale(ObjectMapper mapper, String locale, Map<String, JsonNode> documents,
+                                    JsonNode overlay) throws IOException {
+        LocalePack localePack = new LocalePack(locale);
+        Map<String, String> puzzles = new LinkedHashMap<>();
+        for (String file : FILES) {
+            String name = puzzleName(file);
+            JsonNode document = documents.get(file).deepCopy();
+            merge(document, overlay.path("puzzles").path(name));
+            Continent continent = Continent.fromName(name);
+
+            if (continent != null) {
+                String[] tiers = new String[ContentCatalog.HINT_TIERS];
+                for (int tier = 1; tier <= ContentCatalog.HINT_TIERS; tier++) {
+                    ObjectNode hint = mapper.createObjectNode();
+                    hint.put("locale", locale);
+                    hint.put("continent", name);
+                    hint.put("tier", tier);
+                    hint.put("text", document.path("hints").path(tier - 1).asText());
+                    tiers[tier - 1] = add(localePack, mapper.writeValueAsBytes(hint));
+                }
+                localePack.hints.put(continent, tiers);
+                // Les indices sont servis à part, palier par palier
+                ((ObjectNode) document).remove("hints");
+            }
+
+            for (String path : ANSWERS.getOrDefault(name, List.of())) {
+                strip(document, path.split("/"), 0);
+            }
+            ObjectNode puzzle = mapper.createObjectNode();
+            puzzle.put("locale", locale);
+            puzzle.put("puzzle", name);
+            puzzle.set("content", document);
+            puzzles.put(name, add(localePack, mapper.writeValueAsBytes(puzzle)));
+        }
+        overlay.path("messages").properties().forEach(e -> localePack.messages.put(e.getKey(), e.getValue().asText()));
+
+        // Le manifeste change à chaque déploiement de contenu : revalidé par ETag, jamais figé
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("locale", locale);
+        manifest.put("puzzles", puzzles);
+        localePack.manifest = blob(locale, mapper.writeValueAsBytes(manifest));
+        return localePack;
+    }
+
+    private static String add(LocalePack localePack, byte[] identity) throws IOException {
+        ContentCatalog.Blob blob = blob(localePack.locale, identity);
+        localePack.blobs.put(blob.getHash(), blob);
+        return blob.getHash();
+    }
+
+    // Empreinte au format <locale>-<hash> : la langue se déduit de l'empreinte seule
+    private static ContentCatalog.Blob blob(String locale, byte[] identity) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(identity.length);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(identity);
+        }
+        byte[] gzip = compressed.size() < identity.length ? compressed.toByteArray() : null;
+        return new ContentCatalog.Blob(locale + "-" + sha256(identity), identity, gzip);
+    }
+
+    // Surcharge d'un pack de langue : objets fusionnés champ par champ, tableaux élément par élément
+    // (même longueur, vérifiée par checkLocales), textes remplacés
+    private static void merge(JsonNode target, JsonNode overlay) {
+        if (target instanceof ObjectNode object && overlay.isObject()) {
+            overlay.properties().forEach(e -> {
+                JsonNode current = object.get(e.getKey());
+                if (current != null && current.isContainerNode()) {
+                    merge(current, e.getValue());
+                } else {
+                    object.set(e.getKey(), e.getValue());
+                }
+            });
+        } else if (target instanceof ArrayNode array && overlay.isArray()) {
+            for (int i = 0; i < Math.min(array.size(), overlay.size()); i++) {
+                if (array.get(i).isContainerNode()) {
+                    merge(array.get(i), overlay.get(i));
+                } else {
+                    array.set(i, overlay.get(i));
+                }
+            }
+        }
+    }
+
+    private static void strip(JsonNode node, String[] path, int depth) {
+        String segment = path[depth];
+        boolean last = depth == path.length - 1;
+        if (segment.equals("*")) {
+            if (node instanceof ArrayNode array) {
+                for (JsonNode element : array) {
+                    if (!last) {
+                        strip(element, path, depth + 1);
+                    }
+                }
+            }
+            return;
+        }
+        if (!(node instanceof ObjectNode object)) {
+            return;
+        }
+        if (last) {
+            object.remove(segment);
+        } else if (object.has(segment)) {
+            strip(object.get(segment), path, depth + 1);
+        }
+    }
+
+    // 128 premiers bits du SHA-256, en hexadécimal
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // EUROPE, ASIA... ou META, d'après le préfixe du fichier
+    public static String puzzleName(String file) {
+        Continent continent = Continent.fromKey(file.substring(0, 2));
+        return continent != null ? continent.name() : ContentCatalog.META;
+    }
+
+    // Un pack de langue ne remplace que des textes existants, jamais une réponse, et traduit tous les
+    // messages d'erreur que les autres packs définissent
+    public static void checkLocales(Map<String, JsonNode> documents, Map<String, JsonNode> localePacks) {
+        Set<String> codes = new TreeSet<>();
+        for (JsonNode localePack : localePacks.values()) {
+            localePack.path("messages").fieldNames().forEachRemaining(codes::add);
+        }
+        for (Map.Entry<String, JsonNode> entry : localePacks.entrySet()) {
+            String file = "locales/" + entry.getKey() + ".json";
+            JsonNode localePack = entry.getValue();
+            check(localePack.path("locale").asText().equals(entry.getKey()), file, "locale must match the file name");
+
+            JsonNode puzzles = field(localePack, file, "puzzles");
+            check(puzzles.isObject(), file, "puzzles must be an object");
+            Map<String, JsonNode> byName = new HashMap<>();
+            for (String source : FILES) {
+                byName.put(puzzleName(source), documents.get(source));
+            }
+            puzzles.properties().forEach(e -> {
+                check(byName.containsKey(e.getKey()), file, "unknown puzzle " + e.getKey());
+                checkOverlay(byName.get(e.getKey()), e.getValue(), file, e.getKey(), "");
+            });
+
+            JsonNode messages = field(localePack, file, "messages");
+            check(messages.isObject(), file, "messages must be an object");
+            for (String code : codes) {
+                JsonNode message = messages.get(code);
+                check(message != null && message.isTextual() && !message.asText().isBlank(), file,
+                        "missing message " + code);
+            }
+        }
+    }
+
+    private static void checkOverlay(JsonNode base, JsonNode overlay, String file, String puzzle, String path) {
+        String where = puzzle + (path.isEmpty() ? "" : "/" + path);
+        if (overlay.isObject()) {
+            check(base != null && base.isObject(), file, where + " is not an object in the source content");
+            overlay.properties().forEach(e -> {
+                String child = path.isEmpty() ? e.getKey() : path + "/" + e.getKey();
+                check(!ANSWERS.getOrDefault(puzzle, List.of()).contains(child.replaceAll("/\\d+/", "/*/")),
+                        file, puzzle + "/" + child + " is an answer and cannot be translated");
+                checkOverlay(base.get(e.getKey()), e.getValue(), file, puzzle, child);
+            });
+        } else if (overlay.isArray()) {
+            check(base != null && base.isArray() && base.size() == overlay.size(), file,
+                    where + " must be an array of " + (base != null ? base.size() : 0) + " elements");
+            for (int i = 0; i < overlay.size(); i++) {
+                checkOverlay(base.get(i), overlay.get(i), file, puzzle, path + "/" + i);
+            }
+        } else {
+            check(base != null && base.isTextual() && overlay.isTextual() && !overlay.asText().isBlank(), file,
+                    where + " must replace a text with a non-empty text");
+        }
+    }
+
+    public static PuzzleContent compile(Map<String, JsonNode> documents) {
+        for (String file : FILES) {
+            if (documents.get(file) == null) {
+                throw new IllegalStateException("Missing content file " + file);
+            }
+            if (!file.equals("meta_config.json")) {
+                checkHints(documents.get(file), file);
+            }
+        }
+        return new PuzzleContent(
+                compileEurope(documents.get("eu_salutations.json")),
+                compileAsia(documents.get("as_time.json")),
+                compileAmericas(documents.get("am_items.json")),
+                compileAfrica(documents.get("af_currencies.json")),
+                compileOceania(documents.get("oc_islands.json")),
+                compileAntarctica(documents.get("an_stations.json")));
+    }
+
+    private static String compileEurope(JsonNode eu) {
+        String targetWord = text(eu, "eu_salutations.json", "targetWord").toUpperCase();
+        check(targetWord.matches("[A-Z]{5}"), "eu_salutations.json", "targetWord must be 5 letters");
+        return targetWord;
+    }
+
+    private static List<String> compileAsia(JsonNode as) {
+        JsonNode slots = array(as, "as_time.json", "validSlotsUTC");
+        List<String> validSlots = new ArrayList<>();
+        for (JsonNode slot : slots) {
+            check(slot.isTextual() && slot.asText().matches("\\d{2}:\\d{2}"), "as_time.json",
+                    "validSlotsUTC entries must be HH:MM");
+            validSlots.add(slot.asText());
+        }
+        check(!validSlots.isEmpty(), "as_time.json", "validSlotsUTC is empty");
+        if (as.has("correctAnswer")) {
+            check(validSlots.contains(as.get("correctAnswer").asText()), "as_time.json",
+                    "correctAnswer is not one of validSlotsUTC");
+        }
+        return validSlots;
+    }
+
+    // Somme des poids des objets autorisés en cabine (règles liquides, batteries, interdits)
+    private static int compileAmericas(JsonNode am) {
+        JsonNode rules = field(am, "am_items.json", "rules");
+        int maxLiquidMl = integer(rules, "am_items.json", "maxLiquidMl");
+        int maxPowerWh = integer(rules, "am_items.json", "maxPowerWh");
+        List<String> prohibited = new ArrayList<>();
+        for (JsonNode p : array(am, "am_items.json", "prohibitedItems")) {
+            prohibited.add(p.asText().toLowerCase());
+        }
+
+        int totalWeight = 0;
+        for (JsonNode item : array(am, "am_items.json", "items")) {
+            String name = text(item, "am_items.json", "name");
+            int weight = integer(item, "am_items.json", "weightKg");
+            boolean isLiquid = field(item, "am_items.json", "isLiquid").asBoolean();
+            int power = item.has("powerWh") ? item.get("powerWh").asInt() : 0;
+
+            boolean allowed = !(isLiquid && integer(item, "am_items.json", "volumeMl") > maxLiquidMl)
+                    && power <= maxPowerWh
+                    && !prohibited.contains(name.toLowerCase());
+            if (allowed) {
+                totalWeight += weight;
+            }
+        }
+
+        check(totalWeight <= 9999, "am_items.json", "cabin weight does not fit a 4-digit code");
+        if (am.has("expectedCabinWeightKg")) {
+            check(am.get("expectedCabinWeightKg").asInt() == totalWeight, "am_items.json",
+                    "expectedCabinWeightKg " + am.get("expectedCabinWeightKg").asInt()
+                            + " does not match the rules (" + totalWeight + ")");
+        }
+        return totalWeight;
+    }
+
+    private static int compileAfrica(JsonNode af) {
+        int amount = integer(af, "af_currencies.json", "expectedFinalAmount");
+        check(amount >= 0 && amount <= 9999, "af_currencies.json", "expectedFinalAmount must be a 4-digit code");
+        return amount;
+    }
+
+    private static String compileOceania(JsonNode oc) {
+        String correctRoute = text(oc, "oc_islands.json", "correctRoute").toUpperCase();
+        check(correctRoute.matches("[A-D]"), "oc_islands.json", "correctRoute must be A, B, C or D");
+        if (oc.has("routes")) {
+            String shortest = null;
+            int shortestDistance = Integer.MAX_VALUE;
+            for (JsonNode route : oc.get("routes")) {
+                int distance = integer(route, "oc_islands.json", "totalDistance");
+                if (distance < shortestDistance) {
+                    shortestDistance = distance;
+                    shortest = text(route, "oc_islands.json", "name");
+                }
+            }
+            check(shortest == null || shortest.toUpperCase().endsWith(" " + correctRoute), "oc_islands.json",
+                    "correctRoute " + correctRoute + " is not the shortest route (" + shortest + ")");
+        }
+        return correctRoute;
+    }
+
+    private static String compileAntarctica(JsonNode an) {
+        String expected = text(an, "an_stations.json", "expectedAnswer").toUpperCase();
+        check(expected.length() >= 3, "an_stations.json", "expectedAnswer is too short");
+        if (an.has("researchStations")) {
+            String coldest = null;
+            int coldestTemp = Integer.MAX_VALUE;
+            for (JsonNode station : an.get("researchStations")) {
+                int temp = integer(station, "an_stations.json", "avgTempC");
+                if (temp < coldestTemp) {
+                    coldestTemp = temp;
+                    coldest = text(station, "an_stations.json", "name").toUpperCase();
+                }
+            }
+            check(coldest == null || coldest.equals(expected), "an_stations.json",
+                    "expectedAnswer " + expected + " is not the coldest station (" + coldest + ")");
+        }
+        return expected;
+    }
+
+    // Un palier d'indice par indice accordable (ContentCatalog.HINT_TIERS)
+    private static void checkHints(JsonNode document, String file) {
+        JsonNode hints = array(document, file, "hints");
+        check(hints.size() == ContentCatalog.HINT_TIERS, file,
+                "hints must list " + ContentCatalog.HINT_TIERS + " tiers");
+        for (JsonNode hint : hints) {
+            check(hint.isTextual() && !hint.asText().isBlank(), file, "hints must be non-empty strings");
+        }
+    }
+
+    private static JsonNode field(JsonNode node, String file, String name) {
+        JsonNode value = node.get(name);
+        check(value != null && !value.isNull(), file, "missing field " + name);
+        return value;
+    }
+
+    private static String text(JsonNode node, String file, String name) {
+        JsonNode value = field(node, file, name);
+        check(value.isTextual() && !value.asText().isBlank(), file, name + " must be a non-empty string");
+        return value.asText().trim();
+    }
+
+    private static int integer(JsonNode node, String file, String name) {
+        JsonNode value = field(node, file, name);
+        check(value.isIntegralNumber(), file, name + " must be an integer");
+        return value.asInt();
+    }
+
+    private static JsonNode array(JsonNode node, String file, String name) {
+        JsonNode value = field(node, file, name);
+        check(value.isArray(), file, name + " must be an array");
+        return value;
+    }
+
+    private static void check(boolean condition, String file, String message) {
+        if (!condition) {
+            throw new IllegalStateException("Invalid content " + file + ": " + message);
+        }
+    }
+}
\ No newline at end of file
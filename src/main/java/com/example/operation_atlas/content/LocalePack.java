@@ -0,0 +1,21 @@
+package com.example.operation_atlas.content;
+
+import com.example.operation_atlas.model.Continent;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Pack de langue compilé au build par ContentPackCompiler, relu tel quel par ContentCatalog :
+// blobs déjà encodés, compressés et adressés par empreinte
+final class LocalePack {
+    final String locale;
+    final Map<String, ContentCatalog.Blob> blobs = new LinkedHashMap<>();
+    final EnumMap<Continent, String[]> hints = new EnumMap<>(Continent.class);
+    final Map<String, String> messages = new LinkedHashMap<>();
+    ContentCatalog.Blob manifest;
+
+    LocalePack(String locale) {
+        this.locale = locale;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.operation_atlas.content;
+
+import java.util.List;
+import java.util.Set;
+
+// Clé de réponses compilée depuis src/main/resources/content : uniquement ce que les validateurs lisent,
+// déjà vérifié et normalisé (majuscules, poids cabine précalculé)
+public final class PuzzleContent {
+
+    private final String euTargetWord;
+    private final Set<String> asValidSlots;
+    private final int amCabinWeight;
+    private final int afExpectedAmount;
+    private final String ocCorrectRoute;
+    private final String anExpectedAnswer;
+
+    public PuzzleContent(String euTargetWord, List<String> asValidSlots, int amCabinWeight, int afExpectedAmount,
+                         String ocCorrectRoute, String anExpectedAnswer) {
+        this.euTargetWord = euTargetWord;
+        this.asValidSlots = Set.copyOf(asValidSlots);
+        this.amCabinWeight = amCabinWeight;
+        this.afExpectedAmount = afExpectedAmount;
+        this.ocCorrectRoute = ocCorrectRoute;
+        this.anExpectedAnswer = anExpectedAnswer;
+    }
+
+    public String getEuTargetWord() {
+        return euTargetWord;
+    }
+
+    public Set<String> getAsValidSlots() {
+        return asValidSlots;
+    }
+
+    public int getAmCabinWeight() {
+        return amCabinWeight;
+    }
+
+    public int getAfExpectedAmount() {
+        return afExpectedAmount;
+    }
+
+    public String getOcCorrectRoute() {
+        return ocCorrectRoute;
+    }
+
+    public String getAnExpectedAnswer() {
+        return anExpectedAnswer;
+    }
+}
\ No newline at end of file
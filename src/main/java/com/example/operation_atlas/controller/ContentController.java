@@ -0,0 +1,85 @@
+package com.example.operation_atlas.controller;
+
+import com.example.operation_atlas.content.ContentCatalog;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+// Contenu des énigmes adressé par empreinte : le manifeste est revalidé (ETag), les blobs sont immuables
+// et cachables un an par le navigateur comme par un CDN
+@RestController
+@RequestMapping("/api/content")
+public class ContentController {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    private final ContentCatalog contentCatalog;
+
+    public ContentController(ContentCatalog contentCatalog) {
+        this.contentCatalog = contentCatalog;
+    }
+
+    // locale absente = locale par défaut
+    @GetMapping
+    public ResponseEntity<byte[]> manifest(@RequestParam(required = false) String locale,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                           WebRequest request) {
+        return serve(contentCatalog.manifest(locale), CacheControl.noCache(), acceptEncoding, request);
+    }
+
+    @GetMapping("/{hash}")
+    public ResponseEntity<byte[]> blob(@PathVariable String hash,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                       WebRequest request) {
+        return serve(contentCatalog.get(hash), IMMUTABLE, acceptEncoding, request);
+    }
+
+    private ResponseEntity<byte[]> serve(ContentCatalog.Blob blob, CacheControl cacheControl,
+                                         String acceptEncoding, WebRequest request) {
+        if (blob == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Une représentation = un ETag : la variante gzip a le sien
+        boolean gzip = blob.getGzip() != null && acceptsGzip(acceptEncoding);
+        String etag = "\"" + blob.getHash() + (gzip ? "-gz" : "") + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(304).eTag(etag).cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(blob.getGzip());
+        }
+        return response.body(blob.getIdentity());
+    }
+
+    // gzip nommé l'emporte sur "*", quel que soit l'ordre ; q=0 refuse le codage
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            boolean accepted = parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return accepted;
+            }
+            if (parts[0].trim().equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.example.operation_atlas.controller;
+
+import com.example.operation_atlas.dto.ProvisionRequest;
+import com.example.operation_atlas.exception.ForbiddenException;
+import com.example.operation_atlas.exception.GameException;
+import com.example.operation_atlas.model.Continent;
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.model.RoomState;
+import com.example.operation_atlas.service.GameService;
+import com.example.operation_atlas.service.RateLimitService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+// Provisioning groupé pour les sessions planifiées : N rooms en un appel, manifeste compact des codes, puis
+// démarrage de tout l'événement au même moment. Réservé aux organisateurs (jeton X-Organizer-Token parmi
+// atlas.events.organizer-tokens, API fermée si la liste est vide) ; un événement n'est visible que de
+// l'organisateur qui l'a créé, et chaque room provisionnée compte dans son quota.
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    static final String TOKEN_HEADER = "X-Organizer-Token";
+
+    private final GameService gameService;
+    private final RateLimitService rateLimitService;
+    // Empreinte de chaque jeton accepté : identifie l'organisateur sans garder le jeton lui-même
+    private final List<byte[]> organizerTokens = new ArrayList<>();
+
+    public EventController(GameService gameService, RateLimitService rateLimitService,
+                           @Value("${atlas.events.organizer-tokens:}") String organizerTokens) {
+        this.gameService = gameService;
+        this.rateLimitService = rateLimitService;
+        for (String token : organizerTokens.split(",")) {
+            if (!token.isBlank()) {
+                this.organizerTokens.add(sha256(token.trim()));
+            }
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<?> provision(@Valid @RequestBody ProvisionRequest request,
+                                       HttpServletRequest httpRequest) {
+        String organizer = authenticate(httpRequest);
+        rateLimitService.checkGameActionLimit(getClientIp(httpRequest));
+        rateLimitService.checkProvisionLimit(organizer, request.getRooms());
+
+        List<Continent> draw = null;
+        if (request.getDraw() != null) {
+            draw = new ArrayList<>();
+            for (String name : request.getDraw()) {
+                Continent continent = Continent.fromName(name);
+                if (continent == null) {
+                    throw new GameException("ERR_INVALID_CONTINENT", "Unknown continent: " + name);
+                }
+                if (draw.contains(continent)) {
+                    throw new GameException("ERR_PAYLOAD_INVALID", "Duplicate continent: " + name);
+                }
+                draw.add(continent);
+            }
+        }
+
+        String eventId = request.getEventId() != null ? request.getEventId() : UUID.randomUUID().toString();
+        List<GameRoom> rooms = gameService.provisionRooms(eventId, organizer, request.getRooms(), draw,
+                request.getLocale());
+        return ResponseEntity.ok(manifest(eventId, rooms));
+    }
+
+    @GetMapping("/{eventId}")
+    public ResponseEntity<?> getManifest(@PathVariable String eventId, HttpServletRequest httpRequest) {
+        String organizer = authenticate(httpRequest);
+        return ResponseEntity.ok(manifest(eventId, gameService.getEventRooms(eventId, organizer)));
+    }
+
+    @PostMapping("/{eventId}/start")
+    public ResponseEntity<?> startEvent(@PathVariable String eventId,
+                                        HttpServletRequest httpRequest) {
+        String organizer = authenticate(httpRequest);
+        rateLimitService.checkGameActionLimit(getClientIp(httpRequest));
+        int total = gameService.getEventRooms(eventId, organizer).size();
+        Map<String, String> failures = gameService.startEvent(eventId, organizer);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("eventId", eventId);
+        response.put("started", total - failures.size());
+        response.put("failed", failures);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Une ligne par room : id, code, langue, tirage et étape
+    private Map<String, Object> manifest(String eventId, List<GameRoom> rooms) {
+        List<Map<String, Object>> entries = new ArrayList<>(rooms.size());
+        for (GameRoom room : rooms) {
+            RoomState state = room.getState();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("roomId", state.getId());
+            entry.put("joinCode", state.getJoinCode());
+            entry.put("locale", state.getLocale());
+            entry.put("draw", state.getDraw());
+            entry.put("stage", state.getStage());
+            entries.add(entry);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("eventId", eventId);
+        response.put("rooms", entries);
+        return response;
+    }
+
+    // Identifiant de l'organisateur : préfixe hexadécimal de l'empreinte de son jeton
+    private String authenticate(HttpServletRequest request) {
+        String token = request.getHeader(TOKEN_HEADER);
+        if (token != null && !token.isBlank()) {
+            byte[] digest = sha256(token.trim());
+            for (byte[] accepted : organizerTokens) {
+                if (MessageDigest.isEqual(accepted, digest)) {
+                    return HexFormat.of().formatHex(digest, 0, 8);
+                }
+            }
+        }
+        throw new ForbiddenException("Organizer token required");
+    }
+
+    private static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String getClientIp(HttpServletRequest request) {
+        String ip = request.getHeader("X-Forwarded-For");
+        if (ip == null || ip.isEmpty()) {
+            ip = request.getRemoteAddr();
+        }
+        return ip;
+    }
+}
\ No newline at end of file
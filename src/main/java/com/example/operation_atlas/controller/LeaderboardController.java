@@ -0,0 +1,68 @@
+package com.example.operation_atlas.controller;
+
+import com.example.operation_atlas.exception.GameException;
+import com.example.operation_atlas.leaderboard.Leaderboard;
+import com.example.operation_atlas.leaderboard.LeaderboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Classements paginés : global, par tirage (ex: /draws/EUROPE+ASIA+AFRICA, ordre indifférent), par événement
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> overall(@RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(page("overall", leaderboardService.overall(), page, size));
+    }
+
+    @GetMapping("/draws/{draw}")
+    public ResponseEntity<?> byDraw(@PathVariable String draw,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        List<String> continents = Arrays.asList(draw.split("[+,]"));
+        String key = LeaderboardService.drawKey(continents);
+        if (key.split("\\+").length != 3 || continents.size() != 3) {
+            throw new GameException("ERR_INVALID_CONTINENT", "Draw must list 3 distinct continents");
+        }
+        return ResponseEntity.ok(page(key, leaderboardService.forDraw(continents), page, size));
+    }
+
+    @GetMapping("/events/{eventId}")
+    public ResponseEntity<?> byEvent(@PathVariable String eventId,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(page(eventId, leaderboardService.forEvent(eventId), page, size));
+    }
+
+    // Rang de la première entrée = firstRank, les suivantes dans l'ordre
+    private Map<String, Object> page(String board, Leaderboard leaderboard, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new GameException("ERR_PAYLOAD_INVALID", "page >= 0 and 1 <= size <= " + MAX_PAGE_SIZE);
+        }
+        int offset = (int) Math.min((long) page * size, Integer.MAX_VALUE - 1);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("board", board);
+        response.put("page", page);
+        response.put("size", size);
+        response.put("total", leaderboard == null ? 0 : leaderboard.size());
+        response.put("firstRank", offset + 1);
+        response.put("entries", leaderboard == null ? List.of() : leaderboard.page(offset, size));
+        return response;
+    }
+}
\ No newline at end of file
@@ -1,30 +1,45 @@
 package com.example.operation_atlas.controller;
 
+import com.example.operation_atlas.dto.BatchRequest;
+import com.example.operation_atlas.dto.CommandResult;
 import com.example.operation_atlas.dto.CreateRoomRequest;
 import com.example.operation_atlas.dto.JoinRequest;
+import com.example.operation_atlas.dto.RoomCommand;
 import com.example.operation_atlas.dto.RoomSnapshot;
 import com.example.operation_atlas.dto.SubmitRequest;
 import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.model.Player;
+import com.example.operation_atlas.model.RoomState;
 import com.example.operation_atlas.service.GameService;
+import com.example.operation_atlas.service.IdempotencyService;
 import com.example.operation_atlas.service.RateLimitService;
+import com.example.operation_atlas.service.SpectatorService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/rooms")
 public class RoomController {
 
+    private static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+
     private final GameService gameService;
     private final RateLimitService rateLimitService;
+    private final SpectatorService spectatorService;
+    private final IdempotencyService idempotencyService;
 
-    public RoomController(GameService gameService, RateLimitService rateLimitService) {
+    public RoomController(GameService gameService, RateLimitService rateLimitService,
+                          SpectatorService spectatorService, IdempotencyService idempotencyService) {
         this.gameService = gameService;
         this.rateLimitService = rateLimitService;
+        this.spectatorService = spectatorService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
@@ -32,12 +47,12 @@ public class RoomController {
                                         HttpServletRequest httpRequest) {
         rateLimitService.checkGameActionLimit(getClientIp(httpRequest));
 
-        GameRoom room = gameService.createRoom(request.getPseudo());
+        GameRoom room = gameService.createRoom(request.getPseudo(), request.getLocale());
         com.example.operation_atlas.dto.RoomSnapshot snapshot = com.example.operation_atlas.dto.RoomSnapshot.fromRoom(room);
 
         Map<String, Object> response = new HashMap<>();
         response.put("room", snapshot);
-        response.put("playerId", room.getPlayers().get(0).getId());
+        response.put("playerId", snapshot.getPlayers().get(0).getId());
 
         return ResponseEntity.ok(response);
     }
@@ -45,21 +60,35 @@ public class RoomController {
     @PostMapping("/{roomId}/join")
     public ResponseEntity<?> joinRoom(@PathVariable String roomId,
                                       @Valid @RequestBody JoinRequest request,
+                                      @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
                                       HttpServletRequest httpRequest) {
         rateLimitService.checkGameActionLimit(getClientIp(httpRequest));
 
-        GameRoom room = gameService.joinRoom(request.getJoinCode(), request.getPseudo());
-        RoomSnapshot snapshot = RoomSnapshot.fromRoom(room);
+        String joinedRoomId = gameService.resolveJoinCode(request.getJoinCode());
+        Map<String, Object> response = idempotencyService.execute(joinedRoomId, "join", idempotencyKey, request, () -> {
+            GameRoom room = gameService.joinRoom(request.getJoinCode(), request.getPseudo());
+            RoomState state = room.getState();
+            RoomSnapshot snapshot = RoomSnapshot.of(state);
+
+            Player player = state.findPlayerByPseudo(request.getPseudo());
+            String playerId = player != null ? player.getId() : null;
 
-        String playerId = room.getPlayers().stream()
-                .filter(p -> p.getPseudo().equals(request.getPseudo()))
-                .findFirst()
-                .map(p -> p.getId())
-                .orElse(null);
+            Map<String, Object> body = new HashMap<>();
+            body.put("room", snapshot);
+            body.put("playerId", playerId);
+            return body;
+        });
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/resolve/{joinCode}")
+    public ResponseEntity<?> resolveJoinCode(@PathVariable String joinCode) {
+        String roomId = gameService.resolveJoinCode(joinCode);
 
         Map<String, Object> response = new HashMap<>();
-        response.put("room", snapshot);
-        response.put("playerId", playerId);
+        response.put("roomId", roomId);
+        response.put("joinCode", joinCode.toUpperCase());
 
         return ResponseEntity.ok(response);
     }
@@ -68,16 +97,28 @@ public class RoomController {
     public ResponseEntity<?> getRoomState(@PathVariable String roomId,
                                           @RequestParam(required = false) Integer since) {
         GameRoom room = gameService.getRoom(roomId);
-        RoomSnapshot snapshot = RoomSnapshot.fromRoom(room);
+        RoomSnapshot snapshot = RoomSnapshot.publicView(room);
 
 
-        if (since != null && room.getVersion() == since) {
+        if (since != null && snapshot.getVersion() == since) {
             return ResponseEntity.noContent().build();
         }
 
         return ResponseEntity.ok(snapshot);
     }
 
+    @GetMapping("/{roomId}/spectators")
+    public ResponseEntity<?> getSpectators(@PathVariable String roomId) {
+        gameService.getRoom(roomId);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("roomId", roomId);
+        response.put("spectators", spectatorService.count(roomId));
+        response.put("max", spectatorService.getMaxPerRoom());
+
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{roomId}/start")
     public ResponseEntity<?> startGame(@PathVariable String roomId,
                                        HttpServletRequest httpRequest) {
@@ -90,39 +131,89 @@ public class RoomController {
     public ResponseEntity<?> submitPuzzle(@PathVariable String roomId,
                                           @PathVariable String continent,
                                           @Valid @RequestBody SubmitRequest request,
+                                          @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
                                           HttpServletRequest httpRequest) {
         rateLimitService.checkGameActionLimit(getClientIp(httpRequest));
-        gameService.submitPuzzle(roomId, continent, request.getAnswer(), request.getPlayerId());
+        idempotencyService.execute(roomId, "puzzle", idempotencyKey, List.of(continent, request), () -> {
+            gameService.submitPuzzle(roomId, continent, request.getAnswer(), request.getPlayerId());
+            return null;
+        });
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/{roomId}/hint/{continent}")
     public ResponseEntity<?> requestHint(@PathVariable String roomId,
                                          @PathVariable String continent,
+                                         @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
                                          HttpServletRequest httpRequest) {
         rateLimitService.checkGameActionLimit(getClientIp(httpRequest));
-        gameService.requestHint(roomId, continent);
+        idempotencyService.execute(roomId, "hint", idempotencyKey, continent, () -> {
+            gameService.requestHint(roomId, continent);
+            return null;
+        });
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/{roomId}/hints/{continent}")
+    public ResponseEntity<?> getHints(@PathVariable String roomId,
+                                      @PathVariable String continent) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("continent", continent.toUpperCase());
+        response.put("hints", gameService.getUnlockedHints(roomId, continent));
+
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{roomId}/meta")
     public ResponseEntity<?> submitMeta(@PathVariable String roomId,
                                         @Valid @RequestBody SubmitRequest request,
+                                        @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
                                         HttpServletRequest httpRequest) {
         rateLimitService.checkGameActionLimit(getClientIp(httpRequest));
-        gameService.submitMeta(roomId, request.getAnswer());
+        idempotencyService.execute(roomId, "meta", idempotencyKey, request, () -> {
+            gameService.submitMeta(roomId, request.getAnswer());
+            return null;
+        });
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/{roomId}/final")
     public ResponseEntity<?> submitFinal(@PathVariable String roomId,
                                          @Valid @RequestBody SubmitRequest request,
+                                         @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
                                          HttpServletRequest httpRequest) {
         rateLimitService.checkGameActionLimit(getClientIp(httpRequest));
-        gameService.submitFinal(roomId, request.getAnswer());
+        idempotencyService.execute(roomId, "final", idempotencyKey, request, () -> {
+            gameService.submitFinal(roomId, request.getAnswer());
+            return null;
+        });
         return ResponseEntity.ok().build();
     }
 
+    // Plusieurs commandes en un aller-retour : une vérification de rate limit, un seul broadcast
+    @PostMapping("/{roomId}/batch")
+    public ResponseEntity<?> executeBatch(@PathVariable String roomId,
+                                          @Valid @RequestBody BatchRequest request,
+                                          @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
+                                          HttpServletRequest httpRequest) {
+        rateLimitService.checkGameActionLimit(getClientIp(httpRequest));
+        for (RoomCommand command : request.getCommands()) {
+            if ("CHAT".equalsIgnoreCase(command.getType())) {
+                rateLimitService.checkChatLimit(command.getPlayerId());
+            }
+        }
+
+        List<CommandResult> results = idempotencyService.execute(roomId, "batch", idempotencyKey, request,
+                () -> gameService.executeBatch(roomId, request.getCommands()));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("batchId", request.getBatchId());
+        response.put("results", results);
+        response.put("version", gameService.getRoom(roomId).getVersion());
+
+        return ResponseEntity.ok(response);
+    }
+
     private String getClientIp(HttpServletRequest request) {
         String ip = request.getHeader("X-Forwarded-For");
         if (ip == null || ip.isEmpty()) {
@@ -0,0 +1,86 @@
+package com.example.operation_atlas.controller;
+
+import com.example.operation_atlas.dto.RoomSnapshot;
+import com.example.operation_atlas.exception.GameException;
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.service.GameService;
+import com.example.operation_atlas.service.ShardRouter;
+import com.example.operation_atlas.service.SpectatorService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class SpectatorWebSocketHandler extends TextWebSocketHandler {
+
+    private final GameService gameService;
+    private final SpectatorService spectatorService;
+    private final ShardRouter shardRouter;
+    private final Map<String, WebSocketSession> decorated = new ConcurrentHashMap<>();
+
+    @Value("${atlas.spectator.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${atlas.spectator.buffer-size-limit:262144}")
+    private int bufferSizeLimit;
+
+    public SpectatorWebSocketHandler(GameService gameService, SpectatorService spectatorService,
+                                     ShardRouter shardRouter) {
+        this.gameService = gameService;
+        this.spectatorService = spectatorService;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String roomId = extractRoomId(session);
+        if (!shardRouter.isLocal(roomId)) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("ERR_WRONG_SHARD " + shardRouter.ownerOf(roomId)));
+            return;
+        }
+
+        GameRoom room;
+        try {
+            room = gameService.getRoom(roomId);
+        } catch (GameException e) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason(e.getErrorCode()));
+            return;
+        }
+
+        WebSocketSession spectator = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, bufferSizeLimit);
+        if (!spectatorService.tryAdd(roomId, spectator, () -> gameService.isLive(room))) {
+            session.close(gameService.isLive(room)
+                    ? CloseStatus.SERVICE_OVERLOAD.withReason("ERR_SPECTATORS_FULL")
+                    : CloseStatus.POLICY_VIOLATION.withReason("ERR_ROOM_NOT_FOUND"));
+            return;
+        }
+        decorated.put(session.getId(), spectator);
+
+        spectatorService.sendTo(spectator, RoomSnapshot.publicView(room));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        // Les spectateurs sont en lecture seule
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WebSocketSession spectator = decorated.remove(session.getId());
+        if (spectator != null) {
+            spectatorService.remove(extractRoomId(session), spectator);
+        }
+    }
+
+    private String extractRoomId(WebSocketSession session) {
+        String path = session.getUri().getPath();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
\ No newline at end of file
@@ -1,54 +1,86 @@
 package com.example.operation_atlas.controller;
 
+import com.example.operation_atlas.dto.BatchRequest;
+import com.example.operation_atlas.dto.CommandResult;
+import com.example.operation_atlas.dto.RoomCommand;
 import com.example.operation_atlas.service.GameService;
+import com.example.operation_atlas.service.IdempotencyService;
 import com.example.operation_atlas.service.RateLimitService;
+import com.example.operation_atlas.service.RoomBroadcaster;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Controller;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Controller
 public class WebSocketController {
 
+    // En-tête STOMP natif, équivalent de l'en-tête HTTP Idempotency-Key
+    private static final String IDEMPOTENCY_HEADER = "idempotency-key";
+
     private final GameService gameService;
     private final RateLimitService rateLimitService;
+    private final RoomBroadcaster broadcaster;
+    private final IdempotencyService idempotencyService;
 
-    public WebSocketController(GameService gameService, RateLimitService rateLimitService) {
+    public WebSocketController(GameService gameService, RateLimitService rateLimitService,
+                               RoomBroadcaster broadcaster, IdempotencyService idempotencyService) {
         this.gameService = gameService;
         this.rateLimitService = rateLimitService;
+        this.broadcaster = broadcaster;
+        this.idempotencyService = idempotencyService;
     }
 
     @MessageMapping("/rooms/{roomId}/puzzle")
     public void submitPuzzle(@DestinationVariable String roomId,
-                             @Payload Map<String, String> payload) {
+                             @Payload Map<String, String> payload,
+                             @Header(name = IDEMPOTENCY_HEADER, required = false) String idempotencyKey) {
         String continent = payload.get("continent");
         String answer = payload.get("answer");
         String playerId = payload.get("playerId");
 
-        gameService.submitPuzzle(roomId, continent, answer, playerId);
+        idempotencyService.execute(roomId, "puzzle", idempotencyKey, payload, () -> {
+            gameService.submitPuzzle(roomId, continent, answer, playerId);
+            return null;
+        });
     }
 
     @MessageMapping("/rooms/{roomId}/hint")
     public void requestHint(@DestinationVariable String roomId,
-                            @Payload Map<String, String> payload) {
+                            @Payload Map<String, String> payload,
+                            @Header(name = IDEMPOTENCY_HEADER, required = false) String idempotencyKey) {
         String continent = payload.get("continent");
-        gameService.requestHint(roomId, continent);
+        idempotencyService.execute(roomId, "hint", idempotencyKey, payload, () -> {
+            gameService.requestHint(roomId, continent);
+            return null;
+        });
     }
 
     @MessageMapping("/rooms/{roomId}/meta")
     public void submitMeta(@DestinationVariable String roomId,
-                           @Payload Map<String, String> payload) {
+                           @Payload Map<String, String> payload,
+                           @Header(name = IDEMPOTENCY_HEADER, required = false) String idempotencyKey) {
         String answer = payload.get("answer");
-        gameService.submitMeta(roomId, answer);
+        idempotencyService.execute(roomId, "meta", idempotencyKey, payload, () -> {
+            gameService.submitMeta(roomId, answer);
+            return null;
+        });
     }
 
     @MessageMapping("/rooms/{roomId}/final")
     public void submitFinal(@DestinationVariable String roomId,
-                            @Payload Map<String, String> payload) {
+                            @Payload Map<String, String> payload,
+                            @Header(name = IDEMPOTENCY_HEADER, required = false) String idempotencyKey) {
         String answer = payload.get("answer");
-        gameService.submitFinal(roomId, answer);
+        idempotencyService.execute(roomId, "final", idempotencyKey, payload, () -> {
+            gameService.submitFinal(roomId, answer);
+            return null;
+        });
     }
 
     @MessageMapping("/rooms/{roomId}/chat")
@@ -64,4 +96,30 @@ public class WebSocketController {
         rateLimitService.checkChatLimit(playerId);
         gameService.sendChatMessage(roomId, playerId, message);
     }
+
+    // Résultats publiés sur /topic/rooms/{roomId}/results, corrélés par batchId
+    @MessageMapping("/rooms/{roomId}/batch")
+    public void executeBatch(@DestinationVariable String roomId,
+                             @Payload BatchRequest request,
+                             @Header(name = IDEMPOTENCY_HEADER, required = false) String idempotencyKey) {
+        if (request.getCommands() == null || request.getCommands().isEmpty() || request.getCommands().size() > 20) {
+            return;
+        }
+        for (RoomCommand command : request.getCommands()) {
+            if ("CHAT".equalsIgnoreCase(command.getType())) {
+                if (command.getMessage() == null || command.getMessage().length() > 200) {
+                    return;
+                }
+                rateLimitService.checkChatLimit(command.getPlayerId());
+            }
+        }
+
+        List<CommandResult> results = idempotencyService.execute(roomId, "batch", idempotencyKey, request,
+                () -> gameService.executeBatch(roomId, request.getCommands()));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("batchId", request.getBatchId());
+        response.put("results", results);
+        broadcaster.toRoomResults(roomId, response);
+    }
 }
\ No newline at end of file
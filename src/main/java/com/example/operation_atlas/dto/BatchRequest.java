@@ -0,0 +1,31 @@
+package com.example.operation_atlas.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchRequest {
+    private String batchId;
+
+    @NotEmpty(message = "Commands required")
+    @Size(max = 20, message = "Too many commands (max 20)")
+    private List<@Valid RoomCommand> commands;
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public List<RoomCommand> getCommands() {
+        return commands;
+    }
+
+    public void setCommands(List<RoomCommand> commands) {
+        this.commands = commands;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.example.operation_atlas.dto;
+
+public class CommandResult {
+    private int index;
+    private String type;
+    private boolean success;
+    private String errorCode;
+    private String message;
+
+    public CommandResult() {}
+
+    public CommandResult(int index, String type, boolean success, String errorCode, String message) {
+        this.index = index;
+        this.type = type;
+        this.success = success;
+        this.errorCode = errorCode;
+        this.message = message;
+    }
+
+    public static CommandResult ok(int index, String type) {
+        return new CommandResult(index, type, true, null, null);
+    }
+
+    public static CommandResult error(int index, String type, String errorCode, String message) {
+        return new CommandResult(index, type, false, errorCode, message);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(String errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
\ No newline at end of file
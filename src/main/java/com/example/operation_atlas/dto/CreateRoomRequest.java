@@ -8,6 +8,9 @@ public class CreateRoomRequest {
     @Size(max = 50, message = "Pseudo trop long")
     private String pseudo;
 
+    // Absent : locale par défaut du contenu (atlas.content.default-locale)
+    private String locale;
+
     public String getPseudo() {
         return pseudo;
     }
@@ -15,4 +18,12 @@ public class CreateRoomRequest {
     public void setPseudo(String pseudo) {
         this.pseudo = pseudo;
     }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    public void setLocale(String locale) {
+        this.locale = locale;
+    }
 }
\ No newline at end of file
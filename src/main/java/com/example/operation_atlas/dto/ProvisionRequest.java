@@ -0,0 +1,57 @@
+package com.example.operation_atlas.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class ProvisionRequest {
+    // Absent : un identifiant est généré. Un id existant ajoute des rooms à l'événement
+    @Pattern(regexp = "[A-Za-z0-9_-]{1,64}", message = "Event id must be 1-64 letters, digits, '-' or '_'")
+    private String eventId;
+
+    @Min(value = 1, message = "At least one room")
+    @Max(value = 500, message = "Too many rooms (max 500)")
+    private int rooms;
+
+    // Absent : chaque room tire ses 3 continents
+    @Size(min = 3, max = 3, message = "Draw must list 3 continents")
+    private List<String> draw;
+
+    // Absent : locale par défaut du contenu, pour toutes les rooms de l'événement
+    private String locale;
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public int getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(int rooms) {
+        this.rooms = rooms;
+    }
+
+    public List<String> getDraw() {
+        return draw;
+    }
+
+    public void setDraw(List<String> draw) {
+        this.draw = draw;
+    }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    public void setLocale(String locale) {
+        this.locale = locale;
+    }
+}
\ No newline at end of file
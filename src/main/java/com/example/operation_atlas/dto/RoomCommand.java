@@ -0,0 +1,59 @@
+package com.example.operation_atlas.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class RoomCommand {
+    @NotBlank(message = "Command type required")
+    private String type; // START, PUZZLE, HINT, META, FINAL, CHAT
+
+    private String continent;
+
+    @Size(max = 200, message = "Answer too long")
+    private String answer;
+
+    private String playerId;
+
+    @Size(max = 200, message = "Message too long")
+    private String message;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getContinent() {
+        return continent;
+    }
+
+    public void setContinent(String continent) {
+        this.continent = continent;
+    }
+
+    public String getAnswer() {
+        return answer;
+    }
+
+    public void setAnswer(String answer) {
+        this.answer = answer;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public void setPlayerId(String playerId) {
+        this.playerId = playerId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
\ No newline at end of file
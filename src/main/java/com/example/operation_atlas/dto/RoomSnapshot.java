@@ -5,116 +5,83 @@ package com.example.operation_atlas.dto;
 import com.example.operation_atlas.model.GameRoom;
 import com.example.operation_atlas.model.GameStage;
 import com.example.operation_atlas.model.Player;
+import com.example.operation_atlas.model.RoomState;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import java.util.List;
 import java.util.Map;
 
+// Vue publique d'un état immuable : pas de copie, pas de verrou, cohérente même pendant une mutation
+@JsonPropertyOrder({"id", "joinCode", "locale", "stage", "timerSec", "draw", "solved", "hintsUsed", "fragments", "players", "version"})
 public class RoomSnapshot {
-    private String id;
-    private String joinCode;
-    private GameStage stage;
-    private int timerSec;
-    private List<String> draw;
-    private Map<String, Boolean> solved;
-    private Map<String, Integer> hintsUsed;
-    private Map<String, String> fragments;
-    private List<Player> players;
-    private int version;
+    private final RoomState state;
+    private final boolean withJoinCode;
 
+    private RoomSnapshot(RoomState state, boolean withJoinCode) {
+        this.state = state;
+        this.withJoinCode = withJoinCode;
+    }
+
+    // Réponse de création ou de jonction : le joueur reçoit le code pour inviter les autres
     public static RoomSnapshot fromRoom(GameRoom room) {
-        RoomSnapshot snapshot = new RoomSnapshot();
-        snapshot.id = room.getId();
-        snapshot.joinCode = room.getJoinCode();
-        snapshot.stage = room.getStage();
-        snapshot.timerSec = room.getTimerSec();
-        snapshot.draw = room.getDraw();
-        snapshot.solved = room.getSolved();
-        snapshot.hintsUsed = room.getHintsUsed();
-        snapshot.fragments = room.getFragments();
-        snapshot.players = room.getPlayers();
-        snapshot.version = room.getVersion();
-        return snapshot;
+        return new RoomSnapshot(room.getState(), true);
     }
 
-    // Getters & Setters
+    public static RoomSnapshot of(RoomState state) {
+        return new RoomSnapshot(state, true);
+    }
 
-    public String getId() {
-        return id;
+    // Topic de la room (mêmes octets que les spectateurs), /state et spectateurs : jamais le code d'accès,
+    // sinon un simple spectateur d'une room en vitrine pourrait la rejoindre comme joueur
+    public static RoomSnapshot publicView(GameRoom room) {
+        return new RoomSnapshot(room.getState(), false);
     }
 
-    public void setId(String id) {
-        this.id = id;
+    // Getters
+
+    public String getId() {
+        return state.getId();
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public String getJoinCode() {
-        return joinCode;
+        return withJoinCode ? state.getJoinCode() : null;
     }
 
-    public void setJoinCode(String joinCode) {
-        this.joinCode = joinCode;
+    public String getLocale() {
+        return state.getLocale();
     }
 
     public GameStage getStage() {
-        return stage;
-    }
-
-    public void setStage(GameStage stage) {
-        this.stage = stage;
+        return state.getStage();
     }
 
     public int getTimerSec() {
-        return timerSec;
-    }
-
-    public void setTimerSec(int timerSec) {
-        this.timerSec = timerSec;
+        return state.getTimerSec();
     }
 
     public List<String> getDraw() {
-        return draw;
-    }
-
-    public void setDraw(List<String> draw) {
-        this.draw = draw;
+        return state.getDraw();
     }
 
     public Map<String, Boolean> getSolved() {
-        return solved;
-    }
-
-    public void setSolved(Map<String, Boolean> solved) {
-        this.solved = solved;
+        return state.getSolved();
     }
 
     public Map<String, Integer> getHintsUsed() {
-        return hintsUsed;
-    }
-
-    public void setHintsUsed(Map<String, Integer> hintsUsed) {
-        this.hintsUsed = hintsUsed;
+        return state.getHintsUsed();
     }
 
     public Map<String, String> getFragments() {
-        return fragments;
-    }
-
-    public void setFragments(Map<String, String> fragments) {
-        this.fragments = fragments;
+        return state.getFragments();
     }
 
     public List<Player> getPlayers() {
-        return players;
-    }
-
-    public void setPlayers(List<Player> players) {
-        this.players = players;
+        return state.getPlayers();
     }
 
     public int getVersion() {
-        return version;
-    }
-
-    public void setVersion(int version) {
-        this.version = version;
+        return state.getVersion();
     }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.example.operation_atlas.eventlog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Journal d'événements structuré et asynchrone pour les chemins chauds.
+// Côté appelant : test de niveau, échantillonnage puis copie des références dans un slot pré-alloué,
+// sans formatage ni allocation (hors boxing des primitives). Le formatage clé=valeur et l'appel
+// au logger SLF4J sont faits par un thread dédié ; si l'anneau est plein, l'événement est abandonné et compté.
+@Component
+public class EventLogger {
+
+    private static final int MAX_FIELDS = 4;
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+
+    private final Logger[] loggers = new Logger[LogCategory.values().length];
+    private final double[] sampleRates = new double[LogCategory.values().length];
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean writerParked;
+
+    private final Counter sampledOut;
+    private final Counter queueFull;
+
+    private static final class Slot {
+        volatile long sequence = -1;
+        LogCategory category;
+        Level level;
+        String event;
+        final String[] keys = new String[MAX_FIELDS];
+        final Object[] values = new Object[MAX_FIELDS];
+        int fieldCount;
+    }
+
+    public EventLogger(Environment environment, MeterRegistry meterRegistry) {
+        for (LogCategory category : LogCategory.values()) {
+            loggers[category.ordinal()] = LoggerFactory.getLogger("atlas.event." + category.getKey());
+            sampleRates[category.ordinal()] = environment.getProperty(
+                    "atlas.eventlog.sample." + category.getKey(), Double.class, 1.0);
+        }
+
+        int requested = environment.getProperty("atlas.eventlog.buffer-size", Integer.class, 8192);
+        int size = Integer.highestOneBit(Math.max(2, requested - 1) << 1);
+        this.mask = size - 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+
+        this.sampledOut = meterRegistry.counter("atlas.eventlog.dropped", "reason", "sampled");
+        this.queueFull = meterRegistry.counter("atlas.eventlog.dropped", "reason", "queue_full");
+        Gauge.builder("atlas.eventlog.queue", this, l -> l.head.get() - l.tail.get()).register(meterRegistry);
+
+        this.writer = new Thread(this::drain, "atlas-eventlog");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public boolean isEnabled(LogCategory category, Level level) {
+        return loggers[category.ordinal()].isEnabledForLevel(level);
+    }
+
+    public void log(LogCategory category, Level level, String event) {
+        publish(category, level, event, 0, null, null, null, null, null, null, null, null);
+    }
+
+    public void log(LogCategory category, Level level, String event, String k1, Object v1) {
+        publish(category, level, event, 1, k1, v1, null, null, null, null, null, null);
+    }
+
+    public void log(LogCategory category, Level level, String event,
+                    String k1, Object v1, String k2, Object v2) {
+        publish(category, level, event, 2, k1, v1, k2, v2, null, null, null, null);
+    }
+
+    public void log(LogCategory category, Level level, String event,
+                    String k1, Object v1, String k2, Object v2, String k3, Object v3) {
+        publish(category, level, event, 3, k1, v1, k2, v2, k3, v3, null, null);
+    }
+
+    public void log(LogCategory category, Level level, String event,
+                    String k1, Object v1, String k2, Object v2, String k3, Object v3, String k4, Object v4) {
+        publish(category, level, event, 4, k1, v1, k2, v2, k3, v3, k4, v4);
+    }
+
+    private void publish(LogCategory category, Level level, String event, int fieldCount,
+                         String k1, Object v1, String k2, Object v2,
+                         String k3, Object v3, String k4, Object v4) {
+        if (!isEnabled(category, level)) {
+            return;
+        }
+        // Les WARN/ERROR ne sont jamais échantillonnés
+        double rate = sampleRates[category.ordinal()];
+        if (rate < 1.0 && level.toInt() < Level.WARN.toInt()
+                && ThreadLocalRandom.current().nextDouble() >= rate) {
+            sampledOut.increment();
+            return;
+        }
+
+        long seq;
+        do {
+            seq = head.get();
+            if (seq - tail.get() > mask) {
+                queueFull.increment();
+                return;
+            }
+        } while (!head.compareAndSet(seq, seq + 1));
+
+        Slot slot = slots[(int) (seq & mask)];
+        slot.category = category;
+        slot.level = level;
+        slot.event = event;
+        slot.fieldCount = fieldCount;
+        slot.keys[0] = k1;
+        slot.values[0] = v1;
+        slot.keys[1] = k2;
+        slot.values[1] = v2;
+        slot.keys[2] = k3;
+        slot.values[2] = v3;
+        slot.keys[3] = k4;
+        slot.values[3] = v4;
+        slot.sequence = seq;
+
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drain() {
+        StringBuilder line = new StringBuilder(256);
+        while (running || tail.get() < head.get()) {
+            long next = tail.get();
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.sequence != next) {
+                writerParked = true;
+                // Re-vérifie après avoir levé le drapeau pour ne pas rater un unpark
+                if (slot.sequence != next && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerParked = false;
+                continue;
+            }
+
+            line.setLength(0);
+            format(slot, sampleRates[slot.category.ordinal()], line);
+            Logger logger = loggers[slot.category.ordinal()];
+            Level level = slot.level;
+            clear(slot);
+            tail.lazySet(next + 1);
+
+            try {
+                logger.atLevel(level).log(line.toString());
+            } catch (RuntimeException e) {
+                // Un appender défaillant ne doit pas arrêter le thread d'écriture
+            }
+        }
+    }
+
+    private static void format(Slot slot, double sampleRate, StringBuilder line) {
+        line.append("event=").append(slot.event);
+        for (int i = 0; i < slot.fieldCount; i++) {
+            line.append(' ').append(slot.keys[i]).append('=');
+            appendValue(line, slot.values[i]);
+        }
+        if (sampleRate < 1.0) {
+            line.append(" sample=").append(sampleRate);
+        }
+    }
+
+    private static void appendValue(StringBuilder line, Object value) {
+        if (value == null) {
+            line.append('-');
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(' ') < 0 && text.indexOf('"') < 0 && !text.isEmpty()) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static void clear(Slot slot) {
+        slot.event = null;
+        for (int i = 0; i < MAX_FIELDS; i++) {
+            slot.keys[i] = null;
+            slot.values[i] = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(2000);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.operation_atlas.eventlog;
+
+// Une catégorie = un logger "atlas.event.<nom>" : niveau réglable via logging.level.atlas.event.<nom>
+// (ou /actuator/loggers) et taux d'échantillonnage via atlas.eventlog.sample.<nom>
+public enum LogCategory {
+    ROOM("room"),
+    PUZZLE("puzzle"),
+    SNAPSHOT("snapshot");
+
+    private final String key;
+
+    LogCategory(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.example.operation_atlas.exception;
+
+public class ForbiddenException extends GameException {
+
+    public ForbiddenException(String message) {
+        super("ERR_FORBIDDEN", message);
+    }
+}
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.example.operation_atlas.exception;
 
 import com.example.operation_atlas.dto.ErrorResponse;
 import com.example.operation_atlas.exception.GameException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -17,6 +19,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    // Redirection vers le noeud propriétaire (307 conserve la méthode et le corps)
+    @ExceptionHandler(WrongShardException.class)
+    public ResponseEntity<ErrorResponse> handleWrongShard(WrongShardException ex, HttpServletRequest request) {
+        String location = ex.getOwnerNode() + request.getRequestURI();
+        if (request.getQueryString() != null) {
+            location += "?" + request.getQueryString();
+        }
+        ErrorResponse error = new ErrorResponse(ex.getErrorCode(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .header(HttpHeaders.LOCATION, location)
+                .body(error);
+    }
+
+    @ExceptionHandler(ForbiddenException.class)
+    public ResponseEntity<ErrorResponse> handleForbidden(ForbiddenException ex) {
+        ErrorResponse error = new ErrorResponse(ex.getErrorCode(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
         String message = ex.getBindingResult().getAllErrors().get(0).getDefaultMessage();
@@ -0,0 +1,14 @@
+package com.example.operation_atlas.exception;
+
+public class WrongShardException extends GameException {
+    private final String ownerNode;
+
+    public WrongShardException(String ownerNode) {
+        super("ERR_WRONG_SHARD", "Room is owned by " + ownerNode);
+        this.ownerNode = ownerNode;
+    }
+
+    public String getOwnerNode() {
+        return ownerNode;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.operation_atlas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("operation_atlas.Broadcast")
+@Label("Room Broadcast")
+@Category({"Operation Atlas", "Messaging"})
+@StackTrace(false)
+public class BroadcastEvent extends Event {
+
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Destination")
+    public String destination;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadBytes;
+
+    @Label("Spectators")
+    public int spectators;
+
+    @Label("Relayed")
+    @Description("Reçu d'un autre noeud plutôt que produit localement")
+    public boolean relayed;
+}
\ No newline at end of file
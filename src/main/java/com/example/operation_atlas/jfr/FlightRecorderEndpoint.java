@@ -0,0 +1,157 @@
+package com.example.operation_atlas.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// /actuator/jfr : démarre, liste, télécharge et arrête un enregistrement Flight Recorder à la demande
+// (à exposer explicitement via management.endpoints.web.exposure.include)
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+    private static final String RECORDING_NAME = "operation-atlas";
+
+    private final Path dumpDirectory;
+    private final long defaultMaxAgeSeconds;
+    private final int maxDumps;
+    private Recording recording;
+
+    public FlightRecorderEndpoint(@Value("${atlas.jfr.dump-dir}") String dumpDir,
+                                  @Value("${atlas.jfr.max-age-seconds:600}") long defaultMaxAgeSeconds,
+                                  @Value("${atlas.jfr.max-dumps:10}") int maxDumps) {
+        this.dumpDirectory = Paths.get(dumpDir);
+        this.defaultMaxAgeSeconds = defaultMaxAgeSeconds;
+        this.maxDumps = Math.max(1, maxDumps);
+    }
+
+    @ReadOperation
+    public Map<String, Object> recordings() {
+        List<Map<String, Object>> recordings = new ArrayList<>();
+        for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+            recordings.add(describe(r));
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("available", FlightRecorder.isAvailable());
+        response.put("recordings", recordings);
+        return response;
+    }
+
+    // settings : "default" (~1% d'overhead) ou "profile" (plus détaillé)
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Long maxAgeSeconds)
+            throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return describe(recording);
+        }
+
+        Recording started = new Recording(Configuration.getConfiguration(settings == null ? "default" : settings));
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(Duration.ofSeconds(maxAgeSeconds == null ? defaultMaxAgeSeconds : maxAgeSeconds));
+        started.start();
+        recording = started;
+        log.info("JFR recording {} started", started.getId());
+        return describe(started);
+    }
+
+    // Télécharge un instantané de n'importe quel enregistrement en cours (y compris -XX:StartFlightRecording)
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector long id) throws IOException {
+        for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (r.getId() == id && r.getState() == RecordingState.RUNNING) {
+                return new WebEndpointResponse<>(new FileSystemResource(dumpToFile(r)));
+            }
+        }
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() throws IOException {
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (recording == null) {
+            response.put("stopped", false);
+            return response;
+        }
+
+        Path file = dumpToFile(recording);
+        recording.close();
+        recording = null;
+        response.put("stopped", true);
+        response.put("file", file.toAbsolutePath().toString());
+        return response;
+    }
+
+    private synchronized Path dumpToFile(Recording r) throws IOException {
+        Files.createDirectories(dumpDirectory);
+        pruneDumps(maxDumps - 1);
+        Path file = dumpDirectory.resolve("atlas-" + r.getId() + "-" + System.currentTimeMillis() + ".jfr");
+        r.dump(file);
+        log.info("JFR recording {} dumped to {}", r.getId(), file);
+        return file;
+    }
+
+    // Rétention : seuls les dumps les plus récents sont conservés dans le répertoire de sauvegarde
+    private void pruneDumps(int keep) throws IOException {
+        List<Path> dumps = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dumpDirectory, "atlas-*.jfr")) {
+            stream.forEach(dumps::add);
+        }
+        if (dumps.size() <= keep) {
+            return;
+        }
+        dumps.sort(Comparator.comparing(FlightRecorderEndpoint::lastModified));
+        for (Path old : dumps.subList(0, dumps.size() - keep)) {
+            Files.deleteIfExists(old);
+            log.info("JFR dump {} removed (max {} kept)", old, maxDumps);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static Map<String, Object> describe(Recording r) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", r.getId());
+        description.put("name", r.getName());
+        description.put("state", r.getState().name());
+        description.put("startTime", r.getStartTime());
+        description.put("maxAgeSeconds", r.getMaxAge() == null ? null : r.getMaxAge().getSeconds());
+        description.put("size", r.getSize());
+        return description;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.operation_atlas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("operation_atlas.PuzzleValidation")
+@Label("Puzzle Validation")
+@Category({"Operation Atlas", "Game"})
+@StackTrace(false)
+public class PuzzleValidationEvent extends Event {
+
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Puzzle")
+    public String puzzle;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Error Code")
+    public String errorCode;
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.operation_atlas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("operation_atlas.RoomCommand")
+@Label("Room Command")
+@Description("Commande exécutée sous le verrou d'une room, diffusion comprise")
+@Category({"Operation Atlas", "Game"})
+@StackTrace(false)
+public class RoomCommandEvent extends Event {
+
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Command")
+    public String command;
+
+    @Label("Outcome")
+    @Description("OK, code ERR_ de la GameException ou nom de l'exception")
+    public String outcome;
+}
\ No newline at end of file
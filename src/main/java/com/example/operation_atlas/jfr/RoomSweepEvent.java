@@ -0,0 +1,24 @@
+package com.example.operation_atlas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Passe de fond sur toutes les rooms : timerTick, snapshot ou cleanup
+@Name("operation_atlas.RoomSweep")
+@Label("Room Sweep")
+@Category({"Operation Atlas", "Background"})
+@StackTrace(false)
+public class RoomSweepEvent extends Event {
+
+    @Label("Sweep")
+    public String sweep;
+
+    @Label("Rooms Scanned")
+    public int roomsScanned;
+
+    @Label("Rooms Affected")
+    public int roomsAffected;
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.operation_atlas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("operation_atlas.SnapshotWrite")
+@Label("Snapshot Write")
+@Category({"Operation Atlas", "Persistence"})
+@StackTrace(false)
+public class SnapshotWriteEvent extends Event {
+
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Success")
+    public boolean success;
+}
\ No newline at end of file
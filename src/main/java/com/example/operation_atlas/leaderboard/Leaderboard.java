@@ -0,0 +1,67 @@
+package com.example.operation_atlas.leaderboard;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Top-K trié, copy-on-write : une insertion recopie au plus K références sous le verrou, les lectures
+// prennent le tableau publié sans verrou. Une page coûte sa taille, quel que soit le nombre de rooms terminées.
+public final class Leaderboard {
+
+    // Plus rapide d'abord, puis moins d'indices, puis premier arrivé
+    static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingInt(LeaderboardEntry::getSeconds)
+            .thenComparingInt(LeaderboardEntry::getHints)
+            .thenComparingLong(LeaderboardEntry::getFinishedAt)
+            .thenComparing(LeaderboardEntry::getRoomId);
+
+    private static final LeaderboardEntry[] EMPTY = new LeaderboardEntry[0];
+
+    private final int capacity;
+    private volatile LeaderboardEntry[] entries = EMPTY;
+
+    Leaderboard(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // false si l'entrée ne rentre pas dans le top-K
+    boolean offer(LeaderboardEntry entry) {
+        LeaderboardEntry[] current = entries;
+        if (current.length == capacity && ORDER.compare(entry, current[capacity - 1]) >= 0) {
+            return false;
+        }
+        synchronized (this) {
+            current = entries;
+            int position = Arrays.binarySearch(current, entry, ORDER);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (position >= capacity) {
+                return false;
+            }
+            int length = Math.min(current.length + 1, capacity);
+            LeaderboardEntry[] next = new LeaderboardEntry[length];
+            System.arraycopy(current, 0, next, 0, position);
+            next[position] = entry;
+            System.arraycopy(current, position, next, position + 1, length - position - 1);
+            entries = next;
+            return true;
+        }
+    }
+
+    public List<LeaderboardEntry> page(int offset, int size) {
+        LeaderboardEntry[] current = entries;
+        int from = Math.min(offset, current.length);
+        int to = Math.min(from + size, current.length);
+        return List.of(Arrays.copyOfRange(current, from, to));
+    }
+
+    public List<LeaderboardEntry> all() {
+        return List.of(entries);
+    }
+
+    public int size() {
+        return entries.length;
+    }
+}
\ No newline at end of file
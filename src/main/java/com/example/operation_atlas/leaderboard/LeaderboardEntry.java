@@ -0,0 +1,83 @@
+package com.example.operation_atlas.leaderboard;
+
+import java.util.List;
+
+// Une room terminée avec succès ; partagée entre les classements (global, tirage, événement)
+public class LeaderboardEntry {
+    private String roomId;
+    private String eventId;
+    private List<String> draw;
+    private List<String> team;
+    private int seconds;
+    private int hints;
+    private long finishedAt;
+
+    public LeaderboardEntry() {}
+
+    public LeaderboardEntry(String roomId, String eventId, List<String> draw, List<String> team, int seconds,
+                            int hints, long finishedAt) {
+        this.roomId = roomId;
+        this.eventId = eventId;
+        this.draw = draw;
+        this.team = team;
+        this.seconds = seconds;
+        this.hints = hints;
+        this.finishedAt = finishedAt;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(String roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public List<String> getDraw() {
+        return draw;
+    }
+
+    public void setDraw(List<String> draw) {
+        this.draw = draw;
+    }
+
+    public List<String> getTeam() {
+        return team;
+    }
+
+    public void setTeam(List<String> team) {
+        this.team = team;
+    }
+
+    public int getSeconds() {
+        return seconds;
+    }
+
+    public void setSeconds(int seconds) {
+        this.seconds = seconds;
+    }
+
+    public int getHints() {
+        return hints;
+    }
+
+    public void setHints(int hints) {
+        this.hints = hints;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.example.operation_atlas.leaderboard;
+
+import com.example.operation_atlas.eventlog.EventLogger;
+import com.example.operation_atlas.eventlog.LogCategory;
+import com.example.operation_atlas.model.Continent;
+import com.example.operation_atlas.model.Player;
+import com.example.operation_atlas.model.RoomState;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Classements des rooms gagnées : global, par combinaison de continents tirés et par événement.
+// Mis à jour à chaque victoire, sauvegardés dans leaderboard.json par le job de snapshot.
+// Le classement d'un événement reste consultable une fois ses rooms expirées, pendant
+// atlas.leaderboard.event-retention-minutes, puis il est abandonné.
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+    private static final String FILE_NAME = "leaderboard.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EventLogger eventLogger;
+    private final Counter recorded;
+    private final Map<String, Leaderboard> byDraw = new ConcurrentHashMap<>();
+    private final Map<String, Leaderboard> byEvent = new ConcurrentHashMap<>();
+    // Événements sans room vivante -> date de fermeture
+    private final Map<String, Long> closedEvents = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private Leaderboard overall;
+
+    @Value("${atlas.save.dir}")
+    private String saveDir;
+
+    @Value("${atlas.leaderboard.top-k:1000}")
+    private int topK;
+
+    @Value("${atlas.leaderboard.event-retention-minutes:1440}")
+    private long eventRetentionMinutes;
+
+    public LeaderboardService(MeterRegistry meterRegistry, EventLogger eventLogger) {
+        this.eventLogger = eventLogger;
+        this.recorded = meterRegistry.counter("atlas.leaderboard.records");
+    }
+
+    @PostConstruct
+    public void load() {
+        overall = new Leaderboard(topK);
+        Path file = Paths.get(saveDir, FILE_NAME);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            List<LeaderboardEntry> entries = objectMapper.readValue(file.toFile(), new TypeReference<>() {});
+            entries.forEach(this::offer);
+            // Aucune room n'est restaurée : les événements rechargés sont tous terminés
+            long now = System.currentTimeMillis();
+            byEvent.keySet().forEach(eventId -> closedEvents.put(eventId, now));
+            log.info("Leaderboard restored: {} entries", entries.size());
+        } catch (IOException e) {
+            log.error("Failed to load leaderboard {}", file, e);
+        }
+    }
+
+    // Appelé sous le verrou de la room, au passage en DEBRIEF sur une victoire
+    public void record(RoomState state, String eventId) {
+        List<String> team = new ArrayList<>(state.getPlayerCount());
+        for (Player player : state.getPlayers()) {
+            team.add(player.getPseudo());
+        }
+        int hints = 0;
+        for (int used : state.getHintsUsed().values()) {
+            hints += used;
+        }
+        LeaderboardEntry entry = new LeaderboardEntry(state.getId(), eventId, state.getDraw(), team,
+                RoomState.INITIAL_TIMER_SEC - state.getTimerSec(), hints, System.currentTimeMillis());
+        offer(entry);
+        if (eventId != null) {
+            closedEvents.remove(eventId);
+        }
+        dirty.set(true);
+        recorded.increment();
+        eventLogger.log(LogCategory.ROOM, Level.INFO, "leaderboard.recorded", "room", state.getId(),
+                "seconds", entry.getSeconds(), "hints", hints);
+    }
+
+    private void offer(LeaderboardEntry entry) {
+        overall.offer(entry);
+        byDraw.computeIfAbsent(drawKey(entry.getDraw()), key -> new Leaderboard(topK)).offer(entry);
+        if (entry.getEventId() != null) {
+            byEvent.computeIfAbsent(entry.getEventId(), key -> new Leaderboard(topK)).offer(entry);
+        }
+    }
+
+    public Leaderboard overall() {
+        return overall;
+    }
+
+    // null si aucune room n'a encore gagné avec ce tirage
+    public Leaderboard forDraw(List<String> draw) {
+        return byDraw.get(drawKey(draw));
+    }
+
+    public Leaderboard forEvent(String eventId) {
+        return byEvent.get(eventId);
+    }
+
+    // Appelé quand la dernière room de l'événement a expiré ; le premier appel fixe la date de fermeture
+    public void closeEvent(String eventId) {
+        if (byEvent.containsKey(eventId)) {
+            closedEvents.putIfAbsent(eventId, System.currentTimeMillis());
+        }
+    }
+
+    // Job de cleanup : abandonne les classements d'événements fermés depuis plus que la rétention
+    public int pruneEvents() {
+        long threshold = System.currentTimeMillis() - eventRetentionMinutes * 60_000L;
+        int dropped = 0;
+        for (Iterator<Map.Entry<String, Long>> it = closedEvents.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Long> closed = it.next();
+            if (closed.getValue() < threshold) {
+                byEvent.remove(closed.getKey());
+                it.remove();
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            dirty.set(true);
+        }
+        return dropped;
+    }
+
+    // Clé indépendante de l'ordre du tirage : continents triés, séparés par '+'
+    public static String drawKey(List<String> draw) {
+        List<Continent> continents = new ArrayList<>(draw.size());
+        for (String name : draw) {
+            Continent continent = Continent.fromName(name);
+            if (continent != null && !continents.contains(continent)) {
+                continents.add(continent);
+            }
+        }
+        Collections.sort(continents);
+        StringJoiner key = new StringJoiner("+");
+        continents.forEach(continent -> key.add(continent.name()));
+        return key.toString();
+    }
+
+    // Union des top-K (une entrée sortie du global peut rester en tête de son tirage ou de son événement)
+    public void saveIfChanged() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Map<String, LeaderboardEntry> entries = new LinkedHashMap<>();
+        overall.all().forEach(entry -> entries.put(entry.getRoomId(), entry));
+        byDraw.values().forEach(board -> board.all().forEach(entry -> entries.putIfAbsent(entry.getRoomId(), entry)));
+        byEvent.values().forEach(board -> board.all().forEach(entry -> entries.putIfAbsent(entry.getRoomId(), entry)));
+
+        Path file = Paths.get(saveDir, FILE_NAME);
+        Path tmp = Paths.get(saveDir, FILE_NAME + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            objectMapper.writeValue(tmp.toFile(), entries.values());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("Failed to save leaderboard {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        saveIfChanged();
+    }
+}
\ No newline at end of file
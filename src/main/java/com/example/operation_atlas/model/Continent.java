@@ -1,7 +1,64 @@
 package com.example.operation_atlas.model;
 
 public enum Continent {
-    EUROPE,
-    ASIA,
-    AMERICAS
+    EUROPE("eu", "letterEU"),
+    ASIA("as", "directionAS"),
+    AMERICAS("am", "letterJoker"),
+    AFRICA("af", "letterAF"),
+    OCEANIA("oc", "directionOC"),
+    ANTARCTICA("an", "letterAN");
+
+    private static final Continent[] VALUES = values();
+
+    private final String key;
+    private final String fragmentKey;
+
+    Continent(String key, String fragmentKey) {
+        this.key = key;
+        this.fragmentKey = fragmentKey;
+    }
+
+    // Clé courte utilisée dans solved / hintsUsed (eu, as, am...)
+    public String getKey() {
+        return key;
+    }
+
+    public String getFragmentKey() {
+        return fragmentKey;
+    }
+
+    public static Continent ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    // Nom reçu des clients, insensible à la casse ; null si inconnu
+    public static Continent fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (Continent continent : VALUES) {
+            if (continent.name().equalsIgnoreCase(name)) {
+                return continent;
+            }
+        }
+        return null;
+    }
+
+    public static Continent fromKey(String key) {
+        for (Continent continent : VALUES) {
+            if (continent.key.equals(key)) {
+                return continent;
+            }
+        }
+        return null;
+    }
+
+    public static Continent fromFragmentKey(String fragmentKey) {
+        for (Continent continent : VALUES) {
+            if (continent.fragmentKey.equals(fragmentKey)) {
+                return continent;
+            }
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -1,168 +1,258 @@
 package com.example.operation_atlas.model;
 
+import com.example.operation_atlas.trace.RoomTrace;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
+// Room vivante : un RoomState immuable remplacé à chaque mutation.
+// Les écritures se font sous synchronized(room) (GameService.execute) ; les lectures passent par getState().
 public class GameRoom {
-    private String id;
-    private String joinCode;
-    private GameStage stage;
-    private int timerSec;
-    private List<String> draw; // 3 continents tirés au sort
-    private Map<String, Boolean> solved; // eu, as, am
-    private Map<String, Integer> hintsUsed; // eu, as, am
-    private Map<String, String> fragments; // letterEU, directionAS, letterJoker
-    private List<Player> players;
-    private int version;
-    private Instant createdAt;
-    private Instant lastActivity;
-    private Instant finalStartedAt; // Pour la fenêtre de 30s
+    private volatile RoomState state;
+    private transient RoomTrace trace; // Diagnostic en mémoire, jamais sérialisé
+    private transient String eventId; // Événement de provisioning groupé, null pour une room créée seule
+    // Timer au départ de la partie puis à chaque résolution (analytics) ; -1 = inconnu (room restaurée)
+    private transient int lastSolveTimerSec = -1;
 
     public GameRoom() {
-        this.players = new ArrayList<>();
-        this.solved = new ConcurrentHashMap<>();
-        this.hintsUsed = new ConcurrentHashMap<>();
-        this.fragments = new ConcurrentHashMap<>();
-        this.draw = new ArrayList<>();
-        this.version = 0;
-        this.createdAt = Instant.now();
-        this.lastActivity = Instant.now();
-        this.stage = GameStage.BRIEF;
-        this.timerSec = 1500; // 25 min par défaut
+        this.state = RoomState.initial(null, null);
     }
 
     public GameRoom(String id, String joinCode) {
-        this();
-        this.id = id;
-        this.joinCode = joinCode;
-        // Ne plus initialiser ici, on le fera après avoir tiré les continents
+        this.state = RoomState.initial(id, joinCode);
+        // Les continents sont tirés ensuite, puis initializePuzzlesForDraw()
+    }
+
+    // Version cohérente de la room, à lire une seule fois par requête / diffusion
+    @JsonIgnore
+    public RoomState getState() {
+        return state;
+    }
+
+    // Seule écriture d'une room enregistrée : l'état complet d'après commande, construit à part sous
+    // synchronized(room) puis publié en une écriture volatile. Les setters ne servent qu'avant
+    // l'enregistrement (construction, désérialisation).
+    public void publish(RoomState next) {
+        state = next;
     }
 
     public void initializePuzzlesForDraw() {
-        // Initialiser solved et hintsUsed en fonction des continents tirés
-        solved.clear();
-        hintsUsed.clear();
-        for (String continent : draw) {
-            String key = continent.toLowerCase().substring(0, 2);
-            solved.put(key, false);
-            hintsUsed.put(key, 0);
-        }
+        state = state.withPuzzlesReset();
     }
 
     public void incrementVersion() {
-        this.version++;
-        this.lastActivity = Instant.now();
+        state = state.nextVersion();
     }
 
     public boolean allPuzzlesSolved() {
-        return solved.values().stream().allMatch(s -> s);
+        return state.allPuzzlesSolved();
+    }
+
+    @JsonIgnore
+    public void setDrawnContinents(Continent... continents) {
+        state = state.withDraw(continents);
+    }
+
+    public boolean isSolved(Continent continent) {
+        return state.isSolved(continent);
+    }
+
+    public void setSolved(Continent continent, boolean value) {
+        state = state.withSolved(continent, value);
+    }
+
+    public int getHintCount(Continent continent) {
+        return state.getHintCount(continent);
+    }
+
+    public void setHintCount(Continent continent, int count) {
+        state = state.withHintCount(continent, count);
+    }
+
+    public String getFragment(Continent continent) {
+        return state.getFragment(continent);
+    }
+
+    public void putFragment(Continent continent, String fragment) {
+        state = state.withFragment(continent, fragment);
+    }
+
+    public void addPlayer(Player player) {
+        state = state.withPlayer(player);
     }
 
     // Getters & Setters
 
+    @JsonIgnore
+    public RoomTrace getTrace() {
+        return trace;
+    }
+
+    public void setTrace(RoomTrace trace) {
+        this.trace = trace;
+    }
+
+    @JsonIgnore
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    @JsonIgnore
+    public int getLastSolveTimerSec() {
+        return lastSolveTimerSec;
+    }
+
+    public void setLastSolveTimerSec(int lastSolveTimerSec) {
+        this.lastSolveTimerSec = lastSolveTimerSec;
+    }
+
     public String getId() {
-        return id;
+        return state.getId();
     }
 
     public void setId(String id) {
-        this.id = id;
+        state = state.withId(id);
     }
 
     public String getJoinCode() {
-        return joinCode;
+        return state.getJoinCode();
     }
 
     public void setJoinCode(String joinCode) {
-        this.joinCode = joinCode;
+        state = state.withJoinCode(joinCode);
+    }
+
+    public String getLocale() {
+        return state.getLocale();
+    }
+
+    public void setLocale(String locale) {
+        state = state.withLocale(locale);
     }
 
     public GameStage getStage() {
-        return stage;
+        return state.getStage();
     }
 
     public void setStage(GameStage stage) {
-        this.stage = stage;
-        incrementVersion();
+        state = state.withStage(stage).nextVersion();
     }
 
     public int getTimerSec() {
-        return timerSec;
+        return state.getTimerSec();
     }
 
     public void setTimerSec(int timerSec) {
-        this.timerSec = timerSec;
+        state = state.withTimerSec(timerSec);
     }
 
     public List<String> getDraw() {
-        return draw;
+        return state.getDraw();
     }
 
     public void setDraw(List<String> draw) {
-        this.draw = draw;
+        List<Continent> continents = new ArrayList<>(draw.size());
+        for (String name : draw) {
+            Continent continent = Continent.fromName(name);
+            if (continent != null) {
+                continents.add(continent);
+            }
+        }
+        state = state.withDraw(continents.toArray(new Continent[0]));
     }
 
     public Map<String, Boolean> getSolved() {
-        return solved;
+        return state.getSolved();
     }
 
     public void setSolved(Map<String, Boolean> solved) {
-        this.solved = solved;
+        RoomState next = state;
+        for (Continent continent : Continent.values()) {
+            next = next.withSolved(continent, Boolean.TRUE.equals(solved.get(continent.getKey())));
+        }
+        state = next;
     }
 
     public Map<String, Integer> getHintsUsed() {
-        return hintsUsed;
+        return state.getHintsUsed();
     }
 
-    public void setHintsUsed(Map<String, Integer> hintsUsed) {
-        this.hintsUsed = hintsUsed;
+    public void setHintsUsed(Map<String, Integer> hints) {
+        RoomState next = state;
+        for (Continent continent : Continent.values()) {
+            Integer count = hints.get(continent.getKey());
+            next = next.withHintCount(continent, count == null ? 0 : count);
+        }
+        state = next;
     }
 
     public Map<String, String> getFragments() {
-        return fragments;
+        return state.getFragments();
     }
 
     public void setFragments(Map<String, String> fragments) {
-        this.fragments = fragments;
+        RoomState next = state;
+        for (Continent continent : Continent.values()) {
+            next = next.withFragment(continent, fragments.get(continent.getFragmentKey()));
+        }
+        state = next;
     }
 
     public List<Player> getPlayers() {
-        return players;
+        return state.getPlayers();
     }
 
     public void setPlayers(List<Player> players) {
-        this.players = players;
+        state = state.withPlayers(players);
     }
 
     public int getVersion() {
-        return version;
+        return state.getVersion();
     }
 
     public void setVersion(int version) {
-        this.version = version;
+        state = state.withVersion(version);
     }
 
     public Instant getCreatedAt() {
-        return createdAt;
+        return state.getCreatedAt();
     }
 
     public void setCreatedAt(Instant createdAt) {
-        this.createdAt = createdAt;
+        state = state.withTimes(createdAt.toEpochMilli(), state.getLastActivityMillis(),
+                state.getFinalStartedAtMillis());
+    }
+
+    @JsonIgnore
+    public long getLastActivityMillis() {
+        return state.getLastActivityMillis();
     }
 
     public Instant getLastActivity() {
-        return lastActivity;
+        return state.getLastActivity();
     }
 
     public void setLastActivity(Instant lastActivity) {
-        this.lastActivity = lastActivity;
+        state = state.withTimes(state.getCreatedAtMillis(), lastActivity.toEpochMilli(),
+                state.getFinalStartedAtMillis());
+    }
+
+    @JsonIgnore
+    public long getFinalStartedAtMillis() {
+        return state.getFinalStartedAtMillis();
     }
 
     public Instant getFinalStartedAt() {
-        return finalStartedAt;
+        return state.getFinalStartedAt();
     }
 
     public void setFinalStartedAt(Instant finalStartedAt) {
-        this.finalStartedAt = finalStartedAt;
+        state = state.withTimes(state.getCreatedAtMillis(), state.getLastActivityMillis(),
+                finalStartedAt == null ? RoomState.NO_TIME : finalStartedAt.toEpochMilli());
     }
 }
\ No newline at end of file
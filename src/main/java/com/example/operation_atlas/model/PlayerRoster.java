@@ -0,0 +1,48 @@
+package com.example.operation_atlas.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Joueurs d'une room (immuable) avec index par id et par pseudo ; le premier arrivé garde son pseudo
+public final class PlayerRoster {
+    static final PlayerRoster EMPTY = new PlayerRoster(List.of(), Map.of(), Map.of());
+
+    private final List<Player> players;
+    private final Map<String, Player> byId;
+    private final Map<String, Player> byPseudo;
+
+    private PlayerRoster(List<Player> players, Map<String, Player> byId, Map<String, Player> byPseudo) {
+        this.players = players;
+        this.byId = byId;
+        this.byPseudo = byPseudo;
+    }
+
+    static PlayerRoster of(List<Player> players) {
+        Map<String, Player> byId = new HashMap<>();
+        Map<String, Player> byPseudo = new HashMap<>();
+        for (Player player : players) {
+            byId.putIfAbsent(player.getId(), player);
+            byPseudo.putIfAbsent(player.getPseudo(), player);
+        }
+        return new PlayerRoster(List.copyOf(players), Map.copyOf(byId), Map.copyOf(byPseudo));
+    }
+
+    PlayerRoster with(Player player) {
+        Player[] values = players.toArray(new Player[players.size() + 1]);
+        values[players.size()] = player;
+        return of(List.of(values));
+    }
+
+    List<Player> list() {
+        return players;
+    }
+
+    Player byId(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    Player byPseudo(String pseudo) {
+        return pseudo == null ? null : byPseudo.get(pseudo);
+    }
+}
\ No newline at end of file
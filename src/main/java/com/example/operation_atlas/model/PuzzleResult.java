@@ -21,8 +21,9 @@ public class PuzzleResult {
         return new PuzzleResult(true, fragment);
     }
 
-    public static PuzzleResult error(String errorCode, String message) {
-        return new PuzzleResult(false, errorCode, message);
+    // Pas de message : GameService.executeBatch le résout dans le pack de langue de la room (ContentCatalog.message)
+    public static PuzzleResult error(String errorCode) {
+        return new PuzzleResult(false, errorCode, null);
     }
 
     public boolean isSuccess() {
@@ -45,10 +46,6 @@ public class PuzzleResult {
         return message;
     }
 
-    public void setMessage(String message) {
-        this.message = message;
-    }
-
     public String getFragment() {
         return fragment;
     }
@@ -0,0 +1,283 @@
+package com.example.operation_atlas.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.Instant;
+import java.util.*;
+
+// État immuable d'une room : chaque mutation produit une nouvelle valeur qui partage les tableaux inchangés.
+// Les lecteurs (GET /state, diffusions, sauvegardes) lisent une version cohérente sans verrou ni copie.
+@JsonPropertyOrder({"id", "joinCode", "locale", "stage", "timerSec", "draw", "solved", "hintsUsed", "fragments", "players", "version",
+        "createdAt", "lastActivity", "finalStartedAt"})
+public final class RoomState {
+    static final long NO_TIME = Long.MIN_VALUE;
+    public static final int INITIAL_TIMER_SEC = 1500; // 25 minutes de jeu (PLAY + META)
+    private static final int CONTINENTS = Continent.values().length;
+    private static final byte[] NO_DRAW = new byte[0];
+    private static final byte[] NO_HINTS = new byte[CONTINENTS];
+    private static final String[] NO_FRAGMENTS = new String[CONTINENTS];
+
+    private final String id;
+    private final String joinCode;
+    private final String locale; // Pack de contenu de la room ; null = locale par défaut (snapshots anciens)
+    private final GameStage stage;
+    private final int timerSec;
+    private final byte[] draw; // ordinaux des continents tirés au sort, dans l'ordre du tirage
+    private final int solvedMask; // bit = ordinal du continent
+    private final byte[] hintsUsed; // indexé par ordinal
+    private final String[] fragments; // indexé par ordinal (letterEU, directionAS, letterJoker...)
+    private final PlayerRoster players;
+    private final int version;
+    private final long createdAtMillis;
+    private final long lastActivityMillis;
+    private final long finalStartedAtMillis; // Pour la fenêtre de 30s
+
+    private RoomState(String id, String joinCode, String locale, GameStage stage, int timerSec, byte[] draw, int solvedMask,
+                      byte[] hintsUsed, String[] fragments, PlayerRoster players, int version,
+                      long createdAtMillis, long lastActivityMillis, long finalStartedAtMillis) {
+        this.id = id;
+        this.joinCode = joinCode;
+        this.locale = locale;
+        this.stage = stage;
+        this.timerSec = timerSec;
+        this.draw = draw;
+        this.solvedMask = solvedMask;
+        this.hintsUsed = hintsUsed;
+        this.fragments = fragments;
+        this.players = players;
+        this.version = version;
+        this.createdAtMillis = createdAtMillis;
+        this.lastActivityMillis = lastActivityMillis;
+        this.finalStartedAtMillis = finalStartedAtMillis;
+    }
+
+    public static RoomState initial(String id, String joinCode) {
+        long now = System.currentTimeMillis();
+        // 25 min par défaut
+        return new RoomState(id, joinCode, null, GameStage.BRIEF, INITIAL_TIMER_SEC, NO_DRAW, 0, NO_HINTS, NO_FRAGMENTS,
+                PlayerRoster.EMPTY, 0, now, now, NO_TIME);
+    }
+
+    public RoomState withId(String id) {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withJoinCode(String joinCode) {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withLocale(String locale) {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withStage(GameStage stage) {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withTimerSec(int timerSec) {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withDraw(Continent... continents) {
+        byte[] ordinals = new byte[continents.length];
+        for (int i = 0; i < continents.length; i++) {
+            ordinals[i] = (byte) continents[i].ordinal();
+        }
+        return new RoomState(id, joinCode, locale, stage, timerSec, ordinals, solvedMask, hintsUsed, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    // Remet solved et hintsUsed à zéro pour les continents tirés
+    public RoomState withPuzzlesReset() {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, 0, NO_HINTS, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withSolved(Continent continent, boolean value) {
+        int bit = 1 << continent.ordinal();
+        int mask = value ? solvedMask | bit : solvedMask & ~bit;
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, mask, hintsUsed, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withHintCount(Continent continent, int count) {
+        byte[] hints = hintsUsed.clone();
+        hints[continent.ordinal()] = (byte) count;
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hints, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withFragment(Continent continent, String fragment) {
+        String[] values = fragments.clone();
+        values[continent.ordinal()] = fragment;
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, values, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withPlayer(Player player) {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments,
+                players.with(player), version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withPlayers(List<Player> players) {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments,
+                PlayerRoster.of(players), version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withVersion(int version) {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    // Version suivante, et dernière activité à maintenant
+    public RoomState nextVersion() {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments, players,
+                version + 1, createdAtMillis, System.currentTimeMillis(), finalStartedAtMillis);
+    }
+
+    public RoomState withFinalStartedAt(long finalStartedAtMillis) {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public RoomState withTimes(long createdAtMillis, long lastActivityMillis, long finalStartedAtMillis) {
+        return new RoomState(id, joinCode, locale, stage, timerSec, draw, solvedMask, hintsUsed, fragments, players,
+                version, createdAtMillis, lastActivityMillis, finalStartedAtMillis);
+    }
+
+    public boolean allPuzzlesSolved() {
+        int drawMask = 0;
+        for (byte ordinal : draw) {
+            drawMask |= 1 << ordinal;
+        }
+        return (solvedMask & drawMask) == drawMask;
+    }
+
+    public boolean isSolved(Continent continent) {
+        return (solvedMask & (1 << continent.ordinal())) != 0;
+    }
+
+    public int getHintCount(Continent continent) {
+        return hintsUsed[continent.ordinal()];
+    }
+
+    public String getFragment(Continent continent) {
+        return fragments[continent.ordinal()];
+    }
+
+    public Player findPlayer(String playerId) {
+        return players.byId(playerId);
+    }
+
+    public Player findPlayerByPseudo(String pseudo) {
+        return players.byPseudo(pseudo);
+    }
+
+    @JsonIgnore
+    public int getPlayerCount() {
+        return players.list().size();
+    }
+
+    // Vues JSON (même forme que le GameRoom historique)
+
+    public String getId() {
+        return id;
+    }
+
+    public String getJoinCode() {
+        return joinCode;
+    }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    public GameStage getStage() {
+        return stage;
+    }
+
+    public int getTimerSec() {
+        return timerSec;
+    }
+
+    public List<String> getDraw() {
+        List<String> names = new ArrayList<>(draw.length);
+        for (byte ordinal : draw) {
+            names.add(Continent.ofOrdinal(ordinal).name());
+        }
+        return names;
+    }
+
+    public Map<String, Boolean> getSolved() {
+        Map<String, Boolean> solved = new LinkedHashMap<>();
+        for (byte ordinal : draw) {
+            solved.put(Continent.ofOrdinal(ordinal).getKey(), (solvedMask & (1 << ordinal)) != 0);
+        }
+        return solved;
+    }
+
+    // Continents tirés, puis ceux hors tirage qui auraient consommé des indices
+    public Map<String, Integer> getHintsUsed() {
+        Map<String, Integer> hints = new LinkedHashMap<>();
+        for (byte ordinal : draw) {
+            hints.put(Continent.ofOrdinal(ordinal).getKey(), (int) hintsUsed[ordinal]);
+        }
+        for (int ordinal = 0; ordinal < CONTINENTS; ordinal++) {
+            if (hintsUsed[ordinal] != 0) {
+                hints.putIfAbsent(Continent.ofOrdinal(ordinal).getKey(), (int) hintsUsed[ordinal]);
+            }
+        }
+        return hints;
+    }
+
+    public Map<String, String> getFragments() {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < CONTINENTS; ordinal++) {
+            if (fragments[ordinal] != null) {
+                result.put(Continent.ofOrdinal(ordinal).getFragmentKey(), fragments[ordinal]);
+            }
+        }
+        return result;
+    }
+
+    public List<Player> getPlayers() {
+        return players.list();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return Instant.ofEpochMilli(createdAtMillis);
+    }
+
+    public Instant getLastActivity() {
+        return Instant.ofEpochMilli(lastActivityMillis);
+    }
+
+    public Instant getFinalStartedAt() {
+        return finalStartedAtMillis == NO_TIME ? null : Instant.ofEpochMilli(finalStartedAtMillis);
+    }
+
+    @JsonIgnore
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    @JsonIgnore
+    public long getLastActivityMillis() {
+        return lastActivityMillis;
+    }
+
+    @JsonIgnore
+    public long getFinalStartedAtMillis() {
+        return finalStartedAtMillis;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.example.operation_atlas.relay;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class EventRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(EventRelay.class);
+    private static final long IDLE_ROOM_EVICTION_MS = TimeUnit.HOURS.toMillis(2);
+    private static final long PRUNE_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final RelayTransport transport;
+    private final String selfNode;
+    private final int batchSize;
+    private final long lingerMs;
+
+    // Bornée : un pair lent ou mort ne fait pas grossir le heap, les événements en trop sont perdus et comptés
+    private final BlockingQueue<RelayEnvelope> outbound;
+    private final Map<String, RoomSequence> outboundSequences = new ConcurrentHashMap<>();
+    private final Map<String, RoomSequence> inboundSequences = new ConcurrentHashMap<>();
+
+    private final Timer lagTimer;
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+    private final Counter droppedCounter;
+    private final Counter batchCounter;
+    private final Counter gapCounter;
+
+    private volatile boolean running;
+    private volatile long lastPrune = System.currentTimeMillis();
+    private Thread sender;
+
+    private static class RoomSequence {
+        long value;
+        long touchedAt;
+    }
+
+    public EventRelay(RelayTransport transport, String selfNode, int batchSize, long lingerMs, int queueCapacity,
+                      MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.selfNode = selfNode;
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.outbound = new LinkedBlockingQueue<>(queueCapacity);
+
+        this.lagTimer = Timer.builder("atlas.relay.lag")
+                .description("Delay between a room event being produced and delivered on a peer node")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("atlas.relay.events", "direction", "out");
+        this.receivedCounter = meterRegistry.counter("atlas.relay.events", "direction", "in");
+        this.droppedCounter = meterRegistry.counter("atlas.relay.events.dropped");
+        this.batchCounter = meterRegistry.counter("atlas.relay.batches");
+        this.gapCounter = meterRegistry.counter("atlas.relay.gaps");
+        Gauge.builder("atlas.relay.queue", outbound, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public void start(Consumer<RelayEnvelope> localDelivery) {
+        running = true;
+        transport.start(selfNode, batch -> receive(batch, localDelivery));
+
+        sender = new Thread(this::sendLoop, "relay-send");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    // Numérotation et mise en file atomiques par room : l'ordre des séquences est l'ordre d'envoi.
+    // File pleine : l'événement est perdu mais son numéro est consommé, les pairs voient le trou.
+    public void publish(String roomId, String destination, byte[] payload) {
+        RoomSequence sequence = outboundSequences.computeIfAbsent(roomId, id -> new RoomSequence());
+        synchronized (sequence) {
+            sequence.value++;
+            if (!outbound.offer(new RelayEnvelope(selfNode, roomId, sequence.value, System.currentTimeMillis(),
+                    destination, payload))) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    public void forgetRoom(String roomId) {
+        outboundSequences.remove(roomId);
+    }
+
+    private void sendLoop() {
+        List<RelayEnvelope> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                RelayEnvelope first = outbound.poll(lingerMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Laisser le lot se remplir pendant lingerMs au plus
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    RelayEnvelope next = remaining > 0 ? outbound.poll(remaining, TimeUnit.NANOSECONDS) : outbound.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                transport.send(List.copyOf(batch));
+                sentCounter.increment(batch.size());
+                batchCounter.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Relay batch of {} events failed", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void receive(List<RelayEnvelope> batch, Consumer<RelayEnvelope> localDelivery) {
+        long now = System.currentTimeMillis();
+        for (RelayEnvelope envelope : batch) {
+            RoomSequence last = inboundSequences.computeIfAbsent(
+                    envelope.getOriginNode() + "|" + envelope.getRoomId(), key -> new RoomSequence());
+            synchronized (last) {
+                if (envelope.getSequence() <= last.value) {
+                    droppedCounter.increment();
+                    continue;
+                }
+                if (last.value != 0 && envelope.getSequence() != last.value + 1) {
+                    gapCounter.increment();
+                    log.warn("Relay gap for room {} from {}: {} -> {}", envelope.getRoomId(),
+                            envelope.getOriginNode(), last.value, envelope.getSequence());
+                }
+                last.value = envelope.getSequence();
+                last.touchedAt = now;
+                localDelivery.accept(envelope);
+            }
+            receivedCounter.increment();
+            lagTimer.record(Math.max(0, now - envelope.getSentAtMillis()), TimeUnit.MILLISECONDS);
+        }
+
+        if (now - lastPrune > PRUNE_INTERVAL_MS) {
+            lastPrune = now;
+            inboundSequences.values().removeIf(s -> now - s.touchedAt > IDLE_ROOM_EVICTION_MS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (sender != null) {
+            sender.interrupt();
+        }
+        transport.stop();
+    }
+}
\ No newline at end of file
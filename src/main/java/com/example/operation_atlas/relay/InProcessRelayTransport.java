@@ -0,0 +1,36 @@
+package com.example.operation_atlas.relay;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Bus partagé par tous les contextes Spring d'une même JVM (tests multi-noeuds)
+public class InProcessRelayTransport implements RelayTransport {
+
+    private static final Map<String, Consumer<List<RelayEnvelope>>> NODES = new ConcurrentHashMap<>();
+
+    private String selfNode;
+
+    @Override
+    public void start(String selfNode, Consumer<List<RelayEnvelope>> receiver) {
+        this.selfNode = selfNode;
+        NODES.put(selfNode, receiver);
+    }
+
+    @Override
+    public void send(List<RelayEnvelope> batch) {
+        for (Map.Entry<String, Consumer<List<RelayEnvelope>>> node : NODES.entrySet()) {
+            if (!node.getKey().equals(selfNode)) {
+                node.getValue().accept(batch);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (selfNode != null) {
+            NODES.remove(selfNode);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.example.operation_atlas.relay;
+
+public final class RelayEnvelope {
+    private final String originNode;
+    private final String roomId;
+    private final long sequence;
+    private final long sentAtMillis;
+    private final String destination;
+    private final byte[] payload;
+
+    public RelayEnvelope(String originNode, String roomId, long sequence, long sentAtMillis,
+                         String destination, byte[] payload) {
+        this.originNode = originNode;
+        this.roomId = roomId;
+        this.sequence = sequence;
+        this.sentAtMillis = sentAtMillis;
+        this.destination = destination;
+        this.payload = payload;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getSentAtMillis() {
+        return sentAtMillis;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.operation_atlas.relay;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface RelayTransport {
+
+    // Démarre la réception ; le receiver est appelé dans l'ordre d'émission de chaque noeud
+    void start(String selfNode, Consumer<List<RelayEnvelope>> receiver);
+
+    // Envoie un lot à tous les autres noeuds
+    void send(List<RelayEnvelope> batch);
+
+    void stop();
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.example.operation_atlas.relay;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Transport TCP simple (une connexion sortante par pair), prévu pour plusieurs instances en localhost
+public class SocketRelayTransport implements RelayTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(SocketRelayTransport.class);
+    private static final int CONNECT_TIMEOUT_MS = 1000;
+
+    private final int listenPort;
+    private final List<Peer> peers = new ArrayList<>();
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+
+    public SocketRelayTransport(int listenPort, List<String> peerAddresses) {
+        this.listenPort = listenPort;
+        for (String address : peerAddresses) {
+            String[] parts = address.trim().split(":");
+            peers.add(new Peer(parts[0], Integer.parseInt(parts[1])));
+        }
+    }
+
+    @Override
+    public void start(String selfNode, Consumer<List<RelayEnvelope>> receiver) {
+        running = true;
+        try {
+            serverSocket = new ServerSocket(listenPort);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot listen for relay on port " + listenPort, e);
+        }
+
+        Thread acceptor = new Thread(() -> acceptLoop(receiver), "relay-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Relay listening on port {} with {} peers", listenPort, peers.size());
+    }
+
+    private void acceptLoop(Consumer<List<RelayEnvelope>> receiver) {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread reader = new Thread(() -> readLoop(socket, receiver), "relay-read-" + socket.getPort());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Relay accept failed", e);
+                }
+            }
+        }
+    }
+
+    private void readLoop(Socket socket, Consumer<List<RelayEnvelope>> receiver) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (running) {
+                int size = in.readInt();
+                List<RelayEnvelope> batch = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    String origin = in.readUTF();
+                    String roomId = in.readUTF();
+                    long sequence = in.readLong();
+                    long sentAt = in.readLong();
+                    String destination = in.readUTF();
+                    byte[] payload = new byte[in.readInt()];
+                    in.readFully(payload);
+                    batch.add(new RelayEnvelope(origin, roomId, sequence, sentAt, destination, payload));
+                }
+                receiver.accept(batch);
+            }
+        } catch (EOFException e) {
+            log.debug("Relay peer {} disconnected", socket.getRemoteSocketAddress());
+        } catch (IOException e) {
+            if (running) {
+                log.warn("Relay read failed from {}", socket.getRemoteSocketAddress(), e);
+            }
+        }
+    }
+
+    @Override
+    public void send(List<RelayEnvelope> batch) {
+        for (Peer peer : peers) {
+            peer.send(batch);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            log.debug("Failed to close relay server socket", e);
+        }
+        for (Peer peer : peers) {
+            peer.close();
+        }
+    }
+
+    private static class Peer {
+        private final String host;
+        private final int port;
+        private Socket socket;
+        private DataOutputStream out;
+
+        Peer(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        // Appelé uniquement depuis le thread d'envoi du relay
+        void send(List<RelayEnvelope> batch) {
+            try {
+                if (out == null) {
+                    socket = new Socket();
+                    socket.setTcpNoDelay(true);
+                    socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+                    out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                }
+                out.writeInt(batch.size());
+                for (RelayEnvelope envelope : batch) {
+                    out.writeUTF(envelope.getOriginNode());
+                    out.writeUTF(envelope.getRoomId());
+                    out.writeLong(envelope.getSequence());
+                    out.writeLong(envelope.getSentAtMillis());
+                    out.writeUTF(envelope.getDestination());
+                    out.writeInt(envelope.getPayload().length);
+                    out.write(envelope.getPayload());
+                }
+                out.flush();
+            } catch (IOException e) {
+                // Le lot est perdu pour ce pair, on retentera la connexion au prochain
+                log.warn("Relay send to {}:{} failed: {}", host, port, e.getMessage());
+                close();
+            }
+        }
+
+        void close() {
+            try {
+                if (socket != null) {
+                    socket.close();
+                }
+            } catch (IOException e) {
+                log.debug("Failed to close relay socket", e);
+            }
+            socket = null;
+            out = null;
+        }
+    }
+}
\ No newline at end of file
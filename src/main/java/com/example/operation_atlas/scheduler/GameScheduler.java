@@ -0,0 +1,114 @@
+package com.example.operation_atlas.scheduler;
+
+import com.example.operation_atlas.analytics.PuzzleAnalytics;
+import com.example.operation_atlas.scheduler.ScheduledJob.OverrunPolicy;
+import com.example.operation_atlas.service.GameService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Jobs de fond du jeu, chacun sur son propre thread : un snapshot disque lent ne retarde plus
+// l'horloge des rooms, et un cleanup long ne bloque pas les sauvegardes.
+@Component
+public class GameScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GameScheduler.class);
+
+    private final GameService gameService;
+    private final PuzzleAnalytics puzzleAnalytics;
+    private final MeterRegistry meterRegistry;
+
+    private final List<ScheduledJob> jobs = new ArrayList<>();
+    private final List<ScheduledExecutorService> executors = new ArrayList<>();
+    private volatile boolean running;
+
+    @Value("${atlas.scheduler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${atlas.scheduler.clock.period-ms:1000}")
+    private long clockPeriodMs;
+
+    @Value("${atlas.scheduler.snapshot.period-ms:10000}")
+    private long snapshotPeriodMs;
+
+    @Value("${atlas.scheduler.snapshot.jitter-ms:2000}")
+    private long snapshotJitterMs;
+
+    @Value("${atlas.scheduler.cleanup.period-ms:60000}")
+    private long cleanupPeriodMs;
+
+    @Value("${atlas.scheduler.cleanup.jitter-ms:5000}")
+    private long cleanupJitterMs;
+
+    @Value("${atlas.scheduler.analytics.period-ms:300000}")
+    private long analyticsPeriodMs;
+
+    public GameScheduler(GameService gameService, PuzzleAnalytics puzzleAnalytics, MeterRegistry meterRegistry) {
+        this.gameService = gameService;
+        this.puzzleAnalytics = puzzleAnalytics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Game scheduler disabled");
+            running = true;
+            return;
+        }
+        // L'horloge rattrape les secondes manquées ; sauvegarde et cleanup repartent du créneau suivant
+        register("clock", gameService::timerTick, clockPeriodMs, 0, OverrunPolicy.CATCH_UP);
+        register("snapshot", gameService::snapshotRooms, snapshotPeriodMs, snapshotJitterMs, OverrunPolicy.SKIP);
+        register("cleanup", gameService::cleanupRooms, cleanupPeriodMs, cleanupJitterMs, OverrunPolicy.SKIP);
+        register("analytics", puzzleAnalytics::rollover, analyticsPeriodMs, 0, OverrunPolicy.SKIP);
+        jobs.forEach(ScheduledJob::start);
+        running = true;
+        log.info("Game scheduler started: clock={}ms snapshot={}ms cleanup={}ms analytics={}ms",
+                clockPeriodMs, snapshotPeriodMs, cleanupPeriodMs, analyticsPeriodMs);
+    }
+
+    private void register(String name, Runnable task, long periodMs, long jitterMs, OverrunPolicy policy) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "atlas-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executors.add(executor);
+        jobs.add(new ScheduledJob(name, task, executor, periodMs, jitterMs, policy, meterRegistry));
+    }
+
+    @Override
+    public void stop() {
+        jobs.forEach(ScheduledJob::cancel);
+        for (ScheduledExecutorService executor : executors) {
+            executor.shutdown();
+        }
+        for (ScheduledExecutorService executor : executors) {
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        jobs.clear();
+        executors.clear();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.example.operation_atlas.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Job périodique sur son propre executor. Chaque passage est replanifié à la main :
+// début de créneau + jitter aléatoire, et détection des dépassements quand le créneau suivant est déjà échu.
+final class ScheduledJob implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledJob.class);
+
+    // CATCH_UP rejoue les créneaux manqués (horloge), SKIP repart du prochain créneau à venir
+    enum OverrunPolicy { CATCH_UP, SKIP }
+
+    private final String name;
+    private final Runnable task;
+    private final ScheduledExecutorService executor;
+    private final long periodNanos;
+    private final long jitterNanos;
+    private final OverrunPolicy policy;
+
+    private final Timer duration;
+    private final Timer lag;
+    private final Counter overruns;
+    private final Counter failures;
+
+    // Accédés uniquement par le thread de l'executor (et par start avant le premier passage)
+    private long slot;
+    private long planned;
+    private volatile ScheduledFuture<?> next;
+
+    ScheduledJob(String name, Runnable task, ScheduledExecutorService executor, long periodMs, long jitterMs,
+                 OverrunPolicy policy, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.task = task;
+        this.executor = executor;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMs);
+        this.jitterNanos = TimeUnit.MILLISECONDS.toNanos(Math.min(jitterMs, periodMs / 2));
+        this.policy = policy;
+        this.duration = Timer.builder("atlas.scheduler.duration")
+                .tag("job", name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        this.lag = Timer.builder("atlas.scheduler.lag")
+                .tag("job", name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        this.overruns = meterRegistry.counter("atlas.scheduler.overruns", "job", name);
+        this.failures = meterRegistry.counter("atlas.scheduler.failures", "job", name);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void start() {
+        // Premier créneau décalé d'un jitter : les noeuds démarrés ensemble ne tombent pas en phase
+        slot = System.nanoTime() + periodNanos;
+        scheduleNext();
+    }
+
+    void cancel() {
+        ScheduledFuture<?> future = next;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        lag.record(Math.max(0, start - planned), TimeUnit.NANOSECONDS);
+        try {
+            task.run();
+        } catch (Throwable e) {
+            // Error comprise : une exception non rattrapée annulerait le job pour de bon
+            failures.increment();
+            log.error("Scheduled job {} failed", name, e);
+        } finally {
+            reschedule(start);
+        }
+    }
+
+    private void reschedule(long start) {
+        long end = System.nanoTime();
+        duration.record(end - start, TimeUnit.NANOSECONDS);
+
+        slot += periodNanos;
+        if (end > slot) {
+            // Encore en cours quand le créneau suivant est arrivé
+            overruns.increment();
+            if (policy == OverrunPolicy.SKIP) {
+                long missed = (end - slot) / periodNanos + 1;
+                slot += missed * periodNanos;
+            }
+        }
+        try {
+            scheduleNext();
+        } catch (RejectedExecutionException e) {
+            // Executor arrêté pendant le passage
+        }
+    }
+
+    private void scheduleNext() {
+        long jitter = jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0;
+        planned = slot + jitter;
+        next = executor.schedule(this, planned - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+}
\ No newline at end of file
@@ -1,258 +1,595 @@
 package com.example.operation_atlas.service;
 
 
+import com.example.operation_atlas.analytics.PuzzleAnalytics;
+import com.example.operation_atlas.content.ContentCatalog;
+import com.example.operation_atlas.dto.CommandResult;
+import com.example.operation_atlas.dto.RoomCommand;
+import com.example.operation_atlas.dto.RoomSnapshot;
+import com.example.operation_atlas.eventlog.EventLogger;
+import com.example.operation_atlas.eventlog.LogCategory;
 import com.example.operation_atlas.exception.GameException;
+import com.example.operation_atlas.exception.WrongShardException;
+import com.example.operation_atlas.jfr.RoomCommandEvent;
+import com.example.operation_atlas.jfr.RoomSweepEvent;
+import com.example.operation_atlas.leaderboard.LeaderboardService;
+import com.example.operation_atlas.model.Continent;
 import com.example.operation_atlas.model.GameRoom;
 import com.example.operation_atlas.model.GameStage;
 import com.example.operation_atlas.model.Player;
 import com.example.operation_atlas.model.PuzzleResult;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.operation_atlas.model.RoomState;
+import com.example.operation_atlas.trace.RoomTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.event.Level;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
 
 @Service
 public class GameService {
 
-    private static final Logger log = LoggerFactory.getLogger(GameService.class);
-    private final Map<String, GameRoom> rooms = new ConcurrentHashMap<>();
-    private final Map<String, String> joinCodeToRoomId = new ConcurrentHashMap<>();
+    // Échecs qui publient tout de même leur transition : rejoués après l'annulation d'un batch
+    private static final Set<String> TERMINAL_FAILURES = Set.of("ERR_FINAL_TIMEOUT");
+
+    private final RoomRegistry registry;
     private final PuzzleService puzzleService;
     private final com.example.operation_atlas.service.SnapshotService snapshotService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomBroadcaster broadcaster;
+    private final ShardRouter shardRouter;
+    private final IdempotencyService idempotencyService;
+    private final EventLogger eventLogger;
+    private final LeaderboardService leaderboardService;
+    private final PuzzleAnalytics puzzleAnalytics;
+    private final ContentCatalog contentCatalog;
+
+    private final Map<String, Timer> commandTimers = new HashMap<>();
+    private final Map<Continent, Counter> hintCounters = new EnumMap<>(Continent.class);
+    // Événements de provisioning groupé : organisateur propriétaire et rooms, purgées au fil des expirations
+    private final Map<String, ProvisionedEvent> provisionedEvents = new ConcurrentHashMap<>();
+    // Rooms dont seul le timer a changé depuis le dernier snapshot (le timer ne compte pas comme activité)
+    private final Set<GameRoom> timerDirty = ConcurrentHashMap.newKeySet();
+    private final Counter roomsCreated;
+    private final Counter roomsExpired;
 
     @Value("${atlas.room.ttl.minutes:30}")
     private int roomTtlMinutes;
 
+    @Value("${atlas.events.unstarted-ttl-minutes:1440}")
+    private int unstartedEventTtlMinutes;
+
+    @Value("${atlas.trace.capacity:32}")
+    private int traceCapacity;
+
+    private volatile long lastSnapshotMillis;
+
+    private static final class ProvisionedEvent {
+        final String owner;
+        final Set<String> roomIds = ConcurrentHashMap.newKeySet();
+
+        ProvisionedEvent(String owner) {
+            this.owner = owner;
+        }
+    }
+
     public GameService(PuzzleService puzzleService,
                        com.example.operation_atlas.service.SnapshotService SnapshotService,
-                       SimpMessagingTemplate messagingTemplate) {
+                       RoomBroadcaster broadcaster,
+                       ShardRouter shardRouter,
+                       IdempotencyService idempotencyService,
+                       JoinCodeAllocator joinCodes,
+                       LeaderboardService leaderboardService,
+                       PuzzleAnalytics puzzleAnalytics,
+                       ContentCatalog contentCatalog,
+                       MeterRegistry meterRegistry,
+                       EventLogger eventLogger) {
+        this.registry = new RoomRegistry(joinCodes);
         this.puzzleService = puzzleService;
         this.snapshotService = SnapshotService;
-        this.messagingTemplate = messagingTemplate;
+        this.broadcaster = broadcaster;
+        this.shardRouter = shardRouter;
+        this.idempotencyService = idempotencyService;
+        this.eventLogger = eventLogger;
+        this.leaderboardService = leaderboardService;
+        this.puzzleAnalytics = puzzleAnalytics;
+        this.contentCatalog = contentCatalog;
+
+        // Durée d'une commande, attente du verrou de la room et diffusion comprises
+        for (String command : List.of("join", "start", "puzzle", "hint", "meta", "final", "chat", "batch")) {
+            commandTimers.put(command, Timer.builder("atlas.command.duration")
+                    .tag("command", command)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(50_000))
+                    .maximumExpectedValue(Duration.ofSeconds(1))
+                    .register(meterRegistry));
+        }
+        for (Continent continent : Continent.values()) {
+            hintCounters.put(continent, meterRegistry.counter("atlas.hints.granted", "continent", continent.name()));
+        }
+        // Taille des index par étape, lue au scrape
+        for (GameStage stage : GameStage.values()) {
+            Gauge.builder("atlas.rooms.active", registry, r -> r.count(stage))
+                    .tag("stage", stage.name())
+                    .register(meterRegistry);
+        }
+        this.roomsCreated = meterRegistry.counter("atlas.room.creations");
+        this.roomsExpired = meterRegistry.counter("atlas.room.expirations");
     }
 
     public GameRoom createRoom(String creatorPseudo) {
-        String roomId = UUID.randomUUID().toString();
-        String joinCode = generateJoinCode();
+        return createRoom(creatorPseudo, null);
+    }
 
-        GameRoom room = new GameRoom(roomId, joinCode);
+    // locale null = locale par défaut du contenu
+    public GameRoom createRoom(String creatorPseudo, String locale) {
+        GameRoom room = newRoom(null, contentCatalog.locale(locale));
         Player creator = new Player(UUID.randomUUID().toString(), creatorPseudo);
-        room.getPlayers().add(creator);
+        room.addPlayer(creator);
 
-        // Tirer 3 continents au sort parmi les 6 disponibles
-        List<String> allContinents = new ArrayList<>(Arrays.asList(
-                "EUROPE", "ASIA", "AMERICAS", "AFRICA", "OCEANIA", "ANTARCTICA"
-        ));
-        Collections.shuffle(allContinents);
-        List<String> selectedContinents = new ArrayList<>(allContinents.subList(0, 3));
-        room.setDraw(selectedContinents);
+        registry.add(room);
+        roomsCreated.increment();
 
-        // Initialiser solved et hintsUsed en fonction des continents tirés
-        room.initializePuzzlesForDraw();
+        eventLogger.log(LogCategory.ROOM, Level.INFO, "room.created", "room", room.getId(), "code", room.getJoinCode());
+        return room;
+    }
 
-        log.info("Room {} drawn continents: {}", roomId, selectedContinents);
+    // Rooms vides d'un événement (session scolaire, séminaire) : tirage fixe ou tiré par room, codes attribués
+    // d'avance. Construites en parallèle ; aucun broadcast, personne n'est encore abonné.
+    // owner : organisateur authentifié ; un événement existant n'accepte de rooms que de son propriétaire
+    public List<GameRoom> provisionRooms(String eventId, String owner, int count, List<Continent> fixedDraw,
+                                         String locale) {
+        String roomLocale = contentCatalog.locale(locale);
+        ProvisionedEvent event = provisionedEvents.computeIfAbsent(eventId, id -> new ProvisionedEvent(owner));
+        if (!event.owner.equals(owner)) {
+            throw new GameException("ERR_EVENT_NOT_FOUND", "Event not found");
+        }
+        List<GameRoom> rooms = IntStream.range(0, count).parallel()
+                .mapToObj(i -> {
+                    GameRoom room = newRoom(fixedDraw, roomLocale);
+                    room.setEventId(eventId);
+                    registry.add(room);
+                    event.roomIds.add(room.getId());
+                    return room;
+                })
+                .toList();
+        roomsCreated.increment(count);
+
+        eventLogger.log(LogCategory.ROOM, Level.INFO, "event.provisioned", "event", eventId, "rooms", count);
+        return rooms;
+    }
 
-        rooms.put(roomId, room);
-        joinCodeToRoomId.put(joinCode, roomId);
+    // Un événement d'un autre organisateur est traité comme inexistant
+    public List<GameRoom> getEventRooms(String eventId, String owner) {
+        ProvisionedEvent event = provisionedEvents.get(eventId);
+        if (event == null || !event.owner.equals(owner)) {
+            throw new GameException("ERR_EVENT_NOT_FOUND", "Event not found");
+        }
+        List<GameRoom> rooms = new ArrayList<>(event.roomIds.size());
+        for (String roomId : event.roomIds) {
+            GameRoom room = registry.get(roomId);
+            if (room != null) {
+                rooms.add(room);
+            }
+        }
+        return rooms;
+    }
+
+    // Passe toutes les rooms de l'événement en PLAY en une passe ; renvoie le code d'erreur des rooms
+    // qui n'ont pas pu démarrer (pas assez de joueurs, déjà lancées)
+    public Map<String, String> startEvent(String eventId, String owner) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (GameRoom room : getEventRooms(eventId, owner)) {
+            try {
+                execute(room.getId(), "start", null, eventId, (target, events) -> {
+                    if (target.state().getStage() != GameStage.BRIEF) {
+                        throw new GameException("ERR_STAGE", "Room already started");
+                    }
+                    applyStart(target, events);
+                    return null;
+                });
+            } catch (GameException e) {
+                failures.put(room.getId(), e.getErrorCode());
+            }
+        }
+        eventLogger.log(LogCategory.ROOM, Level.INFO, "event.started", "event", eventId,
+                "failed", failures.size());
+        return failures;
+    }
+
+    // Room locale, tirée et prête à être enregistrée ; draw null = 3 continents au hasard
+    private GameRoom newRoom(List<Continent> draw, String locale) {
+        // En cluster, on ne crée que des rooms (et codes) possédées par ce noeud
+        String roomId;
+        do {
+            roomId = UUID.randomUUID().toString();
+        } while (!shardRouter.isLocal(roomId));
+
+        String joinCode = registry.allocateJoinCode(shardRouter::isLocal);
+
+        GameRoom room = new GameRoom(roomId, joinCode);
+        room.setLocale(locale);
+        if (traceCapacity > 0) {
+            room.setTrace(new RoomTrace(traceCapacity));
+        }
+
+        if (draw == null) {
+            // Tirer 3 continents au sort parmi les 6 disponibles
+            List<Continent> allContinents = new ArrayList<>(Arrays.asList(Continent.values()));
+            Collections.shuffle(allContinents);
+            draw = allContinents.subList(0, 3);
+        }
+        room.setDrawnContinents(draw.get(0), draw.get(1), draw.get(2));
+
+        // Initialiser solved et hintsUsed en fonction des continents tirés
+        room.initializePuzzlesForDraw();
 
-        log.info("Room created: {} with code {}", roomId, joinCode);
+        eventLogger.log(LogCategory.ROOM, Level.DEBUG, "room.drawn", "room", roomId, "draw", room.getDraw());
         return room;
     }
 
     public GameRoom joinRoom(String joinCode, String pseudo) {
-        String roomId = joinCodeToRoomId.get(joinCode.toUpperCase());
-        if (roomId == null) {
-            throw new GameException("ERR_ROOM_NOT_FOUND", "Room not found");
+        String code = joinCode.toUpperCase();
+        if (!shardRouter.isLocal(code)) {
+            throw new WrongShardException(shardRouter.ownerOf(code));
         }
 
-        GameRoom room = rooms.get(roomId);
-        if (room == null) {
+        GameRoom target = registry.getByJoinCode(code);
+        if (target == null) {
             throw new GameException("ERR_ROOM_NOT_FOUND", "Room not found");
         }
+        String roomId = target.getId();
 
-        if (room.getPlayers().size() >= 4) {
-            throw new GameException("ERR_ROOM_FULL", "Room is full (max 4 players)");
-        }
+        return execute(roomId, "join", null, pseudo, (draft, events) -> {
+            if (draft.state().getPlayerCount() >= 4) {
+                throw new GameException("ERR_ROOM_FULL", "Room is full (max 4 players)");
+            }
 
-        Player newPlayer = new Player(UUID.randomUUID().toString(), pseudo);
-        room.getPlayers().add(newPlayer);
-        room.incrementVersion();
+            Player newPlayer = new Player(UUID.randomUUID().toString(), pseudo);
+            draft.change(draft.state().withPlayer(newPlayer));
 
-        broadcastSnapshot(room);
-        log.info("Player {} joined room {}", pseudo, roomId);
-        return room;
+            events.snapshot();
+            eventLogger.log(LogCategory.ROOM, Level.INFO, "room.joined", "room", roomId, "player", newPlayer.getId());
+            return draft.room();
+        });
+    }
+
+    public String resolveJoinCode(String joinCode) {
+        String code = joinCode.toUpperCase();
+        if (!shardRouter.isLocal(code)) {
+            throw new WrongShardException(shardRouter.ownerOf(code));
+        }
+        GameRoom room = registry.getByJoinCode(code);
+        if (room == null) {
+            throw new GameException("ERR_ROOM_NOT_FOUND", "Room not found");
+        }
+        return room.getId();
+    }
+
+    // false une fois la room expirée, même si un appelant en garde une référence
+    public boolean isLive(GameRoom room) {
+        return registry.get(room.getId()) == room;
     }
 
     public GameRoom getRoom(String roomId) {
-        GameRoom room = rooms.get(roomId);
+        GameRoom room = registry.get(roomId);
         if (room == null) {
             throw new GameException("ERR_ROOM_NOT_FOUND", "Room not found");
         }
         return room;
     }
 
-    public void startGame(String roomId) {
+    // Empreintes des paliers d'indice débloqués par la room, à récupérer sur /api/content/{hash}
+    public List<Map<String, Object>> getUnlockedHints(String roomId, String continent) {
+        Continent target = Continent.fromName(continent);
+        if (target == null) {
+            throw new GameException("ERR_INVALID_CONTINENT", "Unknown continent: " + continent);
+        }
         GameRoom room = getRoom(roomId);
-        if (room.getPlayers().size() < 2) {
-            throw new GameException("ERR_STAGE", "Need at least 2 players to start");
+        List<Map<String, Object>> hints = new ArrayList<>();
+        for (int tier = 1; tier <= room.getHintCount(target); tier++) {
+            Map<String, Object> hint = new HashMap<>();
+            hint.put("tier", tier);
+            hint.put("content", contentCatalog.hintHash(room.getLocale(), target, tier));
+            hints.add(hint);
         }
-        room.setStage(GameStage.PLAY);
-        broadcastStageChange(room);
-        log.info("Game started in room {}", roomId);
+        return hints;
+    }
+
+    public void startGame(String roomId) {
+        execute(roomId, "start", null, null, (draft, events) -> {
+            applyStart(draft, events);
+            return null;
+        });
     }
 
     public void submitPuzzle(String roomId, String continent, String answer, String playerId) {
-        GameRoom room = getRoom(roomId);
+        execute(roomId, "puzzle", playerId, continent, (draft, events) -> applyPuzzle(draft, continent, answer, playerId, events));
+    }
 
-        if (room.getStage() != GameStage.PLAY) {
-            throw new GameException("ERR_STAGE", "Cannot submit puzzle at this stage");
+    public void requestHint(String roomId, String continent) {
+        execute(roomId, "hint", null, continent, (draft, events) -> {
+            applyHint(draft, continent, events);
+            return null;
+        });
+    }
+
+    public void submitMeta(String roomId, String answer) {
+        execute(roomId, "meta", null, null, (draft, events) -> {
+            applyMeta(draft, answer, events);
+            return null;
+        });
+    }
+
+    public void submitFinal(String roomId, String answer) {
+        execute(roomId, "final", null, null, (draft, events) -> {
+            applyFinal(draft, answer, events);
+            return null;
+        });
+    }
+
+    public void sendChatMessage(String roomId, String playerId, String message) {
+        execute(roomId, "chat", playerId, null, (draft, events) -> {
+            applyChat(draft, playerId, message, events);
+            return null;
+        });
+    }
+
+    // Applique une liste ordonnée de commandes en une passe sous le verrou de la room, tout ou rien : les
+    // commandes s'enchaînent sur le même brouillon, publié avec un seul snapshot si toutes réussissent.
+    // Une mauvaise réponse à une énigme est un résultat, pas une erreur : elle n'annule rien et sa diffusion
+    // (PUZZLE_RESULT, analytics) est conservée, comme pour une soumission seule.
+    // Au premier échec (GameException) le brouillon et les autres événements sont abandonnés : les commandes
+    // précédentes sont rapportées ERR_ROLLED_BACK, les suivantes ERR_SKIPPED. Un échec qui publie tout de
+    // même une transition (TERMINAL_FAILURES) est rejoué seul sur l'état d'avant le batch.
+    // Une exception inattendue ne publie rien (execute).
+    public List<CommandResult> executeBatch(String roomId, List<RoomCommand> commands) {
+        String[] locale = new String[1];
+        List<CommandResult> batch = execute(roomId, "batch", null, null, (draft, events) -> {
+            locale[0] = draft.state().getLocale();
+            List<CommandResult> results = new ArrayList<>(commands.size());
+            // Ce qui reste diffusé si le batch est annulé
+            RoomEvents kept = new RoomEvents();
+            int failed = -1;
+
+            for (int i = 0; i < commands.size(); i++) {
+                RoomCommand command = commands.get(i);
+                String type = command.getType() == null ? "" : command.getType().toUpperCase();
+
+                if (failed >= 0) {
+                    results.add(CommandResult.error(i, type, "ERR_SKIPPED", "Skipped after a previous error"));
+                    continue;
+                }
+
+                RoomEvents produced = new RoomEvents();
+                try {
+                    CommandResult result = applyCommand(draft, i, type, command, produced);
+                    results.add(result);
+                    events.addAll(produced);
+                    if (!result.isSuccess()) {
+                        kept.addAll(produced);
+                    }
+                } catch (GameException e) {
+                    results.add(CommandResult.error(i, type, e.getErrorCode(), e.getMessage()));
+                    failed = i;
+                }
+            }
+
+            if (failed >= 0) {
+                CommandResult failure = results.get(failed);
+                draft.rollback();
+                events.clear();
+                events.addAll(kept);
+                events.fail(failure.getErrorCode());
+                if (TERMINAL_FAILURES.contains(failure.getErrorCode())) {
+                    replayTerminal(draft, failed, commands.get(failed), failure, events);
+                }
+                for (int i = 0; i < failed; i++) {
+                    if (results.get(i).isSuccess()) {
+                        results.set(i, CommandResult.error(i, results.get(i).getType(), "ERR_ROLLED_BACK",
+                                "Rolled back after a later error"));
+                    }
+                }
+            }
+            return results;
+        });
+
+        // Seul endroit où un code d'erreur d'énigme sort du service : message résolu dans le pack de la room,
+        // hors du verrou de la room
+        for (int i = 0; i < batch.size(); i++) {
+            CommandResult result = batch.get(i);
+            if (!result.isSuccess() && result.getMessage() == null) {
+                batch.set(i, CommandResult.error(i, result.getType(), result.getErrorCode(),
+                        contentCatalog.message(locale[0], result.getErrorCode())));
+            }
         }
+        return batch;
+    }
 
-        String continentKey = continent.toLowerCase().substring(0, 2);
-        if (room.getSolved().getOrDefault(continentKey, false)) {
-            throw new GameException("ERR_ALREADY_SOLVED", "Puzzle already solved");
+    // Rejoue la commande en échec sur le brouillon annulé : sa transition n'est gardée que si elle échoue de
+    // la même façon (sinon l'état d'avant le batch ne la justifie pas et rien n'est publié)
+    private void replayTerminal(RoomDraft draft, int index, RoomCommand command, CommandResult failure,
+                                RoomEvents events) {
+        RoomEvents produced = new RoomEvents();
+        try {
+            applyCommand(draft, index, failure.getType(), command, produced);
+        } catch (GameException e) {
+            if (e.getErrorCode().equals(failure.getErrorCode())) {
+                events.addAll(produced);
+                return;
+            }
         }
+        draft.rollback();
+    }
 
-        PuzzleResult result;
-        switch (continent.toUpperCase()) {
-            case "EUROPE":
-                result = puzzleService.validateEurope(answer);
+    private CommandResult applyCommand(RoomDraft draft, int index, String type, RoomCommand command, RoomEvents events) {
+        switch (type) {
+            case "START":
+                applyStart(draft, events);
                 break;
-            case "ASIA":
-                result = puzzleService.validateAsia(answer);
+            case "PUZZLE":
+                requireField(command.getContinent());
+                requireField(command.getAnswer());
+                PuzzleResult result = applyPuzzle(draft, command.getContinent(), command.getAnswer(),
+                        command.getPlayerId(), events);
+                if (!result.isSuccess()) {
+                    return CommandResult.error(index, type, result.getErrorCode(), result.getMessage());
+                }
                 break;
-            case "AMERICAS":
-                result = puzzleService.validateAmericas(answer);
+            case "HINT":
+                requireField(command.getContinent());
+                applyHint(draft, command.getContinent(), events);
                 break;
-            case "AFRICA":
-                result = puzzleService.validateAfrica(answer);
+            case "META":
+                requireField(command.getAnswer());
+                applyMeta(draft, command.getAnswer(), events);
                 break;
-            case "OCEANIA":
-                result = puzzleService.validateOceania(answer);
+            case "FINAL":
+                requireField(command.getAnswer());
+                applyFinal(draft, command.getAnswer(), events);
                 break;
-            case "ANTARCTICA":
-                result = puzzleService.validateAntarctica(answer);
+            case "CHAT":
+                requireField(command.getMessage());
+                applyChat(draft, command.getPlayerId(), command.getMessage(), events);
                 break;
             default:
-                throw new GameException("ERR_INVALID_CONTINENT", "Invalid continent");
+                throw new GameException("ERR_INVALID_COMMAND", "Unknown command type: " + type);
+        }
+        return CommandResult.ok(index, type);
+    }
+
+    private void requireField(String value) {
+        if (value == null || value.isBlank()) {
+            throw new GameException("ERR_PAYLOAD_INVALID", "Missing command field");
         }
+    }
+
+    private void applyStart(RoomDraft draft, RoomEvents events) {
+        if (draft.state().getPlayerCount() < 2) {
+            throw new GameException("ERR_STAGE", "Need at least 2 players to start");
+        }
+        draft.change(draft.state().withStage(GameStage.PLAY));
+        GameRoom room = draft.room();
+        int timer = draft.state().getTimerSec();
+        events.afterPublish(() -> room.setLastSolveTimerSec(timer));
+        broadcastStageChange(draft.state(), events);
+        eventLogger.log(LogCategory.ROOM, Level.INFO, "room.started", "room", draft.room().getId());
+    }
 
+    private PuzzleResult applyPuzzle(RoomDraft draft, String continent, String answer, String playerId,
+                                     RoomEvents events) {
+        RoomState state = draft.state();
+        if (state.getStage() != GameStage.PLAY) {
+            throw new GameException("ERR_STAGE", "Cannot submit puzzle at this stage");
+        }
+
+        Continent drawn = Continent.fromName(continent);
+        if (drawn != null && state.isSolved(drawn)) {
+            throw new GameException("ERR_ALREADY_SOLVED", "Puzzle already solved");
+        }
+
+        PuzzleResult result = puzzleService.validate(draft.room().getId(), continent, answer);
         if (result.isSuccess()) {
-            room.getSolved().put(continentKey, true);
-            storeFragment(room, continent, result.getFragment());
-            room.incrementVersion();
-            broadcastPuzzleResult(room, continent, true, null);
+            // Durée depuis la résolution précédente (ou le départ) : le temps passé sur ce continent.
+            // Lue et avancée après publication, dans l'ordre des résolutions d'un batch
+            GameRoom room = draft.room();
+            int timer = state.getTimerSec();
+            events.afterPublish(() -> {
+                int since = room.getLastSolveTimerSec();
+                room.setLastSolveTimerSec(timer);
+                puzzleAnalytics.recordSolved(drawn, since < 0 ? -1 : since - timer);
+            });
+            state = state.withSolved(drawn, true).withFragment(drawn, result.getFragment());
+            broadcastPuzzleResult(continent, true, null, events);
 
             // Vérifier si tous les puzzles sont résolus
-            if (room.allPuzzlesSolved()) {
-                room.setStage(GameStage.META);
-                broadcastStageChange(room);
+            if (state.allPuzzlesSolved()) {
+                state = state.withStage(GameStage.META);
+                broadcastStageChange(state, events);
             }
+            draft.change(state);
         } else {
-            broadcastPuzzleResult(room, continent, false, result.getErrorCode());
+            events.afterPublish(() -> puzzleAnalytics.recordWrong(drawn, result.getErrorCode()));
+            broadcastPuzzleResult(continent, false, result.getErrorCode(), events);
         }
+        return result;
     }
 
-    private void storeFragment(GameRoom room, String continent, String fragment) {
-        switch (continent.toUpperCase()) {
-            case "EUROPE":
-                room.getFragments().put("letterEU", fragment);
-                break;
-            case "ASIA":
-                room.getFragments().put("directionAS", fragment);
-                break;
-            case "AMERICAS":
-                room.getFragments().put("letterJoker", fragment);
-                break;
-            case "AFRICA":
-                room.getFragments().put("letterAF", fragment);
-                break;
-            case "OCEANIA":
-                room.getFragments().put("directionOC", fragment);
-                break;
-            case "ANTARCTICA":
-                room.getFragments().put("letterAN", fragment);
-                break;
+    private void applyHint(RoomDraft draft, String continent, RoomEvents events) {
+        Continent target = Continent.fromName(continent);
+        if (target == null) {
+            throw new GameException("ERR_INVALID_CONTINENT", "Unknown continent: " + continent);
         }
-    }
 
-    public void requestHint(String roomId, String continent) {
-        GameRoom room = getRoom(roomId);
-        String continentKey = continent.toLowerCase().substring(0, 2);
-
-        int used = room.getHintsUsed().getOrDefault(continentKey, 0);
-        if (used >= 2) {
+        RoomState state = draft.state();
+        int used = state.getHintCount(target);
+        if (used >= ContentCatalog.HINT_TIERS) {
             throw new GameException("ERR_MAX_HINTS", "Maximum hints reached for this puzzle");
         }
 
-        room.getHintsUsed().put(continentKey, used + 1);
-        room.setTimerSec(Math.max(0, room.getTimerSec() - 60));
-        room.incrementVersion();
+        draft.change(state.withHintCount(target, used + 1).withTimerSec(Math.max(0, state.getTimerSec() - 60)));
+        events.afterPublish(() -> {
+            hintCounters.get(target).increment();
+            puzzleAnalytics.recordHint(target);
+        });
 
-        broadcastHintGranted(room, continent);
-        log.info("Hint granted for {} in room {}", continent, roomId);
+        broadcastHintGranted(draft.state(), target, used + 1, events);
+        eventLogger.log(LogCategory.ROOM, Level.INFO, "room.hint", "room", draft.room().getId(), "continent", continent);
     }
 
-    public void submitMeta(String roomId, String answer) {
-        GameRoom room = getRoom(roomId);
-
-        if (room.getStage() != GameStage.META) {
+    private void applyMeta(RoomDraft draft, String answer, RoomEvents events) {
+        RoomState state = draft.state();
+        if (state.getStage() != GameStage.META) {
             throw new GameException("ERR_STAGE", "Cannot submit meta at this stage");
         }
 
-        boolean correct = puzzleService.validateMeta(answer, room.getFragments());
+        boolean correct = puzzleService.validateMeta(answer, state.getFragments());
         if (correct) {
-            room.setStage(GameStage.FINAL);
-            room.setFinalStartedAt(Instant.now());
-            broadcastStageChange(room);
+            draft.change(state.withStage(GameStage.FINAL).withFinalStartedAt(System.currentTimeMillis()));
+            broadcastStageChange(draft.state(), events);
         } else {
             throw new GameException("ERR_META_WRONG", "Incorrect meta solution");
         }
     }
 
-    public void submitFinal(String roomId, String answer) {
-        GameRoom room = getRoom(roomId);
-
-        if (room.getStage() != GameStage.FINAL) {
+    private void applyFinal(RoomDraft draft, String answer, RoomEvents events) {
+        RoomState state = draft.state();
+        if (state.getStage() != GameStage.FINAL) {
             throw new GameException("ERR_STAGE", "Cannot submit final at this stage");
         }
 
-        // Vérifier fenêtre de 30s
-        Instant now = Instant.now();
-        long elapsed = Duration.between(room.getFinalStartedAt(), now).getSeconds();
+        // Vérifier fenêtre de 30s ; le passage en DEBRIEF est publié malgré l'exception (voir execute)
+        long elapsed = (System.currentTimeMillis() - state.getFinalStartedAtMillis()) / 1000;
         if (elapsed > 30) {
-            room.setStage(GameStage.DEBRIEF);
-            broadcastFinalResult(room, false);
+            draft.change(state.withStage(GameStage.DEBRIEF));
+            broadcastFinalResult(false, events);
             throw new GameException("ERR_FINAL_TIMEOUT", "Time's up for final submission");
         }
 
         // Vérifier code de désactivation final (basé sur les continents tirés)
-        boolean correct = puzzleService.validateFinal(answer, room.getDraw());
+        boolean correct = puzzleService.validateFinal(answer, state.getDraw());
         if (correct) {
-            room.setStage(GameStage.DEBRIEF);
-            broadcastFinalResult(room, true);
+            draft.change(state.withStage(GameStage.DEBRIEF));
+            GameRoom room = draft.room();
+            events.afterPublish(() -> leaderboardService.record(room.getState(), room.getEventId()));
+            broadcastFinalResult(true, events);
         } else {
             throw new GameException("ERR_FINAL_WRONG", "Code de désactivation incorrect");
         }
     }
 
-    public void sendChatMessage(String roomId, String playerId, String message) {
-        GameRoom room = getRoom(roomId);
-
+    private void applyChat(RoomDraft draft, String playerId, String message, RoomEvents events) {
         // Trouver le pseudo du joueur
-        String pseudo = room.getPlayers().stream()
-                .filter(p -> p.getId().equals(playerId))
-                .findFirst()
-                .map(Player::getPseudo)
-                .orElse("Unknown");
+        Player player = draft.state().findPlayer(playerId);
+        String pseudo = player != null ? player.getPseudo() : "Unknown";
 
         Map<String, String> chatMsg = new HashMap<>();
         chatMsg.put("playerId", playerId);
@@ -260,87 +597,214 @@ public class GameService {
         chatMsg.put("message", message);
         chatMsg.put("timestamp", String.valueOf(System.currentTimeMillis()));
 
-        messagingTemplate.convertAndSend("/topic/rooms/" + roomId + "/chat", chatMsg);
+        events.addChat(chatMsg);
     }
 
-    // Timer tick toutes les secondes
-    @Scheduled(fixedRate = 1000)
+    // Timer tick (job "clock" de GameScheduler, toutes les secondes) : seules les rooms en PLAY et META sont parcourues
     public void timerTick() {
-        for (GameRoom room : rooms.values()) {
-            if (room.getStage() == GameStage.PLAY || room.getStage() == GameStage.META) {
-                if (room.getTimerSec() > 0) {
-                    room.setTimerSec(room.getTimerSec() - 1);
-                    broadcastTimerTick(room);
-
-                    if (room.getTimerSec() == 0) {
-                        room.setStage(GameStage.DEBRIEF);
-                        broadcastStageChange(room);
+        RoomSweepEvent sweep = new RoomSweepEvent();
+        sweep.begin();
+        int ticked = tickStage(GameStage.PLAY) + tickStage(GameStage.META);
+        commitSweep(sweep, "timerTick", ticked, ticked);
+    }
+
+    private int tickStage(GameStage stage) {
+        int ticked = 0;
+        for (GameRoom room : registry.inStage(stage)) {
+            RoomEvents events = new RoomEvents();
+            synchronized (room) {
+                // La room a pu changer d'étape depuis la lecture de l'index
+                if (room.getStage() != stage) {
+                    continue;
+                }
+                ticked++;
+                RoomState state = room.getState();
+                if (state.getTimerSec() > 0) {
+                    RoomDraft draft = new RoomDraft(room);
+                    draft.set(state.withTimerSec(state.getTimerSec() - 1));
+                    broadcastTimerTick(draft.state(), events);
+
+                    if (draft.state().getTimerSec() == 0) {
+                        draft.change(draft.state().withStage(GameStage.DEBRIEF));
+                        broadcastStageChange(draft.state(), events);
                     }
+                    publish(room, draft);
+                    timerDirty.add(room);
                 }
+                flush(room, events);
             }
         }
+        return ticked;
     }
 
-    // Snapshots toutes les 10 secondes
-    @Scheduled(fixedRate = 10000)
+    // Snapshots (job "snapshot" de GameScheduler) : uniquement les rooms actives depuis la minute du passage
+    // précédent, plus celles dont le timer a avancé (fin de partie au timer comprise)
     public void snapshotRooms() {
-        for (GameRoom room : rooms.values()) {
-            snapshotService.saveRoom(room);
+        RoomSweepEvent sweep = new RoomSweepEvent();
+        sweep.begin();
+        long since = lastSnapshotMillis;
+        lastSnapshotMillis = System.currentTimeMillis();
+        Set<GameRoom> dirty = new LinkedHashSet<>(registry.activeSince(since));
+        for (Iterator<GameRoom> it = timerDirty.iterator(); it.hasNext(); ) {
+            dirty.add(it.next());
+            it.remove();
         }
+        int saved = snapshotService.saveRooms(dirty, this::isLive);
+        leaderboardService.saveIfChanged();
+        commitSweep(sweep, "snapshot", saved, saved);
     }
 
-    // Cleanup des vieilles rooms
-    @Scheduled(fixedRate = 60000)
+    // Cleanup des vieilles rooms (job "cleanup" de GameScheduler) : seules les rooms échues sont dépilées
+    // de l'index d'expiration. Les rooms d'événement pas encore démarrées ont leur propre TTL, plus long.
     public void cleanupRooms() {
-        Instant threshold = Instant.now().minusSeconds(roomTtlMinutes * 60L);
-        List<String> toRemove = new ArrayList<>();
-
-        for (Map.Entry<String, GameRoom> entry : rooms.entrySet()) {
-            if (entry.getValue().getLastActivity().isBefore(threshold)) {
-                toRemove.add(entry.getKey());
+        RoomSweepEvent sweep = new RoomSweepEvent();
+        sweep.begin();
+        long now = System.currentTimeMillis();
+        long threshold = now - roomTtlMinutes * 60_000L;
+        long heldThreshold = now - unstartedEventTtlMinutes * 60_000L;
+        List<GameRoom> candidates = registry.pollExpired(threshold);
+        candidates.addAll(registry.heldIdleBefore(heldThreshold));
+        int removed = 0;
+
+        for (GameRoom room : candidates) {
+            String roomId = room.getId();
+            synchronized (room) {
+                // Une commande a pu arriver entre-temps : la room retourne dans son bucket d'activité
+                if (room.getLastActivityMillis() >= (RoomRegistry.isHeld(room) ? heldThreshold : threshold)) {
+                    registry.update(room);
+                    continue;
+                }
+                if (registry.remove(roomId) == null) {
+                    continue;
+                }
+                // Sous le verrou : une sauvegarde en vol ne renomme son fichier que si la room est encore enregistrée
+                snapshotService.deleteRoom(roomId);
             }
+            if (room.getEventId() != null) {
+                ProvisionedEvent remaining = provisionedEvents.computeIfPresent(room.getEventId(), (eventId, event) -> {
+                    event.roomIds.remove(roomId);
+                    return event.roomIds.isEmpty() ? null : event;
+                });
+                if (remaining == null) {
+                    leaderboardService.closeEvent(room.getEventId());
+                }
+            }
+            timerDirty.remove(room);
+            broadcaster.closeRoom(roomId);
+            idempotencyService.evictRoom(roomId);
+            roomsExpired.increment();
+            removed++;
+            eventLogger.log(LogCategory.ROOM, Level.INFO, "room.expired", "room", roomId);
         }
+        idempotencyService.evictExpired();
+        leaderboardService.pruneEvents();
+        commitSweep(sweep, "cleanup", candidates.size(), removed);
+    }
 
-        for (String roomId : toRemove) {
-            GameRoom room = rooms.remove(roomId);
-            if (room != null) {
-                joinCodeToRoomId.remove(room.getJoinCode());
-                log.info("Cleaned up room {}", roomId);
+    private void commitSweep(RoomSweepEvent sweep, String name, int scanned, int affected) {
+        if (sweep.shouldCommit()) {
+            sweep.sweep = name;
+            sweep.roomsScanned = scanned;
+            sweep.roomsAffected = affected;
+            sweep.commit();
+        }
+    }
+
+    // Exécute une commande sous le verrou de la room sur un brouillon de son état, publié en une écriture.
+    // Un refus (GameException) publie et diffuse ce qui a été produit avant lui ; une exception inattendue
+    // n'en publie rien, la room reste à son état précédent.
+    private <T> T execute(String roomId, String name, String playerId, String detail,
+                          BiFunction<RoomDraft, RoomEvents, T> command) {
+        GameRoom room = getRoom(roomId);
+        RoomEvents events = new RoomEvents();
+        RoomCommandEvent jfrEvent = new RoomCommandEvent();
+        jfrEvent.begin();
+        long start = System.nanoTime();
+        String outcome = "OK";
+        try {
+            synchronized (room) {
+                RoomDraft draft = new RoomDraft(room);
+                int versionBefore = room.getVersion();
+                String result = "ERROR";
+                boolean publish = false;
+                try {
+                    T value = command.apply(draft, events);
+                    result = events.getFailure() != null ? events.getFailure() : "OK";
+                    outcome = result;
+                    publish = true;
+                    return value;
+                } catch (GameException e) {
+                    result = e.getErrorCode();
+                    publish = true;
+                    throw e;
+                } finally {
+                    if (publish) {
+                        publish(room, draft);
+                    }
+                    trace(room, RoomTrace.COMMAND, name, playerId, detail, versionBefore, result);
+                    if (publish) {
+                        flush(room, events);
+                    }
+                }
+            }
+        } catch (GameException e) {
+            outcome = e.getErrorCode();
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            commandTimers.get(name).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.roomId = roomId;
+                jfrEvent.command = name;
+                jfrEvent.outcome = outcome;
+                jfrEvent.commit();
             }
         }
     }
 
-    private String generateJoinCode() {
-        String chars = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
-        StringBuilder code = new StringBuilder();
-        Random random = new Random();
-        for (int i = 0; i < 6; i++) {
-            code.append(chars.charAt(random.nextInt(chars.length())));
+    // Sous le verrou de la room : une seule écriture volatile, puis réindexation
+    private void publish(GameRoom room, RoomDraft draft) {
+        RoomState next = draft.result();
+        if (next != null) {
+            room.publish(next);
+            registry.update(room);
         }
-        return code.toString();
     }
 
-    private void broadcastSnapshot(GameRoom room) {
-        com.example.operation_atlas.dto.RoomSnapshot snapshot = com.example.operation_atlas.dto.RoomSnapshot.fromRoom(room);
-        messagingTemplate.convertAndSend("/topic/rooms/" + room.getId(), snapshot);
+    private void flush(GameRoom room, RoomEvents events) {
+        for (Runnable action : events.getAfterPublish()) {
+            action.run();
+        }
+        for (Object event : events.getEvents()) {
+            traceEvent(room, event);
+            broadcaster.toRoom(room.getId(), event);
+        }
+        if (events.needsSnapshot()) {
+            broadcaster.toRoom(room.getId(), RoomSnapshot.publicView(room));
+        }
+        for (Object message : events.getChat()) {
+            broadcaster.toRoomChat(room.getId(), message);
+        }
     }
 
-    private void broadcastTimerTick(GameRoom room) {
+    private void broadcastTimerTick(RoomState state, RoomEvents events) {
         Map<String, Object> tick = new HashMap<>();
         tick.put("type", "TIMER_TICK");
-        tick.put("timerSec", room.getTimerSec());
-        messagingTemplate.convertAndSend("/topic/rooms/" + room.getId(), tick);
+        tick.put("timerSec", state.getTimerSec());
+        events.add(tick);
     }
 
-    private void broadcastStageChange(GameRoom room) {
+    private void broadcastStageChange(RoomState state, RoomEvents events) {
         Map<String, Object> event = new HashMap<>();
         event.put("type", "STAGE_CHANGE");
-        event.put("stage", room.getStage());
-        messagingTemplate.convertAndSend("/topic/rooms/" + room.getId(), event);
-        broadcastSnapshot(room);
+        event.put("stage", state.getStage());
+        events.add(event);
+        events.snapshot();
     }
 
-    private void broadcastPuzzleResult(GameRoom room, String continent, boolean success, String errorCode) {
+    private void broadcastPuzzleResult(String continent, boolean success, String errorCode, RoomEvents events) {
         Map<String, Object> result = new HashMap<>();
         result.put("type", "PUZZLE_RESULT");
         result.put("continent", continent);
@@ -348,26 +812,57 @@ public class GameService {
         if (errorCode != null) {
             result.put("errorCode", errorCode);
         }
-        messagingTemplate.convertAndSend("/topic/rooms/" + room.getId(), result);
+        events.add(result);
         if (success) {
-            broadcastSnapshot(room);
+            events.snapshot();
         }
     }
 
-    private void broadcastHintGranted(GameRoom room, String continent) {
+    private void broadcastHintGranted(RoomState state, Continent continent, int tier, RoomEvents events) {
         Map<String, Object> hint = new HashMap<>();
         hint.put("type", "HINT_GRANTED");
-        hint.put("continent", continent);
-        hint.put("timerSec", room.getTimerSec());
-        messagingTemplate.convertAndSend("/topic/rooms/" + room.getId(), hint);
-        broadcastSnapshot(room);
+        hint.put("continent", continent.name());
+        hint.put("tier", tier);
+        hint.put("content", contentCatalog.hintHash(state.getLocale(), continent, tier));
+        hint.put("timerSec", state.getTimerSec());
+        events.add(hint);
+        events.snapshot();
     }
 
-    private void broadcastFinalResult(GameRoom room, boolean success) {
+    private void broadcastFinalResult(boolean success, RoomEvents events) {
         Map<String, Object> result = new HashMap<>();
         result.put("type", "FINAL_RESULT");
         result.put("success", success);
-        messagingTemplate.convertAndSend("/topic/rooms/" + room.getId(), result);
-        broadcastSnapshot(room);
+        events.add(result);
+        events.snapshot();
+    }
+
+    private void trace(GameRoom room, byte kind, String name, String playerId, String detail,
+                       int versionBefore, String outcome) {
+        RoomTrace trace = room.getTrace();
+        if (trace != null) {
+            trace.record(kind, name, playerId, detail, versionBefore, room.getVersion(), outcome);
+        }
+    }
+
+    // Les TIMER_TICK ne sont pas tracés : ils rempliraient l'anneau en quelques secondes
+    private void traceEvent(GameRoom room, Object event) {
+        if (room.getTrace() == null || !(event instanceof Map<?, ?> fields)) {
+            return;
+        }
+        Object type = fields.get("type");
+        if (type == null || "TIMER_TICK".equals(type)) {
+            return;
+        }
+
+        Object detail = fields.containsKey("continent") ? fields.get("continent") : fields.get("stage");
+        String outcome;
+        if (fields.get("errorCode") != null) {
+            outcome = (String) fields.get("errorCode");
+        } else {
+            outcome = Boolean.FALSE.equals(fields.get("success")) ? "FAILED" : "OK";
+        }
+        trace(room, RoomTrace.EVENT, (String) type, null,
+                detail instanceof GameStage stage ? stage.name() : (String) detail, room.getVersion(), outcome);
     }
 }
\ No newline at end of file
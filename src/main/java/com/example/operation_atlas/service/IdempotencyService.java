@@ -0,0 +1,158 @@
+package com.example.operation_atlas.service;
+
+import com.example.operation_atlas.exception.GameException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyService {
+
+    @Value("${atlas.idempotency.max-keys-per-room:64}")
+    private int maxKeysPerRoom;
+
+    @Value("${atlas.idempotency.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    // Sérialisation canonique de la requête : même contenu, même empreinte quel que soit l'ordre des clés
+    private static final ObjectMapper CANONICAL = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private final Map<String, RoomCache> caches = new ConcurrentHashMap<>();
+
+    private static class Entry {
+        final long createdAt = System.currentTimeMillis();
+        final CompletableFuture<Object> outcome = new CompletableFuture<>();
+        final String operation;
+        final byte[] fingerprint;
+
+        Entry(String operation, byte[] fingerprint) {
+            this.operation = operation;
+            this.fingerprint = fingerprint;
+        }
+
+        boolean matches(String operation, byte[] fingerprint) {
+            return this.operation.equals(operation) && MessageDigest.isEqual(this.fingerprint, fingerprint);
+        }
+    }
+
+    // Ordre d'insertion : la clé la plus ancienne est évincée quand la room dépasse sa limite
+    // Jamais synchronisé directement : toute mutation passe par compute sur la clé de la room
+    private static class RoomCache extends LinkedHashMap<String, Entry> {
+        private final int maxEntries;
+
+        RoomCache(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    // Sans clé, l'action est simplement exécutée. Avec une clé déjà vue, on rejoue le résultat
+    // (ou l'erreur métier) enregistré, sans ré-exécuter ni re-diffuser. La clé reste liée à l'opération
+    // et au contenu de la requête (paramètres de chemin compris) : réutilisée pour autre chose, elle est refusée.
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String roomId, String operation, String key, Object request, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        byte[] fingerprint = fingerprint(request);
+        long now = System.currentTimeMillis();
+        Entry[] claimed = new Entry[1];
+        boolean[] owner = new boolean[1];
+        // Lecture et insertion dans la section critique de la clé : l'éviction ne peut pas
+        // retirer le cache de la room entre les deux
+        caches.compute(roomId, (id, cache) -> {
+            if (cache == null) {
+                cache = new RoomCache(maxKeysPerRoom);
+            }
+            Entry existing = cache.get(key);
+            if (existing == null || isExpired(existing, now)) {
+                existing = new Entry(operation, fingerprint);
+                cache.put(key, existing);
+                owner[0] = true;
+            }
+            claimed[0] = existing;
+            return cache;
+        });
+        Entry entry = claimed[0];
+
+        if (!owner[0]) {
+            if (!entry.matches(operation, fingerprint)) {
+                throw new GameException("ERR_IDEMPOTENCY_MISMATCH",
+                        "Idempotency key already used for a different request");
+            }
+            return (T) replay(entry);
+        }
+
+        try {
+            T result = action.get();
+            entry.outcome.complete(result);
+            return result;
+        } catch (GameException e) {
+            entry.outcome.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            // Erreur inattendue : on ne l'enregistre pas, un nouvel essai ré-exécutera
+            caches.computeIfPresent(roomId, (id, cache) -> {
+                cache.remove(key, entry);
+                return cache.isEmpty() ? null : cache;
+            });
+            entry.outcome.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object replay(Entry entry) {
+        try {
+            return entry.outcome.join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private static byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(CANONICAL.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    public void evictRoom(String roomId) {
+        caches.remove(roomId);
+    }
+
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        for (String roomId : caches.keySet()) {
+            caches.computeIfPresent(roomId, (id, cache) -> {
+                cache.values().removeIf(entry -> entry.outcome.isDone() && isExpired(entry, now));
+                return cache.isEmpty() ? null : cache;
+            });
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.createdAt > ttlSeconds * 1000;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.example.operation_atlas.service;
+
+import com.example.operation_atlas.model.GameRoom;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+// Codes de room sur l'espace 32^6 = 2^30 : code = permutation de Feistel (clé secrète) d'un compteur,
+// donc unique sans tirage ni vérification. La room est rangée à l'indice du compteur : résoudre un code
+// revient à décoder les 6 caractères et inverser la permutation, sans map indexée par chaîne.
+// Un code libéré passe en quarantaine avant d'être réattribué, pour qu'un joueur muni d'un ancien code
+// n'atterrisse pas dans la room de quelqu'un d'autre.
+@Service
+public class JoinCodeAllocator {
+
+    static final String ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+    static final int CODE_LENGTH = 6;
+    static final int CODE_SPACE = 1 << (5 * CODE_LENGTH);
+
+    private static final int HALF_BITS = 15;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            DECODE[ALPHABET.charAt(i)] = (byte) i;
+        }
+    }
+
+    private static final class Released {
+        final int index;
+        final long releasedAt;
+
+        Released(int index, long releasedAt) {
+            this.index = index;
+            this.releasedAt = releasedAt;
+        }
+    }
+
+    // Vide : clé tirée au démarrage (aucun code ne survit à un redémarrage)
+    @Value("${atlas.joincode.key:}")
+    private String key;
+
+    @Value("${atlas.joincode.quarantine-seconds:600}")
+    private long quarantineSeconds;
+
+    private final int[] roundKeys = new int[ROUNDS];
+    // Pages allouées à la demande ; le répertoire est recopié quand il grandit
+    @SuppressWarnings("unchecked")
+    private volatile AtomicReferenceArray<GameRoom>[] pages = new AtomicReferenceArray[0];
+    private final ArrayDeque<Released> quarantine = new ArrayDeque<>();
+    // Écrit sous le verrou, lu sans verrou par resolve()
+    private volatile int nextIndex;
+
+    @PostConstruct
+    public void init() {
+        long seed;
+        if (key == null || key.isBlank()) {
+            seed = new SecureRandom().nextLong();
+        } else {
+            seed = 0;
+            for (char c : key.toCharArray()) {
+                seed = mix(seed ^ c);
+            }
+        }
+        for (int i = 0; i < ROUNDS; i++) {
+            seed = mix(seed + 0x9e3779b97f4a7c15L);
+            roundKeys[i] = (int) seed;
+        }
+    }
+
+    // Prochain code accepté par 'accept' (en cluster : possédé par ce noeud). Les codes recyclés ont déjà
+    // été acceptés ; les indices refusés sont abandonnés, ils appartiennent à un autre noeud.
+    public synchronized String allocate(Predicate<String> accept) {
+        Released head = quarantine.peekFirst();
+        if (head != null && head.releasedAt + quarantineSeconds * 1000 <= System.currentTimeMillis()) {
+            quarantine.pollFirst();
+            return encode(permute(head.index));
+        }
+        while (nextIndex < CODE_SPACE) {
+            String code = encode(permute(nextIndex++));
+            if (accept.test(code)) {
+                return code;
+            }
+        }
+        throw new IllegalStateException("Join code space exhausted");
+    }
+
+    public void bind(String code, GameRoom room) {
+        int index = indexOf(code);
+        if (index < 0) {
+            throw new IllegalArgumentException("Not an allocated join code: " + code);
+        }
+        page(index).set(index & (PAGE_SIZE - 1), room);
+    }
+
+    public GameRoom resolve(String code) {
+        int index = indexOf(code);
+        AtomicReferenceArray<GameRoom>[] directory = pages;
+        if (index < 0 || (index >>> PAGE_BITS) >= directory.length) {
+            return null;
+        }
+        AtomicReferenceArray<GameRoom> page = directory[index >>> PAGE_BITS];
+        return page == null ? null : page.get(index & (PAGE_SIZE - 1));
+    }
+
+    // Sans effet si le code ne désigne plus cette room
+    public void release(String code, GameRoom room) {
+        GameRoom current = resolve(code);
+        if (current == null || current != room) {
+            return;
+        }
+        int index = indexOf(code);
+        if (pages[index >>> PAGE_BITS].compareAndSet(index & (PAGE_SIZE - 1), room, null)) {
+            synchronized (this) {
+                quarantine.addLast(new Released(index, System.currentTimeMillis()));
+            }
+        }
+    }
+
+    public synchronized int quarantined() {
+        return quarantine.size();
+    }
+
+    // Indice de compteur d'un code attribué, -1 si le code est mal formé ou jamais attribué
+    private int indexOf(String code) {
+        if (code == null || code.length() != CODE_LENGTH) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            char c = code.charAt(i);
+            int digit = c < DECODE.length ? DECODE[c] : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 5) | digit;
+        }
+        int index = unpermute(value);
+        return index < nextIndex ? index : -1;
+    }
+
+    private AtomicReferenceArray<GameRoom> page(int index) {
+        int pageIndex = index >>> PAGE_BITS;
+        AtomicReferenceArray<GameRoom>[] directory = pages;
+        if (pageIndex < directory.length && directory[pageIndex] != null) {
+            return directory[pageIndex];
+        }
+        synchronized (this) {
+            directory = pages;
+            if (pageIndex >= directory.length) {
+                directory = Arrays.copyOf(directory, Math.max(pageIndex + 1, directory.length * 2));
+            }
+            if (directory[pageIndex] == null) {
+                directory[pageIndex] = new AtomicReferenceArray<>(PAGE_SIZE);
+            }
+            pages = directory;
+            return directory[pageIndex];
+        }
+    }
+
+    // Feistel équilibré sur 30 bits (deux moitiés de 15 bits) : bijection de [0, 2^30) sur lui-même
+    int permute(int value) {
+        int left = value >>> HALF_BITS;
+        int right = value & HALF_MASK;
+        for (int i = 0; i < ROUNDS; i++) {
+            int next = left ^ round(right, roundKeys[i]);
+            left = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    int unpermute(int value) {
+        int left = value >>> HALF_BITS;
+        int right = value & HALF_MASK;
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            int previous = right ^ round(left, roundKeys[i]);
+            right = left;
+            left = previous;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private static int round(int half, int roundKey) {
+        int h = (half ^ roundKey) * 0x45d9f3b;
+        h ^= h >>> 16;
+        h *= 0x45d9f3b;
+        h ^= h >>> 13;
+        return h & HALF_MASK;
+    }
+
+    static String encode(int value) {
+        char[] chars = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET.charAt(value & 31);
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
\ No newline at end of file
@@ -1,10 +1,21 @@
 package com.example.operation_atlas.service;
 
+import com.example.operation_atlas.content.ContentPack;
+import com.example.operation_atlas.content.ContentPackCompiler;
+import com.example.operation_atlas.content.PuzzleContent;
+import com.example.operation_atlas.eventlog.EventLogger;
+import com.example.operation_atlas.eventlog.LogCategory;
+import com.example.operation_atlas.exception.GameException;
+import com.example.operation_atlas.jfr.PuzzleValidationEvent;
 import com.example.operation_atlas.model.PuzzleResult;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
@@ -12,7 +23,12 @@ import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class PuzzleService {
@@ -20,75 +36,88 @@ public class PuzzleService {
     private static final Logger log = LoggerFactory.getLogger(PuzzleService.class);
     private final ObjectMapper objectMapper;
     private final ResourceLoader resourceLoader;
+    private final MeterRegistry meterRegistry;
+    private final EventLogger eventLogger;
+
+    private static final List<String> PUZZLES = List.of(
+            "EUROPE", "ASIA", "AMERICAS", "AFRICA", "OCEANIA", "ANTARCTICA", "META", "FINAL");
+    private final Map<String, Counter> successCounters = new HashMap<>();
+    private final Map<String, Counter> failureCounters = new HashMap<>();
+    private final Map<String, Timer> validationTimers = new HashMap<>();
 
     @Value("${atlas.demo.mode:false}")
     private boolean demoMode;
 
-    private JsonNode euData;
-    private JsonNode asData;
-    private JsonNode amData;
-    private JsonNode afData;
-    private JsonNode ocData;
-    private JsonNode anData;
-    private JsonNode metaData;
+    private volatile PuzzleContent content;
 
-    public PuzzleService(ObjectMapper objectMapper, ResourceLoader resourceLoader) {
+    public PuzzleService(ObjectMapper objectMapper, ResourceLoader resourceLoader, MeterRegistry meterRegistry,
+                         EventLogger eventLogger) {
         this.objectMapper = objectMapper;
         this.resourceLoader = resourceLoader;
+        this.meterRegistry = meterRegistry;
+        this.eventLogger = eventLogger;
+
+        for (String puzzle : PUZZLES) {
+            successCounters.put(puzzle, meterRegistry.counter("atlas.puzzle.submissions",
+                    "puzzle", puzzle, "outcome", "success"));
+            failureCounters.put(puzzle, meterRegistry.counter("atlas.puzzle.submissions",
+                    "puzzle", puzzle, "outcome", "failure"));
+            validationTimers.put(puzzle, meterRegistry.timer("atlas.puzzle.validation", "puzzle", puzzle));
+        }
     }
 
     @PostConstruct
     public void loadData() {
-        try {
-            euData = loadJson("classpath:content/eu_salutations.json");
-            asData = loadJson("classpath:content/as_time.json");
-            amData = loadJson("classpath:content/am_items.json");
-            afData = loadJson("classpath:content/af_currencies.json");
-            ocData = loadJson("classpath:content/oc_islands.json");
-            anData = loadJson("classpath:content/an_stations.json");
-            metaData = loadJson("classpath:content/meta_config.json");
-            log.info("✅ Données des énigme correctement charger (6 continents)");
-        } catch (IOException e) {
-            log.error("❌ Échec de chargement des données de énignmes", e);
-            // Initialiser avec des données par défaut pour éviter les NullPointerException
-            initializeDefaultData();
+        long start = System.nanoTime();
+        PuzzleContent loaded = loadPack();
+        String source = "pack";
+        if (loaded == null) {
+            loaded = compileFromJson();
+            source = "json";
+        }
+        content = loaded;
+        if (loaded != null) {
+            log.info("✅ Données des énigme correctement charger (6 continents, {}, {} µs)", source,
+                    (System.nanoTime() - start) / 1000);
         }
     }
 
-    private void initializeDefaultData() {
+    // Pack compilé au build : une seule lecture, mappée en mémoire quand le classpath est un dossier
+    private PuzzleContent loadPack() {
+        Resource resource = resourceLoader.getResource("classpath:" + ContentPack.RESOURCE);
+        if (!resource.exists()) {
+            log.warn("⚠️ Content pack {} not found, falling back to JSON", ContentPack.RESOURCE);
+            return null;
+        }
         try {
-            ObjectMapper mapper = new ObjectMapper();
-
-            // Données par défaut pour l'Europe
-            String defaultEuData = """
-                {
-                  "salutations": [
-                    {"greeting": "Hello", "language": "English", "country": "UK", "linguisticFamily": "Germanic"},
-                    {"greeting": "Bonjour", "language": "French", "country": "France", "linguisticFamily": "Romance"},
-                    {"greeting": "Hola", "language": "Spanish", "country": "Spain", "linguisticFamily": "Romance"},
-                    {"greeting": "Ciao", "language": "Italian", "country": "Italy", "linguisticFamily": "Romance"},
-                    {"greeting": "Hallo", "language": "German", "country": "Germany", "linguisticFamily": "Germanic"}
-                  ],
-                  "familyMapping": {
-                    "Germanic": "M",
-                    "Romance": "O",
-                    "Slavic": "N",
-                    "Uralic": "D",
-                    "Greek": "E"
-                  },
-                  "targetWord": "MONDE",
-                  "hint": "Associez chaque famille linguistique à sa lettre pour former un mot de 5 lettres"
+            if (resource.isFile()) {
+                try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+                    return ContentPack.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
                 }
-            """;
-            euData = mapper.readTree(defaultEuData);
+            }
+            try (InputStream in = resource.getInputStream()) {
+                return ContentPack.read(ByteBuffer.wrap(in.readAllBytes()));
+            }
+        } catch (IOException e) {
+            log.error("❌ Content pack {} unreadable, falling back to JSON", ContentPack.RESOURCE, e);
+            return null;
+        }
+    }
 
-            log.warn("⚠️ Using default puzzle data - check your content files!");
-        } catch (Exception e) {
-            log.error("❌ Failed to initialize default data", e);
+    private PuzzleContent compileFromJson() {
+        try {
+            Map<String, JsonNode> documents = new HashMap<>();
+            for (String file : ContentPackCompiler.FILES) {
+                documents.put(file, loadJson("classpath:content/" + file));
+            }
+            return ContentPackCompiler.compile(documents);
+        } catch (RuntimeException e) {
+            log.error("❌ Échec de chargement des données de énignmes", e);
+            return null;
         }
     }
 
-    private JsonNode loadJson(String path) throws IOException {
+    private JsonNode loadJson(String path) {
         try {
             Resource resource = resourceLoader.getResource(path);
             if (!resource.exists()) {
@@ -104,66 +133,110 @@ public class PuzzleService {
         }
     }
 
+    public PuzzleResult validate(String roomId, String continent, String answer) {
+        String puzzle = continent.toUpperCase();
+        PuzzleValidationEvent jfrEvent = new PuzzleValidationEvent();
+        jfrEvent.begin();
+        long start = System.nanoTime();
+        PuzzleResult result;
+        switch (puzzle) {
+            case "EUROPE":
+                result = validateEurope(answer);
+                break;
+            case "ASIA":
+                result = validateAsia(answer);
+                break;
+            case "AMERICAS":
+                result = validateAmericas(answer);
+                break;
+            case "AFRICA":
+                result = validateAfrica(answer);
+                break;
+            case "OCEANIA":
+                result = validateOceania(answer);
+                break;
+            case "ANTARCTICA":
+                result = validateAntarctica(answer);
+                break;
+            default:
+                throw new GameException("ERR_INVALID_CONTINENT", "Invalid continent");
+        }
+        validationTimers.get(puzzle).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.roomId = roomId;
+            jfrEvent.puzzle = puzzle;
+            jfrEvent.success = result.isSuccess();
+            jfrEvent.errorCode = result.getErrorCode();
+            jfrEvent.commit();
+        }
+        recordSubmission(puzzle, result.isSuccess(), result.getErrorCode());
+        return result;
+    }
+
+    // Codes d'erreur en nombre fini : le tag errorCode reste à faible cardinalité.
+    // Ni la réponse soumise ni la réponse attendue ne sont journalisées.
+    private void recordSubmission(String puzzle, boolean success, String errorCode) {
+        eventLogger.log(LogCategory.PUZZLE, Level.INFO, "puzzle.validated",
+                "puzzle", puzzle, "success", success, "code", errorCode);
+        if (success) {
+            successCounters.get(puzzle).increment();
+            return;
+        }
+        failureCounters.get(puzzle).increment();
+        if (errorCode != null) {
+            meterRegistry.counter("atlas.puzzle.failures", "puzzle", puzzle, "errorCode", errorCode).increment();
+        }
+    }
+
     // Europe: mot 5 lettres - CORRIGÉ
     public PuzzleResult validateEurope(String answer) {
         try {
             // Vérifier que les données sont chargées
-            if (euData == null) {
+            PuzzleContent content = this.content;
+            if (content == null) {
                 log.error("❌ Europe data not loaded");
-                return PuzzleResult.error("ERR_DATA_NOT_LOADED", "Données Europe non chargées");
+                return PuzzleResult.error("ERR_DATA_NOT_LOADED");
             }
 
-            String expected = euData.get("targetWord").asText().toUpperCase();
+            String expected = content.getEuTargetWord();
             String normalized = answer.trim().toUpperCase();
 
-            log.info("🔍 Europe validation - Answer: {}, Expected: {}", normalized, expected);
-
             if (normalized.length() != 5) {
-                return PuzzleResult.error("E_EU_WRONG_LENGTH", "Le mot doit faire 5 lettres");
+                return PuzzleResult.error("E_EU_WRONG_LENGTH");
             }
 
             if (!normalized.equals(expected)) {
-                return PuzzleResult.error("E_EU_WRONG_LETTER", "Ce n'est pas le bon mot");
+                return PuzzleResult.error("E_EU_WRONG_LETTER");
             }
 
             // Fragment: première lettre du mot
             String fragment = String.valueOf(expected.charAt(0));
-            log.info("✅ Europe puzzle solved! Fragment: {}", fragment);
             return PuzzleResult.success(fragment);
 
         } catch (Exception e) {
             log.error("❌ Error validating Europe puzzle", e);
-            return PuzzleResult.error("ERR_VALIDATION_ERROR", "Erreur de validation");
+            return PuzzleResult.error("ERR_VALIDATION_ERROR");
         }
     }
 
     // Asie: horaire UTC HH:MM - CORRIGÉ
     public PuzzleResult validateAsia(String answer) {
         try {
-            if (asData == null) {
+            PuzzleContent content = this.content;
+            if (content == null) {
                 log.error("❌ Asia data not loaded");
-                return PuzzleResult.error("ERR_DATA_NOT_LOADED", "Données Asie non chargées");
+                return PuzzleResult.error("ERR_DATA_NOT_LOADED");
             }
 
             String normalized = answer.trim();
-            log.info("🔍 Asia validation - Answer: {}", normalized);
 
             if (!normalized.matches("\\d{2}:\\d{2}")) {
-                return PuzzleResult.error("E_AS_FORMAT", "Format attendu: HH:MM (ex: 06:30)");
+                return PuzzleResult.error("E_AS_FORMAT");
             }
 
             // Vérifier si l'horaire est dans la whitelist
-            JsonNode validSlots = asData.get("validSlotsUTC");
-            boolean valid = false;
-            for (JsonNode slot : validSlots) {
-                if (slot.asText().equals(normalized)) {
-                    valid = true;
-                    break;
-                }
-            }
-
-            if (!valid) {
-                return PuzzleResult.error("E_AS_NO_COMMON_SLOT", "Aucune ville n'est dans sa plage 08:00-20:00 à cet horaire");
+            if (!content.getAsValidSlots().contains(normalized)) {
+                return PuzzleResult.error("E_AS_NO_COMMON_SLOT");
             }
 
             // Fragment: direction basée sur les minutes
@@ -171,203 +244,149 @@ public class PuzzleService {
             int minutes = Integer.parseInt(parts[1]);
             String direction = (minutes == 30) ? "→→" : "→↑";
 
-            log.info("✅ Asia puzzle solved! Fragment: {}", direction);
             return PuzzleResult.success(direction);
 
         } catch (Exception e) {
             log.error("❌ Error validating Asia puzzle", e);
-            return PuzzleResult.error("ERR_VALIDATION_ERROR", "Erreur de validation");
+            return PuzzleResult.error("ERR_VALIDATION_ERROR");
         }
     }
 
     // Amériques: code 4 chiffres (somme poids cabine) - CORRIGÉ
     public PuzzleResult validateAmericas(String answer) {
         try {
-            if (amData == null) {
+            PuzzleContent content = this.content;
+            if (content == null) {
                 log.error("❌ Americas data not loaded");
-                return PuzzleResult.error("ERR_DATA_NOT_LOADED", "Données Amériques non chargées");
+                return PuzzleResult.error("ERR_DATA_NOT_LOADED");
             }
 
             String normalized = answer.trim();
-            log.info("🔍 Americas validation - Answer: {}", normalized);
 
             if (!normalized.matches("\\d{4}")) {
-                return PuzzleResult.error("E_AM_FORMAT", "Le code doit être 4 chiffres");
+                return PuzzleResult.error("E_AM_FORMAT");
             }
 
-            int expected = calculateCabinWeight();
+            int expected = content.getAmCabinWeight();
             int provided = Integer.parseInt(normalized);
 
-            log.info("🔍 Americas weight check - Provided: {}, Expected: {}", provided, expected);
-
             if (provided != expected) {
-                return PuzzleResult.error("E_AM_SUM_MISMATCH", "La somme ne correspond pas aux règles");
+                return PuzzleResult.error("E_AM_SUM_MISMATCH");
             }
 
             // Fragment: lettre joker
             String fragment = "X"; // Toujours X pour les Amériques
-            log.info("✅ Americas puzzle solved! Fragment: {}", fragment);
             return PuzzleResult.success(fragment);
 
         } catch (Exception e) {
             log.error("❌ Error validating Americas puzzle", e);
-            return PuzzleResult.error("ERR_VALIDATION_ERROR", "Erreur de validation");
-        }
-    }
-
-    private int calculateCabinWeight() {
-        try {
-            JsonNode items = amData.get("items");
-            JsonNode rules = amData.get("rules");
-
-            int maxLiquidMl = rules.get("maxLiquidMl").asInt();
-            int maxPowerWh = rules.get("maxPowerWh").asInt();
-
-            int totalWeight = 0;
-            for (JsonNode item : items) {
-                String name = item.get("name").asText();
-                int weight = item.get("weightKg").asInt();
-                boolean isLiquid = item.get("isLiquid").asBoolean();
-                int power = item.has("powerWh") ? item.get("powerWh").asInt() : 0;
-
-                // Vérifier si autorisé en cabine
-                boolean allowed = true;
-
-                // Vérifier liquides
-                if (isLiquid && item.get("volumeMl").asInt() > maxLiquidMl) {
-                    allowed = false;
-                }
-
-                // Vérifier batteries
-                if (power > maxPowerWh) {
-                    allowed = false;
-                }
-
-                // Vérifier les interdits
-                JsonNode prohibited = amData.get("prohibitedItems");
-                for (JsonNode p : prohibited) {
-                    if (p.asText().equalsIgnoreCase(name)) {
-                        allowed = false;
-                        break;
-                    }
-                }
-
-                if (allowed) {
-                    totalWeight += weight;
-                }
-            }
-
-            log.info("📦 Calculated cabin weight: {} kg", totalWeight);
-            return totalWeight;
-
-        } catch (Exception e) {
-            log.error("❌ Error calculating cabin weight", e);
-            return 8; // Valeur par défaut pour tester
+            return PuzzleResult.error("ERR_VALIDATION_ERROR");
         }
     }
 
     // Afrique: calcul conversion monétaire - CORRIGÉ
     public PuzzleResult validateAfrica(String answer) {
         try {
-            if (afData == null) {
+            PuzzleContent content = this.content;
+            if (content == null) {
                 log.error("❌ Africa data not loaded");
-                return PuzzleResult.error("ERR_DATA_NOT_LOADED", "Données Afrique non chargées");
+                return PuzzleResult.error("ERR_DATA_NOT_LOADED");
             }
 
             String normalized = answer.trim();
-            log.info("🔍 Africa validation - Answer: {}", normalized);
 
             if (!normalized.matches("\\d{4}")) {
-                return PuzzleResult.error("E_AF_FORMAT", "Le code doit être 4 chiffres");
+                return PuzzleResult.error("E_AF_FORMAT");
             }
 
             // En mode démo, accepter une valeur simple
-            int expected = demoMode ? 1234 : afData.get("expectedFinalAmount").asInt();
+            int expected = demoMode ? 1234 : content.getAfExpectedAmount();
             int provided = Integer.parseInt(normalized);
 
             if (provided != expected) {
-                return PuzzleResult.error("E_AF_WRONG_CALC", "Le montant final n'est pas correct");
+                return PuzzleResult.error("E_AF_WRONG_CALC");
             }
 
             String fragment = "A";
-            log.info("✅ Africa puzzle solved! Fragment: {}", fragment);
             return PuzzleResult.success(fragment);
 
         } catch (Exception e) {
             log.error("❌ Error validating Africa puzzle", e);
-            return PuzzleResult.error("ERR_VALIDATION_ERROR", "Erreur de validation");
+            return PuzzleResult.error("ERR_VALIDATION_ERROR");
         }
     }
 
     // Océanie: route la plus courte - CORRIGÉ
     public PuzzleResult validateOceania(String answer) {
         try {
-            if (ocData == null) {
+            PuzzleContent content = this.content;
+            if (content == null) {
                 log.error("❌ Oceania data not loaded");
-                return PuzzleResult.error("ERR_DATA_NOT_LOADED", "Données Océanie non chargées");
+                return PuzzleResult.error("ERR_DATA_NOT_LOADED");
             }
 
             String normalized = answer.trim().toUpperCase();
-            log.info("🔍 Oceania validation - Answer: {}", normalized);
 
             if (normalized.length() != 1 || !normalized.matches("[A-D]")) {
-                return PuzzleResult.error("E_OC_FORMAT", "Réponse attendue: une lettre (A, B, C ou D)");
+                return PuzzleResult.error("E_OC_FORMAT");
             }
 
             // En mode démo, accepter A
-            String expected = demoMode ? "A" : ocData.get("correctRoute").asText();
+            String expected = demoMode ? "A" : content.getOcCorrectRoute();
 
             if (!normalized.equals(expected)) {
-                return PuzzleResult.error("E_OC_WRONG_ROUTE", "Ce n'est pas la route la plus courte");
+                return PuzzleResult.error("E_OC_WRONG_ROUTE");
             }
 
             String fragment = "→";
-            log.info("✅ Oceania puzzle solved! Fragment: {}", fragment);
             return PuzzleResult.success(fragment);
 
         } catch (Exception e) {
             log.error("❌ Error validating Oceania puzzle", e);
-            return PuzzleResult.error("ERR_VALIDATION_ERROR", "Erreur de validation");
+            return PuzzleResult.error("ERR_VALIDATION_ERROR");
         }
     }
 
     // Antarctique: station la plus froide - CORRIGÉ
     public PuzzleResult validateAntarctica(String answer) {
         try {
-            if (anData == null) {
+            PuzzleContent content = this.content;
+            if (content == null) {
                 log.error("❌ Antarctica data not loaded");
-                return PuzzleResult.error("ERR_DATA_NOT_LOADED", "Données Antarctique non chargées");
+                return PuzzleResult.error("ERR_DATA_NOT_LOADED");
             }
 
             String normalized = answer.trim().toUpperCase();
-            log.info("🔍 Antarctica validation - Answer: {}", normalized);
 
             if (normalized.length() < 3) {
-                return PuzzleResult.error("E_AN_FORMAT", "Entrez le nom de la station");
+                return PuzzleResult.error("E_AN_FORMAT");
             }
 
             // En mode démo, accepter VOSTOK
-            String expected = demoMode ? "VOSTOK" : anData.get("expectedAnswer").asText();
+            String expected = demoMode ? "VOSTOK" : content.getAnExpectedAnswer();
 
             if (!normalized.equals(expected)) {
-                return PuzzleResult.error("E_AN_WRONG_STATION", "Ce n'est pas la station la plus froide");
+                return PuzzleResult.error("E_AN_WRONG_STATION");
             }
 
             String fragment = String.valueOf(expected.charAt(0));
-            log.info("✅ Antarctica puzzle solved! Fragment: {}", fragment);
             return PuzzleResult.success(fragment);
 
         } catch (Exception e) {
             log.error("❌ Error validating Antarctica puzzle", e);
-            return PuzzleResult.error("ERR_VALIDATION_ERROR", "Erreur de validation");
+            return PuzzleResult.error("ERR_VALIDATION_ERROR");
         }
     }
 
     // Méta: vérifier clé finale - CORRIGÉ
     public boolean validateMeta(String answer, Map<String, String> fragments) {
-        try {
-            log.info("🔍 Meta validation - Answer: {}, Fragments: {}", answer, fragments);
+        boolean valid = checkMeta(answer, fragments);
+        recordSubmission("META", valid, null);
+        return valid;
+    }
 
+    private boolean checkMeta(String answer, Map<String, String> fragments) {
+        try {
             if (demoMode) {
                 // En mode démo, accepter une clé simple
                 return answer.trim().equalsIgnoreCase("MONDE→→A");
@@ -387,9 +406,6 @@ public class PuzzleService {
             String normalized = answer.trim().toUpperCase();
             boolean valid = normalized.equals(expectedKey.toString());
 
-            log.info("🔍 Meta check - Expected: {}, Got: {}, Valid: {}",
-                    expectedKey, normalized, valid);
-
             return valid;
 
         } catch (Exception e) {
@@ -418,18 +434,21 @@ public class PuzzleService {
         }
 
         String finalCode = code.toString();
-        log.info("🔑 Generated final code for {}: {}", drawnContinents, finalCode);
         return finalCode;
     }
 
     public boolean validateFinal(String answer, List<String> drawnContinents) {
+        boolean valid = checkFinal(answer, drawnContinents);
+        recordSubmission("FINAL", valid, null);
+        return valid;
+    }
+
+    private boolean checkFinal(String answer, List<String> drawnContinents) {
         try {
             String expectedCode = generateFinalCode(drawnContinents);
             String normalized = answer.trim().toUpperCase();
 
             boolean valid = normalized.equals(expectedCode);
-            log.info("🔍 Final validation - Expected: {}, Got: {}, Valid: {}",
-                    expectedCode, normalized, valid);
 
             return valid;
         } catch (Exception e) {
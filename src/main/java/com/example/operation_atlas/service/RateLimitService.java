@@ -2,6 +2,8 @@ package com.example.operation_atlas.service;
 
 
 import com.example.operation_atlas.exception.GameException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -13,6 +15,7 @@ public class RateLimitService {
 
     private static class RateLimitEntry {
         int count;
+        long cost;
         Instant windowStart;
 
         RateLimitEntry() {
@@ -22,6 +25,17 @@ public class RateLimitService {
     }
 
     private final Map<String, RateLimitEntry> limits = new ConcurrentHashMap<>();
+    private final Counter actionRejections;
+    private final Counter chatRejections;
+    private final Counter provisionRejections;
+    private final Counter otherRejections;
+
+    public RateLimitService(MeterRegistry meterRegistry) {
+        this.actionRejections = meterRegistry.counter("atlas.ratelimit.rejections", "limit", "action");
+        this.chatRejections = meterRegistry.counter("atlas.ratelimit.rejections", "limit", "chat");
+        this.provisionRejections = meterRegistry.counter("atlas.ratelimit.rejections", "limit", "provision");
+        this.otherRejections = meterRegistry.counter("atlas.ratelimit.rejections", "limit", "other");
+    }
 
     public void checkActionLimit(String key, int maxActions, int windowSeconds) {
         Instant now = Instant.now();
@@ -36,10 +50,41 @@ public class RateLimitService {
 
         entry.count++;
         if (entry.count > maxActions) {
+            rejectionCounter(key).increment();
             throw new GameException("ERR_RATE_LIMIT", "Too many requests, please slow down");
         }
     }
 
+    // Coût proportionnel à l'action (une unité par room provisionnée) ; une demande refusée ne consomme rien
+    public void checkActionCost(String key, int cost, int maxCost, int windowSeconds) {
+        Instant now = Instant.now();
+        RateLimitEntry entry = limits.computeIfAbsent(key, k -> new RateLimitEntry());
+        synchronized (entry) {
+            if (now.isAfter(entry.windowStart.plusSeconds(windowSeconds))) {
+                entry.cost = 0;
+                entry.windowStart = now;
+            }
+            if (entry.cost + cost > maxCost) {
+                rejectionCounter(key).increment();
+                throw new GameException("ERR_RATE_LIMIT", "Too many rooms requested, please slow down");
+            }
+            entry.cost += cost;
+        }
+    }
+
+    private Counter rejectionCounter(String key) {
+        if (key.startsWith("action:")) {
+            return actionRejections;
+        }
+        if (key.startsWith("chat:")) {
+            return chatRejections;
+        }
+        if (key.startsWith("provision:")) {
+            return provisionRejections;
+        }
+        return otherRejections;
+    }
+
     public void checkChatLimit(String playerId) {
         checkActionLimit("chat:" + playerId, 8, 10);
     }
@@ -47,4 +92,9 @@ public class RateLimitService {
     public void checkGameActionLimit(String ipAddress) {
         checkActionLimit("action:" + ipAddress, 10, 60);
     }
+
+    // Provisioning d'événements : rooms créées par organisateur et par heure
+    public void checkProvisionLimit(String organizer, int rooms) {
+        checkActionCost("provision:" + organizer, rooms, 1000, 3600);
+    }
 }
\ No newline at end of file
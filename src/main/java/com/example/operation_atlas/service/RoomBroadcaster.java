@@ -0,0 +1,145 @@
+package com.example.operation_atlas.service;
+
+import com.example.operation_atlas.jfr.BroadcastEvent;
+import com.example.operation_atlas.relay.EventRelay;
+import com.example.operation_atlas.relay.RelayEnvelope;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+// Point unique de diffusion des événements de room : STOMP local, spectateurs et relais inter-noeuds
+@Service
+public class RoomBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomBroadcaster.class);
+    private static final String ROOM_TOPIC = "/topic/rooms/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SpectatorService spectatorService;
+    private final ObjectProvider<EventRelay> relayProvider;
+    private final ObjectMapper objectMapper;
+    private EventRelay relay;
+
+    private final Counter eventBroadcasts;
+    private final Counter chatBroadcasts;
+    private final Counter resultBroadcasts;
+    private final Counter spectatorDeliveries;
+    private final DistributionSummary payloadBytes;
+
+    public RoomBroadcaster(SimpMessagingTemplate messagingTemplate,
+                           SpectatorService spectatorService,
+                           ObjectProvider<EventRelay> relayProvider,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.spectatorService = spectatorService;
+        this.relayProvider = relayProvider;
+        this.objectMapper = objectMapper;
+
+        this.eventBroadcasts = meterRegistry.counter("atlas.broadcasts", "topic", "events");
+        this.chatBroadcasts = meterRegistry.counter("atlas.broadcasts", "topic", "chat");
+        this.resultBroadcasts = meterRegistry.counter("atlas.broadcasts", "topic", "results");
+        this.spectatorDeliveries = meterRegistry.counter("atlas.broadcast.spectator.deliveries");
+        this.payloadBytes = DistributionSummary.builder("atlas.broadcast.payload")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("atlas.spectators", spectatorService, SpectatorService::totalCount).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startRelay() {
+        relay = relayProvider.getIfAvailable();
+        if (relay != null) {
+            relay.start(this::deliverRelayed);
+        }
+    }
+
+    public void toRoom(String roomId, Object payload) {
+        send(roomId, ROOM_TOPIC + roomId, payload, true, eventBroadcasts);
+    }
+
+    public void toRoomChat(String roomId, Object payload) {
+        send(roomId, ROOM_TOPIC + roomId + "/chat", payload, false, chatBroadcasts);
+    }
+
+    public void toRoomResults(String roomId, Object payload) {
+        send(roomId, ROOM_TOPIC + roomId + "/results", payload, false, resultBroadcasts);
+    }
+
+    public void closeRoom(String roomId) {
+        spectatorService.closeRoom(roomId);
+        if (relay != null) {
+            relay.forgetRoom(roomId);
+        }
+    }
+
+    // JSON encodé une seule fois et partagé par les abonnés STOMP, les spectateurs et le relais
+    private void send(String roomId, String destination, Object payload, boolean spectators, Counter broadcasts) {
+        BroadcastEvent jfrEvent = new BroadcastEvent();
+        jfrEvent.begin();
+        byte[] encoded;
+        try {
+            encoded = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to encode event for {}", destination, e);
+            return;
+        }
+
+        sendEncoded(destination, encoded);
+        broadcasts.increment();
+        payloadBytes.record(encoded.length);
+        int delivered = 0;
+        if (spectators) {
+            delivered = spectatorService.publishEncoded(roomId, encoded);
+            spectatorDeliveries.increment(delivered);
+        }
+        if (relay != null) {
+            relay.publish(roomId, destination, encoded);
+        }
+        commit(jfrEvent, roomId, destination, encoded.length, delivered, false);
+    }
+
+    private void deliverRelayed(RelayEnvelope envelope) {
+        BroadcastEvent jfrEvent = new BroadcastEvent();
+        jfrEvent.begin();
+        sendEncoded(envelope.getDestination(), envelope.getPayload());
+        int delivered = 0;
+        if (envelope.getDestination().equals(ROOM_TOPIC + envelope.getRoomId())) {
+            delivered = spectatorService.publishEncoded(envelope.getRoomId(), envelope.getPayload());
+            spectatorDeliveries.increment(delivered);
+        }
+        commit(jfrEvent, envelope.getRoomId(), envelope.getDestination(), envelope.getPayload().length,
+                delivered, true);
+    }
+
+    private void commit(BroadcastEvent jfrEvent, String roomId, String destination, int bytes, int spectators,
+                        boolean relayed) {
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.roomId = roomId;
+            jfrEvent.destination = destination;
+            jfrEvent.payloadBytes = bytes;
+            jfrEvent.spectators = spectators;
+            jfrEvent.relayed = relayed;
+            jfrEvent.commit();
+        }
+    }
+
+    private void sendEncoded(String destination, byte[] encoded) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(encoded, accessor.getMessageHeaders()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.example.operation_atlas.service;
+
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.model.RoomState;
+
+// État suivant d'une room pendant une commande (ou un batch), sous synchronized(room) : les modifications
+// s'accumulent ici et GameService les publie en une seule écriture (GameRoom.publish). Un lecteur sans
+// verrou voit l'état d'avant ou celui d'après, jamais une commande à moitié appliquée.
+final class RoomDraft {
+
+    private final GameRoom room;
+    private final RoomState base;
+    private RoomState state;
+    private boolean changed;
+
+    RoomDraft(GameRoom room) {
+        this.room = room;
+        this.base = room.getState();
+        this.state = base;
+    }
+
+    GameRoom room() {
+        return room;
+    }
+
+    RoomState state() {
+        return state;
+    }
+
+    // Modification hors version (timer)
+    void set(RoomState next) {
+        state = next;
+    }
+
+    // Modification du contenu versionné : une seule version de plus à la publication, quel que soit
+    // le nombre de modifications
+    void change(RoomState next) {
+        state = next;
+        changed = true;
+    }
+
+    // Abandonne tout ce qui a été accumulé depuis la création
+    void rollback() {
+        state = base;
+        changed = false;
+    }
+
+    // État à publier, null si rien n'a changé
+    RoomState result() {
+        if (changed) {
+            return state.nextVersion();
+        }
+        return state != base ? state : null;
+    }
+}
\ No newline at end of file
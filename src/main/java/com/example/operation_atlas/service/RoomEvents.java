@@ -0,0 +1,72 @@
+package com.example.operation_atlas.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Événements produits par une ou plusieurs commandes sur une room, diffusés en une fois (un seul snapshot)
+final class RoomEvents {
+
+    private final List<Object> events = new ArrayList<>(4);
+    private final List<Object> chat = new ArrayList<>(0);
+    private final List<Runnable> afterPublish = new ArrayList<>(0);
+    private boolean snapshot;
+    private String failure;
+
+    void add(Object event) {
+        events.add(event);
+    }
+
+    void addChat(Object message) {
+        chat.add(message);
+    }
+
+    void snapshot() {
+        snapshot = true;
+    }
+
+    // Effet hors room (compteurs, analytics, classement) à n'appliquer que si l'état est publié
+    void afterPublish(Runnable action) {
+        afterPublish.add(action);
+    }
+
+    // Reprend ce qu'une commande du batch a produit, à la suite
+    void addAll(RoomEvents other) {
+        events.addAll(other.events);
+        chat.addAll(other.chat);
+        afterPublish.addAll(other.afterPublish);
+        snapshot |= other.snapshot;
+    }
+
+    // Code d'erreur tracé pour une commande terminée normalement mais en échec (batch annulé)
+    void fail(String errorCode) {
+        failure = errorCode;
+    }
+
+    String getFailure() {
+        return failure;
+    }
+
+    // Oublie tout ce qui a été produit (batch annulé)
+    void clear() {
+        events.clear();
+        chat.clear();
+        afterPublish.clear();
+        snapshot = false;
+    }
+
+    List<Runnable> getAfterPublish() {
+        return afterPublish;
+    }
+
+    List<Object> getEvents() {
+        return events;
+    }
+
+    List<Object> getChat() {
+        return chat;
+    }
+
+    boolean needsSnapshot() {
+        return snapshot;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.example.operation_atlas.service;
+
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.model.GameStage;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+// Rooms locales indexées par id, par code, par étape et par minute de dernière activité.
+// update() est appelé sous le verrou de la room après chaque mutation ; les jobs de fond ne parcourent
+// que l'index dont ils ont besoin. Le TTL étant le même pour toutes les rooms, les buckets d'activité
+// servent aussi d'index d'expiration : pollExpired() dépile les minutes échues une à une.
+// Les rooms provisionnées pour un événement et pas encore démarrées sont tenues hors de cet index : elles
+// vivent aussi longtemps que leur événement (voir GameService.cleanupRooms).
+final class RoomRegistry {
+
+    private static final long BUCKET_MILLIS = 60_000L;
+    private static final long HELD = -1;
+
+    private static final class Entry {
+        final GameRoom room;
+        GameStage stage;
+        long bucket;
+        boolean removed;
+
+        Entry(GameRoom room) {
+            this.room = room;
+        }
+    }
+
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<GameStage, Set<GameRoom>> byStage = new EnumMap<>(GameStage.class);
+    // Peu de clés vivantes (TTL en minutes), d'où une simple map plutôt qu'une structure triée
+    private final Map<Long, Set<GameRoom>> byActivity = new ConcurrentHashMap<>();
+    private final Set<GameRoom> held = ConcurrentHashMap.newKeySet();
+    // Premier bucket pas encore dépilé ; aucune room n'est indexée en dessous
+    private volatile long sweptBucket = bucket(System.currentTimeMillis());
+
+    // Résolution des codes et recyclage : la table du JoinCodeAllocator remplace l'index par code
+    private final JoinCodeAllocator joinCodes;
+
+    RoomRegistry(JoinCodeAllocator joinCodes) {
+        this.joinCodes = joinCodes;
+        for (GameStage stage : GameStage.values()) {
+            byStage.put(stage, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    String allocateJoinCode(Predicate<String> accept) {
+        return joinCodes.allocate(accept);
+    }
+
+    void add(GameRoom room) {
+        Entry entry = new Entry(room);
+        synchronized (room) {
+            entry.stage = room.getStage();
+            entry.bucket = activityBucket(room);
+            byStage.get(entry.stage).add(room);
+            index(entry.bucket, room);
+        }
+        byId.put(room.getId(), entry);
+        joinCodes.bind(room.getJoinCode(), room);
+    }
+
+    GameRoom get(String roomId) {
+        Entry entry = byId.get(roomId);
+        return entry == null ? null : entry.room;
+    }
+
+    GameRoom getByJoinCode(String joinCode) {
+        return joinCodes.resolve(joinCode);
+    }
+
+    GameRoom remove(String roomId) {
+        Entry entry = byId.remove(roomId);
+        if (entry == null) {
+            return null;
+        }
+        GameRoom room = entry.room;
+        synchronized (room) {
+            entry.removed = true;
+            byStage.get(entry.stage).remove(room);
+            unindex(entry.bucket, room);
+        }
+        joinCodes.release(room.getJoinCode(), room);
+        return room;
+    }
+
+    // Réindexe la room après une mutation (sous son verrou)
+    void update(GameRoom room) {
+        Entry entry = byId.get(room.getId());
+        if (entry == null || entry.room != room || entry.removed) {
+            return;
+        }
+        GameStage stage = room.getStage();
+        if (stage != entry.stage) {
+            byStage.get(stage).add(room);
+            byStage.get(entry.stage).remove(room);
+            entry.stage = stage;
+        }
+        long bucket = activityBucket(room);
+        if (bucket != entry.bucket) {
+            index(bucket, room);
+            unindex(entry.bucket, room);
+            entry.bucket = bucket;
+        }
+    }
+
+    // Vue vivante : une room peut changer d'étape pendant le parcours, revérifier sous le verrou
+    Collection<GameRoom> inStage(GameStage stage) {
+        return byStage.get(stage);
+    }
+
+    int count(GameStage stage) {
+        return byStage.get(stage).size();
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    // Rooms dont la dernière activité est antérieure à 'threshold' : les buckets entièrement échus sont
+    // retirés de l'index, celui du seuil est filtré. Un seul appelant à la fois (job de cleanup).
+    List<GameRoom> pollExpired(long threshold) {
+        long limit = bucket(threshold);
+        List<GameRoom> expired = new ArrayList<>();
+        for (long bucket = sweptBucket; bucket < limit; bucket++) {
+            Set<GameRoom> rooms = byActivity.remove(bucket);
+            if (rooms != null) {
+                expired.addAll(rooms);
+            }
+        }
+        if (limit > sweptBucket) {
+            sweptBucket = limit;
+        }
+        Set<GameRoom> boundary = byActivity.get(limit);
+        if (boundary != null) {
+            for (GameRoom room : boundary) {
+                if (room.getLastActivityMillis() < threshold) {
+                    expired.add(room);
+                }
+            }
+        }
+        return expired;
+    }
+
+    // Rooms d'événement pas encore démarrées, inactives depuis avant 'threshold' : parcours complet, il y en a
+    // peu et elles ne sont dans aucun bucket
+    List<GameRoom> heldIdleBefore(long threshold) {
+        List<GameRoom> idle = new ArrayList<>();
+        for (GameRoom room : held) {
+            if (room.getLastActivityMillis() < threshold) {
+                idle.add(room);
+            }
+        }
+        return idle;
+    }
+
+    // Rooms actives depuis la minute de 'millis' (incluse)
+    List<GameRoom> activeSince(long millis) {
+        long limit = bucket(millis);
+        List<GameRoom> result = new ArrayList<>();
+        byActivity.forEach((bucket, rooms) -> {
+            if (bucket >= limit) {
+                result.addAll(rooms);
+            }
+        });
+        for (GameRoom room : held) {
+            if (bucket(room.getLastActivityMillis()) >= limit) {
+                result.add(room);
+            }
+        }
+        return result;
+    }
+
+    private void index(long bucket, GameRoom room) {
+        if (bucket == HELD) {
+            held.add(room);
+        } else {
+            addToBucket(bucket, room);
+        }
+    }
+
+    private void unindex(long bucket, GameRoom room) {
+        if (bucket == HELD) {
+            held.remove(room);
+        } else {
+            removeFromBucket(bucket, room);
+        }
+    }
+
+    private void addToBucket(long bucket, GameRoom room) {
+        byActivity.compute(bucket, (key, rooms) -> {
+            Set<GameRoom> set = rooms != null ? rooms : ConcurrentHashMap.newKeySet();
+            set.add(room);
+            return set;
+        });
+    }
+
+    private void removeFromBucket(long bucket, GameRoom room) {
+        byActivity.computeIfPresent(bucket, (key, rooms) -> {
+            rooms.remove(room);
+            return rooms.isEmpty() ? null : rooms;
+        });
+    }
+
+    // Une activité antérieure au dernier bucket dépilé (room restaurée) est rangée dans ce bucket ;
+    // HELD pour une room d'événement pas encore démarrée
+    private long activityBucket(GameRoom room) {
+        if (isHeld(room)) {
+            return HELD;
+        }
+        return Math.max(bucket(room.getLastActivityMillis()), sweptBucket);
+    }
+
+    static boolean isHeld(GameRoom room) {
+        return room.getEventId() != null && room.getStage() == GameStage.BRIEF;
+    }
+
+    private static long bucket(long millis) {
+        return millis / BUCKET_MILLIS;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.example.operation_atlas.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+@Service
+public class ShardRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRouter.class);
+    private static final int VIRTUAL_NODES = 128;
+
+    @Value("${atlas.cluster.nodes:}")
+    private String clusterNodes;
+
+    @Value("${atlas.cluster.self:}")
+    private String self;
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private List<String> nodes = List.of();
+
+    @PostConstruct
+    public void buildRing() {
+        List<String> parsed = new ArrayList<>();
+        for (String node : clusterNodes.split(",")) {
+            String trimmed = normalize(node);
+            if (!trimmed.isEmpty() && !parsed.contains(trimmed)) {
+                parsed.add(trimmed);
+            }
+        }
+        self = normalize(self);
+
+        if (parsed.size() <= 1) {
+            log.info("Cluster disabled, node {} owns every room", self);
+            return;
+        }
+        if (!parsed.contains(self)) {
+            throw new IllegalStateException("atlas.cluster.self (" + self + ") is not listed in atlas.cluster.nodes");
+        }
+
+        nodes = List.copyOf(parsed);
+        for (String node : nodes) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+        log.info("Cluster ring built with {} nodes, self = {}", nodes.size(), self);
+    }
+
+    public boolean isClustered() {
+        return !ring.isEmpty();
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public List<String> getNodes() {
+        return nodes.isEmpty() ? List.of(self) : nodes;
+    }
+
+    // Noeud propriétaire d'une clé (roomId ou joinCode) sur l'anneau
+    public String ownerOf(String key) {
+        if (ring.isEmpty()) {
+            return self;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public boolean isLocal(String key) {
+        return ring.isEmpty() || self.equals(ownerOf(key));
+    }
+
+    private static String normalize(String node) {
+        String trimmed = node == null ? "" : node.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    // FNV-1a 64 bits + finaliseur de mélange
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
\ No newline at end of file
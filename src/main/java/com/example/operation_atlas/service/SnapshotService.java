@@ -1,13 +1,20 @@
 package com.example.operation_atlas.service;
 
+import com.example.operation_atlas.eventlog.EventLogger;
+import com.example.operation_atlas.eventlog.LogCategory;
+import com.example.operation_atlas.jfr.SnapshotWriteEvent;
 import com.example.operation_atlas.model.GameRoom;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
@@ -15,7 +22,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 @Service
 public class SnapshotService {
@@ -23,9 +36,22 @@ public class SnapshotService {
     private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
     private final ObjectMapper objectMapper;
     private final Path saveDirectory;
+    private final Timer writeTimer;
+    private final Counter writeFailures;
+    private final EventLogger eventLogger;
+    private final Executor writeExecutor;
 
-    public SnapshotService(@Value("${atlas.save.dir}") String saveDir) {
+    public SnapshotService(@Value("${atlas.save.dir}") String saveDir, MeterRegistry meterRegistry,
+                           EventLogger eventLogger, @Qualifier("snapshotWriteExecutor") Executor writeExecutor) {
         this.saveDirectory = Paths.get(saveDir);
+        this.eventLogger = eventLogger;
+        this.writeExecutor = writeExecutor;
+        this.writeTimer = Timer.builder("atlas.snapshot.write")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(meterRegistry);
+        this.writeFailures = meterRegistry.counter("atlas.snapshot.write.failures");
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
         this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -37,16 +63,53 @@ public class SnapshotService {
         }
     }
 
-    public void saveRoom(GameRoom room) {
+    // Sérialisation et écriture dans un fichier temporaire hors verrou ; seul le renommage se fait sous le
+    // verrou de la room, et uniquement si elle est encore vivante : le cleanup supprime le fichier sous ce
+    // même verrou, une écriture en vol ne peut donc pas le recréer.
+    public void saveRoom(GameRoom room, Predicate<GameRoom> live) {
+        SnapshotWriteEvent jfrEvent = new SnapshotWriteEvent();
+        jfrEvent.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        Path file = saveDirectory.resolve(room.getId() + ".json");
+        Path temp = saveDirectory.resolve(room.getId() + ".json.tmp");
         try {
-            File file = saveDirectory.resolve(room.getId() + ".json").toFile();
-            objectMapper.writeValue(file, room);
-            log.info("Saved room {} to disk", room.getId());
+            Files.write(temp, objectMapper.writeValueAsBytes(room.getState()));
+            synchronized (room) {
+                if (live.test(room)) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    success = true;
+                } else {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (success) {
+                eventLogger.log(LogCategory.SNAPSHOT, Level.DEBUG, "snapshot.saved", "room", room.getId());
+            }
         } catch (IOException e) {
+            writeFailures.increment();
             log.error("Failed to save room {}", room.getId(), e);
+        } finally {
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.roomId = room.getId();
+                jfrEvent.success = success;
+                jfrEvent.commit();
+            }
         }
     }
 
+    // Sauvegarde un lot de rooms via l'executor d'écriture (séquentiel, ou virtual threads) et attend la fin
+    public int saveRooms(Collection<GameRoom> rooms, Predicate<GameRoom> live) {
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[rooms.size()];
+        int i = 0;
+        for (GameRoom room : rooms) {
+            writes[i++] = CompletableFuture.runAsync(() -> saveRoom(room, live), writeExecutor);
+        }
+        CompletableFuture.allOf(writes).join();
+        return writes.length;
+    }
+
     public GameRoom loadRoom(String roomId) {
         try {
             File file = saveDirectory.resolve(roomId + ".json").toFile();
@@ -59,8 +122,12 @@ public class SnapshotService {
         return null;
     }
 
-    @Scheduled(fixedRate = 10000) // Toutes les 10 secondes
-    public void snapshotAllRooms() {
-        // Appelé par GameService pour sauvegarder toutes les rooms actives
+    // À appeler sous le verrou de la room, après son retrait du registre
+    public void deleteRoom(String roomId) {
+        try {
+            Files.deleteIfExists(saveDirectory.resolve(roomId + ".json"));
+        } catch (IOException e) {
+            log.error("Failed to delete room {}", roomId, e);
+        }
     }
 }
\ No newline at end of file
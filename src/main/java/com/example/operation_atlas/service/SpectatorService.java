@@ -0,0 +1,136 @@
+package com.example.operation_atlas.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+@Service
+public class SpectatorService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpectatorService.class);
+
+    private final Map<String, Set<WebSocketSession>> spectators = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final ObjectMapper objectMapper;
+
+    @Value("${atlas.spectator.max-per-room:500}")
+    private int maxPerRoom;
+
+    @Value("${atlas.spectator.max-total:5000}")
+    private int maxTotal;
+
+    public SpectatorService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // live est relu après l'ajout : si closeRoom est passé entre la lecture de la room et l'ajout, la room
+    // n'est déjà plus enregistrée (GameService la retire avant de fermer ses spectateurs) et l'entrée est défaite
+    public boolean tryAdd(String roomId, WebSocketSession session, BooleanSupplier live) {
+        if (total.incrementAndGet() > maxTotal) {
+            total.decrementAndGet();
+            return false;
+        }
+
+        boolean[] added = {false};
+        spectators.compute(roomId, (id, sessions) -> {
+            if (sessions == null) {
+                sessions = ConcurrentHashMap.newKeySet();
+            }
+            if (sessions.size() < maxPerRoom) {
+                added[0] = sessions.add(session);
+            }
+            return sessions;
+        });
+
+        if (!added[0]) {
+            total.decrementAndGet();
+            return false;
+        }
+        if (!live.getAsBoolean()) {
+            remove(roomId, session);
+            return false;
+        }
+        return true;
+    }
+
+    public void remove(String roomId, WebSocketSession session) {
+        spectators.computeIfPresent(roomId, (id, sessions) -> {
+            if (sessions.remove(session)) {
+                total.decrementAndGet();
+            }
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    public int count(String roomId) {
+        Set<WebSocketSession> sessions = spectators.get(roomId);
+        return sessions == null ? 0 : sessions.size();
+    }
+
+    public int totalCount() {
+        return total.get();
+    }
+
+    public int getMaxPerRoom() {
+        return maxPerRoom;
+    }
+
+    public void sendTo(WebSocketSession session, Object payload) throws IOException {
+        session.sendMessage(new BinaryMessage(objectMapper.writeValueAsBytes(payload)));
+    }
+
+    // Les mêmes octets (déjà encodés une fois) sont écrits à chaque spectateur
+    // Retourne le nombre de spectateurs effectivement servis
+    public int publishEncoded(String roomId, byte[] encoded) {
+        Set<WebSocketSession> sessions = spectators.get(roomId);
+        if (sessions == null || sessions.isEmpty()) {
+            return 0;
+        }
+
+        ByteBuffer frame = ByteBuffer.wrap(encoded).asReadOnlyBuffer();
+        int delivered = 0;
+        for (WebSocketSession session : sessions) {
+            try {
+                session.sendMessage(new BinaryMessage(frame.duplicate()));
+                delivered++;
+            } catch (Exception e) {
+                // Spectateur trop lent ou déconnecté : on le retire
+                remove(roomId, session);
+                closeQuietly(session, CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        }
+        return delivered;
+    }
+
+    public void closeRoom(String roomId) {
+        Set<WebSocketSession> sessions = spectators.remove(roomId);
+        if (sessions == null) {
+            return;
+        }
+        total.addAndGet(-sessions.size());
+        for (WebSocketSession session : sessions) {
+            closeQuietly(session, CloseStatus.GOING_AWAY);
+        }
+    }
+
+    private void closeQuietly(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Failed to close spectator session {}", session.getId(), e);
+        }
+    }
+}
\ No newline at end of file
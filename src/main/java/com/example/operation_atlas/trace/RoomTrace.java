@@ -0,0 +1,112 @@
+package com.example.operation_atlas.trace;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Anneau des N dernières commandes/événements d'une room.
+// Écriture sans verrou ni formatage : on ne stocke que des références (constantes, codes d'erreur, ids)
+// et des primitives ; la mise en forme n'a lieu qu'à la lecture, sur l'endpoint d'admin.
+public final class RoomTrace {
+
+    public static final byte COMMAND = 1;
+    public static final byte EVENT = 2;
+
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+
+    // Numéro de séquence publié par slot (-1 pendant l'écriture) : le lecteur ignore les slots déchirés
+    private final AtomicLongArray published;
+    private final long[] timestamps;
+    private final long[] versions;
+    private final byte[] kinds;
+    private final String[] names;
+    private final String[] playerIds;
+    private final String[] details;
+    private final String[] outcomes;
+
+    public RoomTrace(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        this.timestamps = new long[size];
+        this.versions = new long[size];
+        this.kinds = new byte[size];
+        this.names = new String[size];
+        this.playerIds = new String[size];
+        this.details = new String[size];
+        this.outcomes = new String[size];
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public void record(byte kind, String name, String playerId, String detail,
+                       int versionBefore, int versionAfter, String outcome) {
+        long seq = cursor.getAndIncrement();
+        int slot = (int) (seq & mask);
+
+        published.set(slot, -1);
+        // Seqlock : l'invalidation doit être visible avant toute écriture du contenu, sinon un lecteur
+        // pourrait voir le nouveau contenu avec l'ancien numéro de séquence
+        VarHandle.storeStoreFence();
+        timestamps[slot] = System.currentTimeMillis();
+        versions[slot] = ((long) versionBefore << 32) | (versionAfter & 0xFFFFFFFFL);
+        kinds[slot] = kind;
+        names[slot] = name;
+        playerIds[slot] = playerId;
+        details[slot] = detail;
+        outcomes[slot] = outcome;
+        published.setRelease(slot, seq);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long recorded() {
+        return cursor.get();
+    }
+
+    // Du plus ancien au plus récent
+    public List<Map<String, Object>> entries() {
+        long end = cursor.get();
+        long start = Math.max(0, end - capacity());
+        List<Map<String, Object>> entries = new ArrayList<>((int) (end - start));
+
+        for (long seq = start; seq < end; seq++) {
+            int slot = (int) (seq & mask);
+            if (published.getAcquire(slot) != seq) {
+                continue;
+            }
+            long timestamp = timestamps[slot];
+            long version = versions[slot];
+            byte kind = kinds[slot];
+            String name = names[slot];
+            String playerId = playerIds[slot];
+            String detail = details[slot];
+            String outcome = outcomes[slot];
+            VarHandle.acquireFence();
+            if (published.get(slot) != seq) {
+                continue;
+            }
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("seq", seq);
+            entry.put("timestamp", timestamp);
+            entry.put("kind", kind == COMMAND ? "COMMAND" : "EVENT");
+            entry.put("name", name);
+            entry.put("playerId", playerId);
+            entry.put("detail", detail);
+            entry.put("versionBefore", (int) (version >>> 32));
+            entry.put("versionAfter", (int) version);
+            entry.put("outcome", outcome);
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
\ No newline at end of file
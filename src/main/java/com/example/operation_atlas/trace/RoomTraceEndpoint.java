@@ -0,0 +1,45 @@
+package com.example.operation_atlas.trace;
+
+import com.example.operation_atlas.exception.GameException;
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.service.GameService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// /actuator/roomtrace/{roomId} : dernières commandes et événements d'une room (support)
+@Component
+@Endpoint(id = "roomtrace")
+public class RoomTraceEndpoint {
+
+    private final GameService gameService;
+
+    public RoomTraceEndpoint(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> trace(@Selector String roomId) {
+        GameRoom room;
+        try {
+            room = gameService.getRoom(roomId);
+        } catch (GameException e) {
+            return null;
+        }
+
+        RoomTrace trace = room.getTrace();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("roomId", roomId);
+        response.put("stage", room.getStage());
+        response.put("version", room.getVersion());
+        response.put("capacity", trace == null ? 0 : trace.capacity());
+        response.put("recorded", trace == null ? 0 : trace.recorded());
+        response.put("entries", trace == null ? List.of() : trace.entries());
+        return response;
+    }
+}
\ No newline at end of file
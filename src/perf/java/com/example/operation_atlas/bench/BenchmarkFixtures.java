@@ -0,0 +1,122 @@
+package com.example.operation_atlas.bench;
+
+import com.example.operation_atlas.analytics.PuzzleAnalytics;
+import com.example.operation_atlas.content.ContentCatalog;
+import com.example.operation_atlas.eventlog.EventLogger;
+import com.example.operation_atlas.leaderboard.LeaderboardService;
+import com.example.operation_atlas.relay.EventRelay;
+import com.example.operation_atlas.service.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+// Câblage manuel des services (sans contexte Spring) pour les benchmarks
+public final class BenchmarkFixtures {
+
+    // Bonnes réponses du contenu livré dans src/main/resources/content
+    public static final Map<String, String> ANSWERS = Map.of(
+            "EUROPE", "MONDE",
+            "ASIA", "03:00",
+            "AMERICAS", "0005",
+            "AFRICA", "1234",
+            "OCEANIA", "D",
+            "ANTARCTICA", "VOSTOK"
+    );
+
+    public static final MessageChannel NO_OP_CHANNEL = (message, timeout) -> true;
+
+    private BenchmarkFixtures() {}
+
+    // Registre en mémoire : le coût d'enregistrement des métriques fait partie de la mesure
+    public static MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    // Niveaux et échantillonnage par défaut ; les loggers atlas.event.* héritent du WARN de logback-test.xml
+    public static EventLogger eventLogger(MeterRegistry meterRegistry) {
+        return new EventLogger(new MockEnvironment(), meterRegistry);
+    }
+
+    public static ObjectMapper objectMapper() {
+        return new ObjectMapper().findAndRegisterModules();
+    }
+
+    public static PuzzleService puzzleService(ObjectMapper objectMapper) {
+        MeterRegistry meterRegistry = meterRegistry();
+        PuzzleService puzzleService = new PuzzleService(objectMapper, new DefaultResourceLoader(), meterRegistry,
+                eventLogger(meterRegistry));
+        puzzleService.loadData();
+        return puzzleService;
+    }
+
+    public static ContentCatalog contentCatalog() {
+        ContentCatalog contentCatalog = new ContentCatalog(new DefaultResourceLoader(), meterRegistry());
+        ReflectionTestUtils.setField(contentCatalog, "supportedLocales", "fr,en");
+        ReflectionTestUtils.setField(contentCatalog, "defaultLocale", "fr");
+        ReflectionTestUtils.setField(contentCatalog, "cacheSize", 2);
+        contentCatalog.init();
+        return contentCatalog;
+    }
+
+    // Clé tirée au hasard, comme sans atlas.joincode.key
+    public static JoinCodeAllocator joinCodeAllocator(long quarantineSeconds) {
+        JoinCodeAllocator allocator = new JoinCodeAllocator();
+        ReflectionTestUtils.setField(allocator, "quarantineSeconds", quarantineSeconds);
+        allocator.init();
+        return allocator;
+    }
+
+    public static GameService gameService() {
+        ObjectMapper objectMapper = objectMapper();
+        MeterRegistry meterRegistry = meterRegistry();
+        EventLogger eventLogger = eventLogger(meterRegistry);
+
+        ShardRouter shardRouter = new ShardRouter();
+        ReflectionTestUtils.setField(shardRouter, "clusterNodes", "");
+        ReflectionTestUtils.setField(shardRouter, "self", "http://localhost");
+        shardRouter.buildRing();
+
+        SpectatorService spectatorService = new SpectatorService(objectMapper);
+        RoomBroadcaster broadcaster = new RoomBroadcaster(new SimpMessagingTemplate(NO_OP_CHANNEL), spectatorService,
+                new StaticListableBeanFactory().getBeanProvider(EventRelay.class), objectMapper, meterRegistry);
+        broadcaster.startRelay();
+
+        IdempotencyService idempotencyService = new IdempotencyService();
+        ReflectionTestUtils.setField(idempotencyService, "maxKeysPerRoom", 64);
+        ReflectionTestUtils.setField(idempotencyService, "ttlSeconds", 600L);
+
+        Path saveDir;
+        try {
+            saveDir = Files.createTempDirectory("atlas-bench");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        SnapshotService snapshotService = new SnapshotService(saveDir.toString(), meterRegistry, eventLogger,
+                Runnable::run);
+
+        LeaderboardService leaderboardService = new LeaderboardService(meterRegistry, eventLogger);
+        ReflectionTestUtils.setField(leaderboardService, "saveDir", saveDir.toString());
+        ReflectionTestUtils.setField(leaderboardService, "topK", 1000);
+        leaderboardService.load();
+
+        PuzzleAnalytics puzzleAnalytics = new PuzzleAnalytics();
+        ReflectionTestUtils.setField(puzzleAnalytics, "saveDir", saveDir.toString());
+
+        GameService gameService = new GameService(puzzleService(objectMapper), snapshotService, broadcaster,
+                shardRouter, idempotencyService, joinCodeAllocator(0), leaderboardService, puzzleAnalytics,
+                contentCatalog(), meterRegistry, eventLogger);
+        ReflectionTestUtils.setField(gameService, "roomTtlMinutes", 30);
+        return gameService;
+    }
+}
\ No newline at end of file
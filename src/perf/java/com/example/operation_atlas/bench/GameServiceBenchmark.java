@@ -0,0 +1,68 @@
+package com.example.operation_atlas.bench;
+
+import com.example.operation_atlas.model.Continent;
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.model.GameStage;
+import com.example.operation_atlas.model.Player;
+import com.example.operation_atlas.service.GameService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// submitPuzzle de bout en bout (verrou, validation, événements, snapshot) pour chaque continent
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameServiceBenchmark {
+
+    @Param({"EUROPE", "ASIA", "AMERICAS", "AFRICA", "OCEANIA", "ANTARCTICA"})
+    public String continent;
+
+    private GameService gameService;
+    private GameRoom room;
+    private Continent drawn;
+    private String answer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameService = BenchmarkFixtures.gameService();
+        room = gameService.createRoom("bench");
+        room.addPlayer(new Player("p2", "bench2"));
+
+        List<String> draw = new ArrayList<>(List.of(continent));
+        room.setDraw(draw);
+        room.initializePuzzlesForDraw();
+        room.setTimerSec(Integer.MAX_VALUE);
+        room.setStage(GameStage.PLAY);
+
+        drawn = Continent.fromName(continent);
+        answer = BenchmarkFixtures.ANSWERS.get(continent);
+    }
+
+    // Remet le puzzle à l'état non résolu avant chaque soumission correcte
+    @Setup(Level.Invocation)
+    public void resetPuzzle() {
+        room.setSolved(drawn, false);
+        if (room.getStage() != GameStage.PLAY) {
+            room.setStage(GameStage.PLAY);
+        }
+    }
+
+    @Benchmark
+    public GameRoom submitCorrect() {
+        gameService.submitPuzzle(room.getId(), continent, answer, "p1");
+        return room;
+    }
+
+    // Mauvaise réponse : PUZZLE_RESULT en échec, sans snapshot
+    @Benchmark
+    public GameRoom submitWrong() {
+        gameService.submitPuzzle(room.getId(), continent, "0000", "p1");
+        return room;
+    }
+}
\ No newline at end of file
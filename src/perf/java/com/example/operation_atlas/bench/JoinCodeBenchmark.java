@@ -0,0 +1,112 @@
+package com.example.operation_atlas.bench;
+
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.service.JoinCodeAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Allocation, résolution et recyclage des codes de room, comparés à l'ancienne map code -> room
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class JoinCodeBenchmark {
+
+    // Rooms vivantes pendant les mesures de résolution et de recyclage
+    @Param({"1000000"})
+    public int rooms;
+
+    private static final int DISTINCT_ROOMS = 1024;
+
+    private final GameRoom[] roomPool = new GameRoom[DISTINCT_ROOMS];
+    private JoinCodeAllocator allocator;
+    private JoinCodeAllocator churnAllocator;
+    private String[] codes;
+    // Codes tels qu'ils arrivent d'une requête : chaîne neuve, hash pas encore calculé
+    private char[][] requested;
+    private final Map<String, GameRoom> byCode = new ConcurrentHashMap<>();
+    private final ArrayDeque<String> live = new ArrayDeque<>();
+    private int allocated;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < DISTINCT_ROOMS; i++) {
+            roomPool[i] = new GameRoom("room-" + i, "");
+        }
+        allocator = BenchmarkFixtures.joinCodeAllocator(0);
+        codes = new String[rooms];
+        Set<String> unique = new HashSet<>(rooms * 2);
+        for (int i = 0; i < rooms; i++) {
+            String code = allocator.allocate(c -> true);
+            if (!unique.add(code)) {
+                throw new IllegalStateException("Duplicate join code " + code + " after " + i + " allocations");
+            }
+            GameRoom room = roomPool[i & (DISTINCT_ROOMS - 1)];
+            allocator.bind(code, room);
+            byCode.put(code, room);
+            codes[i] = code;
+        }
+        requested = new char[rooms][];
+        for (int i = 0; i < rooms; i++) {
+            requested[i] = codes[i].toCharArray();
+            if (allocator.resolve(codes[i]) != roomPool[i & (DISTINCT_ROOMS - 1)]) {
+                throw new IllegalStateException("Join code " + codes[i] + " does not resolve to its room");
+            }
+        }
+
+        churnAllocator = BenchmarkFixtures.joinCodeAllocator(0);
+        for (int i = 0; i < rooms; i++) {
+            String code = churnAllocator.allocate(c -> true);
+            churnAllocator.bind(code, roomPool[i & (DISTINCT_ROOMS - 1)]);
+            live.addLast(code);
+        }
+    }
+
+    // Allocateur neuf à chaque itération : millions d'allocations par itération, compteur jamais recyclé
+    @State(Scope.Benchmark)
+    public static class Fresh {
+        JoinCodeAllocator allocator;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            allocator = BenchmarkFixtures.joinCodeAllocator(600);
+        }
+    }
+
+    @Benchmark
+    public String allocate(Fresh fresh) {
+        String code = fresh.allocator.allocate(c -> true);
+        fresh.allocator.bind(code, roomPool[0]);
+        return code;
+    }
+
+    @Benchmark
+    public GameRoom resolve() {
+        return allocator.resolve(new String(requested[ThreadLocalRandom.current().nextInt(rooms)]));
+    }
+
+    @Benchmark
+    public GameRoom resolveStringMap() {
+        return byCode.get(new String(requested[ThreadLocalRandom.current().nextInt(rooms)]));
+    }
+
+    // Régime permanent : la room la plus ancienne expire, une nouvelle reprend un code sorti de quarantaine
+    @Benchmark
+    public String churn() {
+        String expired = live.pollFirst();
+        churnAllocator.release(expired, churnAllocator.resolve(expired));
+        String code = churnAllocator.allocate(c -> true);
+        churnAllocator.bind(code, roomPool[allocated++ & (DISTINCT_ROOMS - 1)]);
+        live.addLast(code);
+        return code;
+    }
+}
\ No newline at end of file
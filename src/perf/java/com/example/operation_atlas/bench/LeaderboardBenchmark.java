@@ -0,0 +1,70 @@
+package com.example.operation_atlas.bench;
+
+import com.example.operation_atlas.leaderboard.Leaderboard;
+import com.example.operation_atlas.leaderboard.LeaderboardEntry;
+import com.example.operation_atlas.leaderboard.LeaderboardService;
+import com.example.operation_atlas.model.Continent;
+import com.example.operation_atlas.model.GameRoom;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Enregistrement d'une victoire (3 classements) et lecture d'une page, classements déjà pleins
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    @Param({"1000"})
+    public int topK;
+
+    private LeaderboardService leaderboardService;
+    private final GameRoom[] finished = new GameRoom[1024];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        leaderboardService = new LeaderboardService(BenchmarkFixtures.meterRegistry(),
+                BenchmarkFixtures.eventLogger(BenchmarkFixtures.meterRegistry()));
+        ReflectionTestUtils.setField(leaderboardService, "saveDir",
+                Files.createTempDirectory("atlas-leaderboard").toString());
+        ReflectionTestUtils.setField(leaderboardService, "topK", topK);
+        leaderboardService.load();
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < finished.length; i++) {
+            GameRoom room = new GameRoom("room-" + i, "");
+            room.setDrawnContinents(Continent.EUROPE, Continent.ASIA, Continent.AFRICA);
+            room.setTimerSec(random.nextInt(1500));
+            finished[i] = room;
+        }
+        for (int i = 0; i < topK * 4; i++) {
+            record();
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        GameRoom room = finished[next++ & (finished.length - 1)];
+        leaderboardService.record(room.getState().withId("room-" + next), "event");
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> firstPage() {
+        return leaderboardService.overall().page(0, 20);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> deepPage() {
+        Leaderboard board = leaderboardService.overall();
+        return board.page(board.size() - 20, 20);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.example.operation_atlas.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.operation_atlas.eventlog.EventLogger;
+import com.example.operation_atlas.eventlog.LogCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Coût côté appelant de la journalisation d'une soumission :
+// anciennes lignes INFO synchrones de PuzzleService vs EventLogger (activé, échantillonné, désactivé).
+// Les deux écrivent dans le même appender (pattern de la console) vers un flux nul.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"1.0", "0.1"})
+    public double puzzleSampleRate;
+
+    private org.slf4j.Logger legacy;
+    private EventLogger eventLogger;
+    private OutputStreamAppender<ILoggingEvent> appender;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} - %msg%n");
+        encoder.start();
+
+        appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        for (String name : new String[]{"bench.legacy", "atlas.event.puzzle"}) {
+            Logger logger = context.getLogger(name);
+            logger.setLevel(Level.INFO);
+            logger.setAdditive(false);
+            logger.addAppender(appender);
+        }
+        legacy = LoggerFactory.getLogger("bench.legacy");
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("atlas.eventlog.sample.puzzle", String.valueOf(puzzleSampleRate));
+        eventLogger = new EventLogger(environment, new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        eventLogger.stop();
+        appender.stop();
+    }
+
+    // Lignes émises auparavant pour une soumission Europe réussie
+    @Benchmark
+    public void legacySubmission() {
+        legacy.info("🔍 Europe validation - Answer: {}, Expected: {}", "MONDE", "MONDE");
+        legacy.info("✅ Europe puzzle solved! Fragment: {}", "M");
+    }
+
+    @Benchmark
+    public void eventLoggerSubmission() {
+        eventLogger.log(LogCategory.PUZZLE, org.slf4j.event.Level.INFO, "puzzle.validated",
+                "puzzle", "EUROPE", "success", Boolean.TRUE, "code", null);
+    }
+
+    // Niveau désactivé : seul le test de niveau est payé
+    @Benchmark
+    public void eventLoggerDisabled() {
+        eventLogger.log(LogCategory.PUZZLE, org.slf4j.event.Level.DEBUG, "puzzle.validated",
+                "puzzle", "EUROPE", "success", Boolean.TRUE, "code", null);
+    }
+}
\ No newline at end of file
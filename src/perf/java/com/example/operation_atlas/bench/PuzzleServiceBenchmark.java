@@ -0,0 +1,68 @@
+package com.example.operation_atlas.bench;
+
+import com.example.operation_atlas.model.PuzzleResult;
+import com.example.operation_atlas.service.PuzzleService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PuzzleServiceBenchmark {
+
+    private static final Map<String, String> FRAGMENTS = Map.of("letterEU", "M", "directionAS", "→→", "letterAF", "A");
+    private static final List<String> DRAW = List.of("EUROPE", "ASIA", "AFRICA");
+
+    private PuzzleService puzzleService;
+
+    @Setup
+    public void setUp() {
+        puzzleService = BenchmarkFixtures.puzzleService(BenchmarkFixtures.objectMapper());
+    }
+
+    @Benchmark
+    public PuzzleResult validateEurope() {
+        return puzzleService.validateEurope("MONDE");
+    }
+
+    @Benchmark
+    public PuzzleResult validateAsia() {
+        return puzzleService.validateAsia("03:00");
+    }
+
+    @Benchmark
+    public PuzzleResult validateAmericas() {
+        return puzzleService.validateAmericas("0005");
+    }
+
+    @Benchmark
+    public PuzzleResult validateAfrica() {
+        return puzzleService.validateAfrica("1234");
+    }
+
+    @Benchmark
+    public PuzzleResult validateOceania() {
+        return puzzleService.validateOceania("D");
+    }
+
+    @Benchmark
+    public PuzzleResult validateAntarctica() {
+        return puzzleService.validateAntarctica("VOSTOK");
+    }
+
+    @Benchmark
+    public boolean validateMeta() {
+        return puzzleService.validateMeta("MONDE→→A", FRAGMENTS);
+    }
+
+    @Benchmark
+    public boolean validateFinal() {
+        return puzzleService.validateFinal("CTF", DRAW);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.operation_atlas.bench;
+
+import com.example.operation_atlas.service.RateLimitService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// checkActionLimit sous contention : une clé partagée par tous les threads, ou une clé par thread
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private RateLimitService rateLimitService;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class ThreadKey {
+        String key;
+
+        @Setup
+        public void setUp(RateLimitBenchmark benchmark) {
+            key = "action:10.0.0." + benchmark.threadIds.incrementAndGet();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        rateLimitService = new RateLimitService(BenchmarkFixtures.meterRegistry());
+    }
+
+    @Benchmark
+    public void sharedKey() {
+        rateLimitService.checkActionLimit("action:shared", Integer.MAX_VALUE, 60);
+    }
+
+    @Benchmark
+    public void keyPerThread(ThreadKey threadKey) {
+        rateLimitService.checkActionLimit(threadKey.key, Integer.MAX_VALUE, 60);
+    }
+}
\ No newline at end of file
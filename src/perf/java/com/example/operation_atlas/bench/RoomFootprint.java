@@ -0,0 +1,51 @@
+package com.example.operation_atlas.bench;
+
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.model.GameStage;
+import com.example.operation_atlas.service.GameService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Empreinte mémoire des rooms : octets de heap retenus par room (index de GameService compris, sans trace)
+// mvn -Pperf test-compile exec:exec -Dperf.main=com.example.operation_atlas.bench.RoomFootprint -Dbench=100000
+public final class RoomFootprint {
+
+    private RoomFootprint() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        GameService gameService = BenchmarkFixtures.gameService();
+
+        // Une room de chauffe pour charger les classes et le contenu hors mesure
+        gameService.createRoom("warmup");
+        long before = usedHeapAfterGc();
+
+        List<GameRoom> created = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            GameRoom room = gameService.createRoom("p" + i);
+            gameService.joinRoom(room.getJoinCode(), "q" + i);
+            // Partie en cours : un puzzle résolu, un indice consommé
+            room.setStage(GameStage.PLAY);
+            String continent = room.getDraw().get(0);
+            gameService.submitPuzzle(room.getId(), continent, BenchmarkFixtures.ANSWERS.get(continent),
+                    room.getPlayers().get(0).getId());
+            gameService.requestHint(room.getId(), room.getDraw().get(1));
+            created.add(room);
+        }
+        long after = usedHeapAfterGc();
+
+        System.out.printf("rooms=%d heap=%.1f MiB bytes/room=%d%n",
+                created.size(), (after - before) / 1024.0 / 1024.0, (after - before) / created.size());
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
\ No newline at end of file
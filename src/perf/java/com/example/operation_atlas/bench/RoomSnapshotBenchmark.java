@@ -0,0 +1,44 @@
+package com.example.operation_atlas.bench;
+
+import com.example.operation_atlas.dto.RoomSnapshot;
+import com.example.operation_atlas.model.Continent;
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.model.Player;
+import com.example.operation_atlas.service.GameService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomSnapshotBenchmark {
+
+    private GameRoom room;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        GameService gameService = BenchmarkFixtures.gameService();
+        room = gameService.createRoom("alice");
+        room.addPlayer(new Player("p2", "bob"));
+        room.addPlayer(new Player("p3", "carol"));
+        room.addPlayer(new Player("p4", "dave"));
+        room.putFragment(Continent.EUROPE, "M");
+        objectMapper = BenchmarkFixtures.objectMapper();
+    }
+
+    @Benchmark
+    public RoomSnapshot fromRoom() {
+        return RoomSnapshot.fromRoom(room);
+    }
+
+    @Benchmark
+    public byte[] fromRoomAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(RoomSnapshot.fromRoom(room));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.operation_atlas.bench;
+
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.service.GameService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coût des jobs de fond (timerTick, cleanupRooms) en fonction du nombre de rooms
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RoomSweepBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rooms;
+
+    // Part des rooms en jeu (les autres sont en BRIEF et ne sont pas décomptées)
+    @Param({"0.5"})
+    public double playingRatio;
+
+    private GameService gameService;
+    private final List<GameRoom> created = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameService = BenchmarkFixtures.gameService();
+        for (int i = 0; i < rooms; i++) {
+            GameRoom room = gameService.createRoom("p" + i);
+            if (i < rooms * playingRatio) {
+                gameService.joinRoom(room.getJoinCode(), "q" + i);
+                gameService.startGame(room.getId());
+            }
+            created.add(room);
+        }
+    }
+
+    // Le timer ne doit jamais atteindre 0 pendant la mesure
+    @Setup(Level.Iteration)
+    public void resetTimers() {
+        for (GameRoom room : created) {
+            room.setTimerSec(Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public void timerTick() {
+        gameService.timerTick();
+    }
+
+    @Benchmark
+    public void cleanupRooms() {
+        gameService.cleanupRooms();
+    }
+}
\ No newline at end of file
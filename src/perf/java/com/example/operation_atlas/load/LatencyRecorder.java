@@ -0,0 +1,62 @@
+package com.example.operation_atlas.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Enregistre des durées (µs) par catégorie et calcule les percentiles en fin de run
+final class LatencyRecorder {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    private static final class Samples {
+        private long[] values = new long[INITIAL_CAPACITY];
+        private int size;
+
+        synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    void record(String category, long micros) {
+        samples.computeIfAbsent(category, c -> new Samples()).add(micros);
+    }
+
+    void recordSince(String category, long startNanos) {
+        record(category, (System.nanoTime() - startNanos) / 1000);
+    }
+
+    String report() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-22s %8s %9s %9s %9s %9s %9s%n",
+                "category", "count", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)"));
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(samples).entrySet()) {
+            long[] values = entry.getValue().sorted();
+            if (values.length == 0) {
+                continue;
+            }
+            out.append(String.format("%-22s %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), values.length,
+                    percentile(values, 50), percentile(values, 90), percentile(values, 99),
+                    percentile(values, 99.9), values[values.length - 1] / 1000.0));
+        }
+        return out.toString();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+}
\ No newline at end of file
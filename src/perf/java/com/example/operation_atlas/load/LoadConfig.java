@@ -0,0 +1,47 @@
+package com.example.operation_atlas.load;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Paramètres du run, passés en "clé=valeur" séparés par des virgules (ex: rooms=1000,thinkMaxMs=2000)
+record LoadConfig(int rooms,
+                  int minPlayers,
+                  int maxPlayers,
+                  long thinkMinMs,
+                  long thinkMaxMs,
+                  double hintRate,
+                  double errorRate,
+                  double chatRate,
+                  long rampMs,
+                  boolean virtualThreads) {
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            for (String pair : arg.split(",")) {
+                int eq = pair.indexOf('=');
+                // Ignore l'argument par défaut du profil perf (regex JMH)
+                if (eq > 0) {
+                    values.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+                }
+            }
+        }
+
+        LoadConfig config = new LoadConfig(
+                Integer.parseInt(values.getOrDefault("rooms", "200")),
+                Integer.parseInt(values.getOrDefault("minPlayers", "2")),
+                Integer.parseInt(values.getOrDefault("maxPlayers", "4")),
+                Long.parseLong(values.getOrDefault("thinkMinMs", "200")),
+                Long.parseLong(values.getOrDefault("thinkMaxMs", "1500")),
+                Double.parseDouble(values.getOrDefault("hintRate", "0.3")),
+                Double.parseDouble(values.getOrDefault("errorRate", "0.3")),
+                Double.parseDouble(values.getOrDefault("chatRate", "0.5")),
+                Long.parseLong(values.getOrDefault("rampMs", "5000")),
+                Boolean.parseBoolean(values.getOrDefault("virtualThreads", "false"))
+        );
+        if (config.minPlayers() < 1 || config.maxPlayers() > 4 || config.minPlayers() > config.maxPlayers()) {
+            throw new IllegalArgumentException("Players per room must be within 1..4");
+        }
+        return config;
+    }
+}
\ No newline at end of file
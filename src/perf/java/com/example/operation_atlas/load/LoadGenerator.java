@@ -0,0 +1,196 @@
+package com.example.operation_atlas.load;
+
+import com.example.operation_atlas.OperationAtlasApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Générateur de charge : démarre l'appli en local et joue N parties complètes sur /ws
+// mvn -Pperf test-compile exec:exec -Dperf.main=com.example.operation_atlas.load.LoadGenerator -Dbench=rooms=1000
+// Comparaison des modes de threads à 10k sessions (JVM 21+), un run par mode :
+//   -Dbench=rooms=2500,minPlayers=4,maxPlayers=4,virtualThreads=false
+//   -Dbench=rooms=2500,minPlayers=4,maxPlayers=4,virtualThreads=true
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        System.out.println("Load config: " + config);
+
+        ConfigurableApplicationContext context = SpringApplication.run(OperationAtlasApplication.class,
+                "--server.port=0",
+                "--atlas.save.dir=" + Files.createTempDirectory("atlas-load"),
+                "--spring.main.banner-mode=off",
+                "--spring.threads.virtual.enabled=" + config.virtualThreads());
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String baseUrl = "http://localhost:" + port;
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(16, daemon("load-http")))
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.start();
+
+        List<SimulatedTeam> teams = new ArrayList<>();
+        for (int i = 0; i < config.rooms(); i++) {
+            teams.add(new SimulatedTeam(i, config, baseUrl, http, objectMapper, recorder));
+        }
+
+        ExecutorService setupPool = Executors.newFixedThreadPool(32, daemon("load-setup"));
+        long heapBaseline = usedHeapAfterGc();
+
+        long setupStart = System.nanoTime();
+        int setupFailures = runAll(setupPool, teams, team -> {
+            team.setUp();
+            return true;
+        });
+        double setupSeconds = (System.nanoTime() - setupStart) / 1e9;
+        long heapAfterSetup = usedHeapAfterGc();
+
+        int connectFailures = runAll(setupPool, teams, team -> {
+            team.connect(stompClient, "ws://localhost:" + port + "/ws");
+            return true;
+        });
+        long heapAfterConnect = usedHeapAfterGc();
+        setupPool.shutdown();
+
+        // Une thread par équipe : le temps de réflexion est un simple sleep
+        ExecutorService playPool = Executors.newCachedThreadPool(daemon("load-team"));
+        long rampStepNanos = config.rooms() > 1 ? config.rampMs() * 1_000_000 / config.rooms() : 0;
+        long playStart = System.nanoTime();
+        List<Future<Boolean>> games = new ArrayList<>();
+        for (int i = 0; i < teams.size(); i++) {
+            SimulatedTeam team = teams.get(i);
+            long delayNanos = rampStepNanos * i;
+            games.add(playPool.submit(() -> {
+                Thread.sleep(delayNanos / 1_000_000);
+                long start = System.nanoTime();
+                boolean completed = team.play();
+                recorder.recordSince(completed ? "game.completed" : "game.failed", start);
+                return completed;
+            }));
+        }
+        int completed = 0;
+        int failed = 0;
+        for (Future<Boolean> game : games) {
+            try {
+                if (game.get()) {
+                    completed++;
+                } else {
+                    failed++;
+                }
+            } catch (Exception e) {
+                failed++;
+                System.err.println("Game aborted: " + e.getCause());
+            }
+        }
+        double playSeconds = (System.nanoTime() - playStart) / 1e9;
+        playPool.shutdown();
+
+        int players = teams.stream().mapToInt(SimulatedTeam::playerCount).sum();
+        System.out.println();
+        System.out.println("=== Operation Atlas load run ===");
+        System.out.printf("rooms=%d players=%d setupFailures=%d connectFailures=%d%n",
+                config.rooms(), players, setupFailures, connectFailures);
+        System.out.printf("setup: %.1f rooms/s (%.1f s)%n", config.rooms() / setupSeconds, setupSeconds);
+        System.out.printf("play: %d completed, %d failed in %.1f s -> %.1f rooms/s%n",
+                completed, failed, playSeconds, completed / playSeconds);
+        System.out.printf("heap per 1k rooms: %.1f MB (rooms only), %.1f MB (with STOMP sessions, client+server)%n",
+                perThousand(heapAfterSetup - heapBaseline, config.rooms()),
+                perThousand(heapAfterConnect - heapBaseline, config.rooms()));
+        // Les piles des threads de plateforme sont hors heap : pic de threads et RSS du process
+        System.out.printf("threads: virtual=%s peak platform=%d, rss=%d MB%n", config.virtualThreads(),
+                ManagementFactory.getThreadMXBean().getPeakThreadCount(), residentSetMb());
+        System.out.println();
+        System.out.print(recorder.report());
+
+        stompClient.stop();
+        context.close();
+        System.exit(failed == 0 && setupFailures == 0 && connectFailures == 0 ? 0 : 1);
+    }
+
+    private interface TeamStep {
+        boolean run(SimulatedTeam team) throws Exception;
+    }
+
+    private static int runAll(ExecutorService pool, List<SimulatedTeam> teams, TeamStep step)
+            throws InterruptedException {
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (SimulatedTeam team : teams) {
+            tasks.add(() -> step.run(team));
+        }
+        int failures = 0;
+        for (Future<Boolean> result : pool.invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (Exception e) {
+                failures++;
+                System.err.println("Setup failed: " + e.getCause());
+            }
+        }
+        return failures;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long residentSetMb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (Exception e) {
+            // Hors Linux
+        }
+        return -1;
+    }
+
+    private static double perThousand(long bytes, int rooms) {
+        return bytes / 1024.0 / 1024.0 / rooms * 1000;
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,341 @@
+package com.example.operation_atlas.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Une équipe simulée : création/join en HTTP, puis partie complète sur /ws
+final class SimulatedTeam {
+
+    private static final Map<String, String> ANSWERS = Map.of(
+            "EUROPE", "MONDE",
+            "ASIA", "03:00",
+            "AMERICAS", "0005",
+            "AFRICA", "1234",
+            "OCEANIA", "D",
+            "ANTARCTICA", "VOSTOK"
+    );
+
+    private static final Map<String, String> WRONG_ANSWERS = Map.of(
+            "EUROPE", "TERRE",
+            "ASIA", "12:30",
+            "AMERICAS", "0001",
+            "AFRICA", "4321",
+            "OCEANIA", "A",
+            "ANTARCTICA", "MIRNY"
+    );
+
+    // Première lettre du mot-clé de chaque continent, dans l'ordre du tirage
+    private static final Map<String, String> FINAL_LETTERS = Map.of(
+            "EUROPE", "C",
+            "ASIA", "T",
+            "AMERICAS", "V",
+            "AFRICA", "F",
+            "OCEANIA", "I",
+            "ANTARCTICA", "G"
+    );
+
+    private static final long EVENT_TIMEOUT_MS = 10_000;
+
+    private final int index;
+    private final LoadConfig config;
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder recorder;
+
+    private final List<SimulatedPlayer> players = new ArrayList<>();
+    private final BlockingQueue<Map<String, Object>> events = new LinkedBlockingQueue<>();
+
+    private String roomId;
+    private List<String> draw = List.of();
+
+    // Instant (nanoTime) de la dernière commande, pour mesurer commande -> broadcast reçu
+    private volatile long lastCommandNanos;
+    private volatile long lastChatNanos;
+
+    SimulatedTeam(int index, LoadConfig config, String baseUrl, HttpClient http,
+                  ObjectMapper objectMapper, LatencyRecorder recorder) {
+        this.index = index;
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.recorder = recorder;
+    }
+
+    private final class SimulatedPlayer {
+        private final String pseudo;
+        private final String ip;
+        private String playerId;
+        private StompSession session;
+
+        SimulatedPlayer(String pseudo, String ip) {
+            this.pseudo = pseudo;
+            this.ip = ip;
+        }
+    }
+
+    // Phase 1 : room + joueurs en HTTP, sans WebSocket (mesure mémoire côté serveur)
+    void setUp() throws Exception {
+        int playerCount = ThreadLocalRandom.current().nextInt(config.minPlayers(), config.maxPlayers() + 1);
+        for (int p = 0; p < playerCount; p++) {
+            // Une IP par joueur simulé, sinon la limite de 10 actions/min par IP bloque le run
+            players.add(new SimulatedPlayer("t" + index + "p" + p, fakeIp(index * 4 + p)));
+        }
+
+        SimulatedPlayer creator = players.get(0);
+        Map<String, Object> created = post(creator, "/api/rooms", Map.of("pseudo", creator.pseudo), "http.create");
+        Map<?, ?> room = (Map<?, ?>) created.get("room");
+        roomId = (String) room.get("id");
+        creator.playerId = (String) created.get("playerId");
+        String joinCode = (String) room.get("joinCode");
+
+        for (SimulatedPlayer player : players.subList(1, players.size())) {
+            Map<String, Object> joined = post(player, "/api/rooms/" + roomId + "/join",
+                    Map.of("pseudo", player.pseudo, "joinCode", joinCode), "http.join");
+            player.playerId = (String) joined.get("playerId");
+        }
+    }
+
+    // Phase 2 : connexion STOMP de chaque joueur
+    void connect(WebSocketStompClient stompClient, String wsUrl) throws Exception {
+        for (SimulatedPlayer player : players) {
+            long start = System.nanoTime();
+            player.session = stompClient.connectAsync(wsUrl, new StompSessionHandlerAdapter() {
+            }).get(EVENT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            recorder.recordSince("ws.connect", start);
+
+            boolean primary = player == players.get(0);
+            player.session.subscribe("/topic/rooms/" + roomId, new MapHandler(payload -> onEvent(payload, primary)));
+            if (primary) {
+                player.session.subscribe("/topic/rooms/" + roomId + "/chat", new MapHandler(payload -> onChat()));
+            }
+        }
+    }
+
+    // Phase 3 : BRIEF -> PLAY -> META -> FINAL -> DEBRIEF
+    boolean play() throws Exception {
+        SimulatedPlayer creator = players.get(0);
+
+        think();
+        command(creator, "/api/rooms/" + roomId + "/start", Map.of(), "http.start");
+        Map<String, Object> stage = awaitEvent("start", e -> isStageChange(e, "PLAY"));
+        if (stage == null) {
+            return false;
+        }
+        draw = readDraw();
+
+        for (String continent : draw) {
+            SimulatedPlayer solver = randomPlayer();
+            maybeChat(solver, "on attaque " + continent);
+
+            think();
+            if (chance(config.hintRate())) {
+                command(randomPlayer(), "/api/rooms/" + roomId + "/hint/" + continent, null, "http.hint");
+                awaitEvent("hint", e -> "HINT_GRANTED".equals(e.get("type")) && continent.equals(e.get("continent")));
+            }
+
+            if (chance(config.errorRate())) {
+                submitPuzzle(solver, continent, WRONG_ANSWERS.get(continent));
+                awaitEvent("wrong-answer", e -> isPuzzleResult(e, continent));
+                think();
+            }
+
+            submitPuzzle(solver, continent, ANSWERS.get(continent));
+            if (awaitEvent("puzzle", e -> isPuzzleResult(e, continent) && Boolean.TRUE.equals(e.get("success"))) == null) {
+                return false;
+            }
+        }
+
+        if (awaitEvent("meta-stage", e -> isStageChange(e, "META")) == null) {
+            return false;
+        }
+
+        think();
+        Map<String, Object> state = get("/api/rooms/" + roomId + "/state", "http.state");
+        @SuppressWarnings("unchecked")
+        Map<String, String> fragments = (Map<String, String>) state.getOrDefault("fragments", Map.of());
+        String metaKey = fragments.getOrDefault("letterEU", "M") + "ONDE"
+                + fragments.getOrDefault("directionAS", "→→")
+                + fragments.getOrDefault("letterAF", "A");
+        command(creator, "/api/rooms/" + roomId + "/meta",
+                Map.of("answer", metaKey, "playerId", creator.playerId), "http.meta");
+        if (awaitEvent("meta", e -> isStageChange(e, "FINAL")) == null) {
+            return false;
+        }
+
+        // La fenêtre finale est de 30 s : pas de temps de réflexion long ici
+        StringBuilder finalCode = new StringBuilder();
+        for (String continent : draw) {
+            finalCode.append(FINAL_LETTERS.get(continent));
+        }
+        command(creator, "/api/rooms/" + roomId + "/final",
+                Map.of("answer", finalCode.toString(), "playerId", creator.playerId), "http.final");
+        Map<String, Object> result = awaitEvent("final", e -> "FINAL_RESULT".equals(e.get("type")));
+        return result != null && Boolean.TRUE.equals(result.get("success"));
+    }
+
+    int playerCount() {
+        return players.size();
+    }
+
+    private void submitPuzzle(SimulatedPlayer player, String continent, String answer) {
+        Map<String, String> payload = new HashMap<>();
+        payload.put("continent", continent);
+        payload.put("answer", answer);
+        payload.put("playerId", player.playerId);
+        lastCommandNanos = System.nanoTime();
+        player.session.send("/app/rooms/" + roomId + "/puzzle", payload);
+    }
+
+    private void maybeChat(SimulatedPlayer player, String message) {
+        if (!chance(config.chatRate())) {
+            return;
+        }
+        lastChatNanos = System.nanoTime();
+        player.session.send("/app/rooms/" + roomId + "/chat", Map.of("message", message, "playerId", player.playerId));
+    }
+
+    private void onEvent(Map<String, Object> payload, boolean primary) {
+        Object type = payload.get("type");
+        // Snapshots (sans type) et ticks ne correspondent à aucune commande
+        if (type == null || "TIMER_TICK".equals(type)) {
+            return;
+        }
+        recorder.recordSince("ws.event-lag", lastCommandNanos);
+        if (primary) {
+            events.add(payload);
+        }
+    }
+
+    private void onChat() {
+        recorder.recordSince("ws.chat-lag", lastChatNanos);
+    }
+
+    private Map<String, Object> awaitEvent(String step, Predicate<Map<String, Object>> matcher) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + EVENT_TIMEOUT_MS;
+        long remaining;
+        while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+            Map<String, Object> event = events.poll(remaining, TimeUnit.MILLISECONDS);
+            if (event != null && matcher.test(event)) {
+                return event;
+            }
+        }
+        recorder.record("timeout." + step, EVENT_TIMEOUT_MS * 1000);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> readDraw() throws Exception {
+        Map<String, Object> state = get("/api/rooms/" + roomId + "/state", "http.state");
+        return (List<String>) state.getOrDefault("draw", List.of());
+    }
+
+    // Commande de jeu : le broadcast qui suit est mesuré depuis cet instant
+    private Map<String, Object> command(SimulatedPlayer player, String path, Object body, String category)
+            throws Exception {
+        lastCommandNanos = System.nanoTime();
+        return post(player, path, body, category);
+    }
+
+    private Map<String, Object> post(SimulatedPlayer player, String path, Object body, String category)
+            throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMillis(EVENT_TIMEOUT_MS))
+                .header("X-Forwarded-For", player.ip);
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.POST(HttpRequest.BodyPublishers.noBody());
+        }
+        return send(request.build(), category);
+    }
+
+    private Map<String, Object> get(String path, String category) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMillis(EVENT_TIMEOUT_MS))
+                .GET()
+                .build();
+        return send(request, category);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> send(HttpRequest request, String category) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        recorder.recordSince(category, start);
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(category + " -> HTTP " + response.statusCode()
+                    + " " + new String(response.body()));
+        }
+        if (response.body().length == 0) {
+            return Map.of();
+        }
+        return objectMapper.readValue(response.body(), Map.class);
+    }
+
+    private SimulatedPlayer randomPlayer() {
+        return players.get(ThreadLocalRandom.current().nextInt(players.size()));
+    }
+
+    private void think() throws InterruptedException {
+        Thread.sleep(ThreadLocalRandom.current().nextLong(config.thinkMinMs(), config.thinkMaxMs() + 1));
+    }
+
+    private static boolean chance(double rate) {
+        return ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static boolean isStageChange(Map<String, Object> event, String stage) {
+        return "STAGE_CHANGE".equals(event.get("type")) && stage.equals(event.get("stage"));
+    }
+
+    private static boolean isPuzzleResult(Map<String, Object> event, String continent) {
+        return "PUZZLE_RESULT".equals(event.get("type")) && continent.equals(event.get("continent"));
+    }
+
+    private static String fakeIp(int n) {
+        return "10." + ((n >> 16) & 0xFF) + "." + ((n >> 8) & 0xFF) + "." + (n & 0xFF);
+    }
+
+    private static final class MapHandler implements StompFrameHandler {
+        private final Consumer<Map<String, Object>> consumer;
+
+        MapHandler(Consumer<Map<String, Object>> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void handleFrame(StompHeaders headers, Object payload) {
+            consumer.accept((Map<String, Object>) payload);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.example.operation_atlas.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Temps jusqu'à la première requête servie (POST /api/rooms), du lancement de la JVM à la réponse 200,
+// pour chaque mode de démarrage. Les modes absents (jar non construit, archive CDS manquante) sont ignorés.
+// mvn -Pfast-start package -DskipTests
+// mvn -Pperf test-compile exec:exec -Dperf.main=com.example.operation_atlas.startup.StartupTimer -Dbench=runs=5
+public final class StartupTimer {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final String CREATE_BODY = "{\"pseudo\":\"startup\"}";
+
+    private StartupTimer() {
+    }
+
+    private record Mode(String name, List<String> command) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = 5;
+        for (String arg : args) {
+            if (arg.startsWith("runs=")) {
+                runs = Integer.parseInt(arg.substring("runs=".length()));
+            }
+        }
+
+        Path target = Path.of("target");
+        Path fatJar = target.resolve("operation-atlas-0.0.1-SNAPSHOT.jar");
+        Path extractedJar = target.resolve("application/operation-atlas-0.0.1-SNAPSHOT.jar");
+        Path archive = target.resolve("application/application.jsa");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        List<Mode> modes = new ArrayList<>();
+        if (Files.exists(fatJar)) {
+            modes.add(new Mode("jar", List.of(java, "-jar", fatJar.toString())));
+        }
+        if (Files.exists(extractedJar)) {
+            modes.add(new Mode("extracted", List.of(java, "-jar", extractedJar.toString())));
+            modes.add(new Mode("extracted+aot+lazy", List.of(java, "-Dspring.aot.enabled=true",
+                    "-jar", extractedJar.toString(), "--spring.profiles.active=faststart")));
+            if (Files.exists(archive)) {
+                modes.add(new Mode("extracted+cds", List.of(java, "-XX:SharedArchiveFile=" + archive,
+                        "-Xlog:cds=off", "-jar", extractedJar.toString())));
+                modes.add(new Mode("extracted+cds+aot+lazy", List.of(java, "-XX:SharedArchiveFile=" + archive,
+                        "-Xlog:cds=off", "-Dspring.aot.enabled=true", "-jar", extractedJar.toString(),
+                        "--spring.profiles.active=faststart")));
+            }
+        }
+        if (modes.isEmpty()) {
+            System.err.println("No jar in target/, run mvn package (or -Pfast-start package) first");
+            System.exit(1);
+        }
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        Map<String, long[]> results = new TreeMap<>();
+        // Un run de chauffe par mode (cache disque), puis les runs mesurés en alternance
+        for (Mode mode : modes) {
+            measure(mode, http);
+        }
+        for (Mode mode : modes) {
+            results.put(mode.name(), new long[runs]);
+        }
+        for (int run = 0; run < runs; run++) {
+            for (Mode mode : modes) {
+                results.get(mode.name())[run] = measure(mode, http);
+            }
+        }
+
+        System.out.println();
+        System.out.printf("java=%s runs=%d%n", System.getProperty("java.version"), runs);
+        System.out.printf("%-26s %8s %8s %8s%n", "mode", "min(ms)", "p50(ms)", "max(ms)");
+        for (Mode mode : modes) {
+            long[] values = results.get(mode.name());
+            Arrays.sort(values);
+            System.out.printf("%-26s %8d %8d %8d%n", mode.name(), values[0], values[values.length / 2],
+                    values[values.length - 1]);
+        }
+    }
+
+    private static long measure(Mode mode, HttpClient http) throws Exception {
+        int port = freePort();
+        Path saveDir = Files.createTempDirectory("atlas-startup");
+        List<String> command = new ArrayList<>(mode.command());
+        command.add("--server.port=" + port);
+        command.add("--atlas.save.dir=" + saveDir);
+        command.add("--spring.main.banner-mode=off");
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/rooms"))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(CREATE_BODY))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File(saveDir.toFile(), "startup.log")))
+                .start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.name() + " exited, see " + saveDir.resolve("startup.log"));
+                }
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // Pas encore à l'écoute
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(mode.name() + " not serving after " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
\ No newline at end of file
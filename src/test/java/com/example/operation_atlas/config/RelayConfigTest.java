@@ -0,0 +1,26 @@
+package com.example.operation_atlas.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelayConfigTest {
+
+    private static RelayConfig socket(int port) {
+        RelayConfig config = new RelayConfig();
+        ReflectionTestUtils.setField(config, "transport", "socket");
+        ReflectionTestUtils.setField(config, "socketPort", port);
+        ReflectionTestUtils.setField(config, "socketPeers", "localhost:7401");
+        return config;
+    }
+
+    // Un port éphémère ne serait joignable par aucun pair
+    @Test
+    void socketTransportNeedsAFixedPort() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> socket(0).relayTransport());
+        assertTrue(e.getMessage().contains("atlas.relay.socket.port"), e.getMessage());
+        assertThrows(IllegalStateException.class, () -> socket(70_000).relayTransport());
+        assertNotNull(socket(7400).relayTransport());
+    }
+}
\ No newline at end of file
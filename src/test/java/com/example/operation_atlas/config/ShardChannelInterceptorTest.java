@@ -0,0 +1,78 @@
+package com.example.operation_atlas.config;
+
+import com.example.operation_atlas.service.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardChannelInterceptorTest {
+
+    private final ShardRouter router = router();
+
+    private static ShardRouter router() {
+        ShardRouter router = new ShardRouter();
+        ReflectionTestUtils.setField(router, "clusterNodes", "http://a,http://b");
+        ReflectionTestUtils.setField(router, "self", "http://a");
+        router.buildRing();
+        return router;
+    }
+
+    private ShardChannelInterceptor interceptor(String relayTransport) {
+        ShardChannelInterceptor interceptor = new ShardChannelInterceptor(router);
+        ReflectionTestUtils.setField(interceptor, "relayTransport", relayTransport);
+        return interceptor;
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private String room(boolean local) {
+        for (int i = 0; ; i++) {
+            if (router.isLocal("room-" + i) == local) {
+                return "room-" + i;
+            }
+        }
+    }
+
+    @Test
+    void commandsForAForeignRoomAreRejectedWithTheOwner() {
+        ShardChannelInterceptor interceptor = interceptor("none");
+        Message<byte[]> foreign = frame(StompCommand.SEND, "/app/rooms/" + room(false) + "/puzzle");
+        MessageDeliveryException e = assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(foreign, null));
+        assertEquals("ERR_WRONG_SHARD http://b", e.getMessage());
+
+        Message<byte[]> local = frame(StompCommand.SEND, "/app/rooms/" + room(true) + "/puzzle");
+        assertSame(local, interceptor.preSend(local, null));
+    }
+
+    @Test
+    void foreignSubscriptionsNeedTheRelay() {
+        Message<byte[]> subscribe = frame(StompCommand.SUBSCRIBE, "/topic/rooms/" + room(false) + "/chat");
+        assertThrows(MessageDeliveryException.class, () -> interceptor("none").preSend(subscribe, null));
+        // Avec le relais, les événements de la room arrivent aussi sur ce noeud
+        assertSame(subscribe, interceptor("in-process").preSend(subscribe, null));
+    }
+
+    @Test
+    void singleNodeLetsEverythingThrough() {
+        ShardRouter single = new ShardRouter();
+        ReflectionTestUtils.setField(single, "clusterNodes", "");
+        ReflectionTestUtils.setField(single, "self", "http://a");
+        single.buildRing();
+        ShardChannelInterceptor interceptor = new ShardChannelInterceptor(single);
+        ReflectionTestUtils.setField(interceptor, "relayTransport", "none");
+        Message<byte[]> send = frame(StompCommand.SEND, "/app/rooms/" + room(false) + "/puzzle");
+        assertSame(send, interceptor.preSend(send, null));
+    }
+}
\ No newline at end of file
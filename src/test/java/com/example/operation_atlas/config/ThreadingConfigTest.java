@@ -0,0 +1,55 @@
+package com.example.operation_atlas.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadingConfigTest {
+
+    // Un thread par tâche comme les virtual threads : seul le sémaphore limite les écritures simultanées
+    @Test
+    void boundedExecutorCapsConcurrentTasks() {
+        Executor executor = ThreadingConfig.bounded(task -> new Thread(task).start(), 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[40];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = CompletableFuture.runAsync(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            }, executor);
+        }
+        CompletableFuture.allOf(tasks).join();
+
+        assertTrue(peak.get() <= 3, "peak " + peak.get());
+        assertEquals(0, running.get());
+    }
+
+    // Une soumission refusée rend son permis
+    @Test
+    void rejectedTaskReleasesItsPermit() {
+        AtomicInteger accepted = new AtomicInteger();
+        Executor executor = ThreadingConfig.bounded(task -> {
+            if (accepted.getAndIncrement() == 0) {
+                throw new IllegalStateException("rejected");
+            }
+            task.run();
+        }, 1);
+
+        assertThrows(IllegalStateException.class, () -> executor.execute(() -> { }));
+        AtomicInteger runs = new AtomicInteger();
+        executor.execute(runs::incrementAndGet);
+        executor.execute(runs::incrementAndGet);
+        assertEquals(2, runs.get());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.example.operation_atlas.content;
+
+import com.example.operation_atlas.model.Continent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCatalogTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private ContentCatalog catalog(String locales, int cacheSize) {
+        ContentCatalog catalog = new ContentCatalog(new DefaultResourceLoader(), registry);
+        ReflectionTestUtils.setField(catalog, "supportedLocales", locales);
+        ReflectionTestUtils.setField(catalog, "defaultLocale", "fr");
+        ReflectionTestUtils.setField(catalog, "cacheSize", cacheSize);
+        catalog.init();
+        return catalog;
+    }
+
+    private double loads(String locale) {
+        return registry.counter("atlas.content.pack.loads", "locale", locale).count();
+    }
+
+    private double evictions() {
+        return registry.counter("atlas.content.pack.evictions").count();
+    }
+
+    @Test
+    void evictedPackReloadsWithTheSameHashes() {
+        ContentCatalog catalog = catalog("fr,en", 1);
+        double enLoads = loads("en");
+        double evictions = evictions();
+
+        ContentCatalog.Blob manifest = catalog.manifest("en");
+        String hint = catalog.hintHash("en", Continent.ASIA, 2);
+        ContentCatalog.Blob blob = catalog.get(hint);
+        assertEquals(enLoads + 1, loads("en"));
+
+        // Une seule place (fr y est dès le démarrage) : chaque changement de langue évince l'autre
+        catalog.manifest("fr");
+        ContentCatalog.Blob reloaded = catalog.get(hint);
+        assertEquals(enLoads + 2, loads("en"));
+        assertEquals(evictions + 3, evictions());
+
+        assertNotSame(blob, reloaded);
+        assertEquals(blob.getHash(), reloaded.getHash());
+        assertArrayEquals(blob.getIdentity(), reloaded.getIdentity());
+        assertEquals(manifest.getHash(), catalog.manifest("en").getHash());
+    }
+
+    @Test
+    void unknownIdsAreRejectedWithoutLoadingAPack() {
+        ContentCatalog catalog = catalog("fr,en", 1);
+        double enLoads = loads("en");
+
+        assertNull(catalog.get("en-00000000000000000000000000000000"));
+        assertNull(catalog.get("de-" + catalog.hintHash("en", Continent.ASIA, 1).substring(3)));
+        assertNull(catalog.get("nothing"));
+        assertEquals(enLoads, loads("en"));
+        assertEquals(0.0, evictions());
+    }
+
+    @Test
+    void messagesComeFromTheRoomLocale() {
+        ContentCatalog catalog = catalog("fr,en", 1);
+        assertEquals("The word must be 5 letters long", catalog.message("en", "E_EU_WRONG_LENGTH"));
+        assertEquals("Le mot doit faire 5 lettres", catalog.message("fr", "E_EU_WRONG_LENGTH"));
+        assertEquals("Le mot doit faire 5 lettres", catalog.message(null, "E_EU_WRONG_LENGTH"));
+        assertEquals("E_UNKNOWN", catalog.message("en", "E_UNKNOWN"));
+    }
+
+    @Test
+    void missingPackFailsStartup() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> catalog("fr,de", 2));
+        assertTrue(e.getMessage().contains("de"), e.getMessage());
+        assertThrows(IllegalStateException.class, () -> catalog("en", 2));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.example.operation_atlas.content;
+
+import com.example.operation_atlas.model.Continent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentPackTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static Map<String, JsonNode> documents() throws IOException {
+        Map<String, JsonNode> documents = new LinkedHashMap<>();
+        for (String file : ContentPackCompiler.FILES) {
+            try (InputStream in = ContentPackTest.class.getResourceAsStream("/content/" + file)) {
+                documents.put(file, MAPPER.readTree(in));
+            }
+        }
+        return documents;
+    }
+
+    @Test
+    void packRoundTripsCompiledAnswers() throws IOException {
+        PuzzleContent content = ContentPack.read(ByteBuffer.wrap(ContentPack.write(ContentPackCompiler.compile(documents()))));
+        assertEquals("MONDE", content.getEuTargetWord());
+        assertTrue(content.getAsValidSlots().contains("03:00"));
+        assertEquals(5, content.getAmCabinWeight());
+        assertEquals(1234, content.getAfExpectedAmount());
+        assertEquals("D", content.getOcCorrectRoute());
+        assertEquals("VOSTOK", content.getAnExpectedAnswer());
+    }
+
+    @Test
+    void corruptedPayloadIsRejectedByChecksum() throws IOException {
+        byte[] pack = ContentPack.write(ContentPackCompiler.compile(documents()));
+        // Premier octet du payload, après magic (4), version (2) et longueur (4)
+        for (int offset = 10; offset < pack.length - 8; offset++) {
+            byte[] corrupted = pack.clone();
+            corrupted[offset] ^= 0x01;
+            IOException e = assertThrows(IOException.class, () -> ContentPack.read(ByteBuffer.wrap(corrupted)));
+            assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+        }
+
+        byte[] badCrc = pack.clone();
+        badCrc[pack.length - 1] ^= 0x01;
+        assertThrows(IOException.class, () -> ContentPack.read(ByteBuffer.wrap(badCrc)));
+    }
+
+    @Test
+    void truncatedOrForeignFilesAreRejected() throws IOException {
+        byte[] pack = ContentPack.write(ContentPackCompiler.compile(documents()));
+        assertThrows(IOException.class, () -> ContentPack.read(ByteBuffer.wrap(Arrays.copyOf(pack, pack.length - 3))));
+        assertThrows(IOException.class, () -> ContentPack.read(ByteBuffer.wrap(Arrays.copyOf(pack, 5))));
+
+        byte[] magic = pack.clone();
+        magic[0] = 'X';
+        assertThrows(IOException.class, () -> ContentPack.read(ByteBuffer.wrap(magic)));
+
+        byte[] version = pack.clone();
+        version[5] = 9;
+        assertThrows(IOException.class, () -> ContentPack.read(ByteBuffer.wrap(version)));
+    }
+
+    @Test
+    void compilerRejectsInconsistentContent() throws IOException {
+        Map<String, JsonNode> documents = documents();
+        ((ObjectNode) documents.get("eu_salutations.json")).put("targetWord", "MOND");
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ContentPackCompiler.compile(documents));
+        assertTrue(e.getMessage().contains("eu_salutations.json"), e.getMessage());
+
+        Map<String, JsonNode> missing = documents();
+        missing.remove("an_stations.json");
+        assertThrows(IllegalStateException.class, () -> ContentPackCompiler.compile(missing));
+    }
+
+    static JsonNode overlay(String locale) throws IOException {
+        try (InputStream in = ContentPackTest.class.getResourceAsStream("/content/locales/" + locale + ".json")) {
+            return MAPPER.readTree(in);
+        }
+    }
+
+    @Test
+    void localePackRoundTripsWithoutAnswersAndRecompilesIdentically() throws IOException {
+        LocalePack compiled = ContentPackCompiler.compileLocale(MAPPER, "en", documents(), overlay("en"));
+        byte[] bytes = ContentPack.writeLocale(compiled);
+        LocalePack read = ContentPack.readLocale(ByteBuffer.wrap(bytes));
+
+        assertEquals("en", read.locale);
+        assertEquals(compiled.blobs.keySet(), read.blobs.keySet());
+        assertEquals(compiled.messages, read.messages);
+        assertArrayEquals(compiled.hints.get(Continent.ASIA), read.hints.get(Continent.ASIA));
+        assertEquals(compiled.manifest.getHash(), read.manifest.getHash());
+        for (ContentCatalog.Blob blob : read.blobs.values()) {
+            assertTrue(blob.getHash().startsWith("en-"));
+            String json = new String(blob.getIdentity(), StandardCharsets.UTF_8);
+            for (String answer : List.of("targetWord", "validSlotsUTC", "expectedCabinWeightKg", "expectedFinalAmount",
+                    "correctRoute", "totalDistance", "expectedAnswer", "expectedKey")) {
+                assertFalse(json.contains("\"" + answer + "\""), answer + " in " + json);
+            }
+            if (blob.getGzip() != null) {
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(blob.getGzip()))) {
+                    assertArrayEquals(blob.getIdentity(), in.readAllBytes());
+                }
+            }
+        }
+
+        // Compilation déterministe : les empreintes déjà distribuées survivent à un nouveau build
+        byte[] again = ContentPack.writeLocale(ContentPackCompiler.compileLocale(MAPPER, "en", documents(), overlay("en")));
+        assertArrayEquals(bytes, again);
+    }
+
+    @Test
+    void corruptedLocalePackIsRejected() throws IOException {
+        byte[] bytes = ContentPack.writeLocale(ContentPackCompiler.compileLocale(MAPPER, "fr", documents(), overlay("fr")));
+        byte[] corrupted = bytes.clone();
+        corrupted[bytes.length / 2] ^= 0x01;
+        IOException e = assertThrows(IOException.class, () -> ContentPack.readLocale(ByteBuffer.wrap(corrupted)));
+        assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+        assertThrows(IOException.class, () -> ContentPack.readLocale(ByteBuffer.wrap(Arrays.copyOf(bytes, 100))));
+        // Le pack de réponses n'est pas un pack de langue, et inversement
+        assertThrows(IOException.class,
+                () -> ContentPack.readLocale(ByteBuffer.wrap(ContentPack.write(ContentPackCompiler.compile(documents())))));
+        assertThrows(IOException.class, () -> ContentPack.read(ByteBuffer.wrap(bytes)));
+    }
+}
\ No newline at end of file
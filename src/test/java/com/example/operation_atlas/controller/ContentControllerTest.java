@@ -0,0 +1,141 @@
+package com.example.operation_atlas.controller;
+
+import com.example.operation_atlas.content.ContentCatalog;
+import com.example.operation_atlas.model.Continent;
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.service.GameService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "atlas.save.dir=target/test-saves")
+@AutoConfigureMockMvc
+class ContentControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ContentCatalog contentCatalog;
+
+    @Autowired
+    GameService gameService;
+
+    // Une énigme du manifeste assez grande pour avoir une variante gzip
+    String compressibleBlob(String locale) throws Exception {
+        byte[] manifest = contentCatalog.manifest(locale).getIdentity();
+        for (JsonNode hash : new ObjectMapper().readTree(manifest).path("puzzles")) {
+            if (contentCatalog.get(hash.asText()).getGzip() != null) {
+                return hash.asText();
+            }
+        }
+        throw new AssertionError("no gzip variant in " + locale);
+    }
+
+    @Test
+    void manifestIsRevalidatedByETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/content").param("locale", "en"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(jsonPath("$.locale").value("en"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals("\"" + contentCatalog.manifest("en").getHash() + "\"", etag);
+
+        mockMvc.perform(get("/api/content").param("locale", "en").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/api/content").param("locale", "fr").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    // Chaque représentation a son ETag : un 304 ne renvoie jamais une variante que le client n'a pas
+    @Test
+    void gzipIsNegotiatedWithItsOwnETag() throws Exception {
+        String hash = compressibleBlob("en");
+        ContentCatalog.Blob blob = contentCatalog.get(hash);
+        String identityTag = "\"" + hash + "\"";
+        String gzipTag = "\"" + hash + "-gz\"";
+
+        for (String accepted : new String[]{"gzip", "br, gzip;q=0.5", "*", "*;q=0, gzip", "GZIP"}) {
+            mockMvc.perform(get("/api/content/" + hash).header(HttpHeaders.ACCEPT_ENCODING, accepted))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.ETAG, gzipTag))
+                    .andExpect(content().bytes(blob.getGzip()));
+        }
+        for (String refused : new String[]{"gzip;q=0", "gzip; q=0.0, *", "*;q=0", "br, identity"}) {
+            mockMvc.perform(get("/api/content/" + hash).header(HttpHeaders.ACCEPT_ENCODING, refused))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(header().string(HttpHeaders.ETAG, identityTag))
+                    .andExpect(content().bytes(blob.getIdentity()));
+        }
+        mockMvc.perform(get("/api/content/" + hash))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+
+        mockMvc.perform(get("/api/content/" + hash).header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/content/" + hash).header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, identityTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipTag));
+        mockMvc.perform(get("/api/content/" + hash).header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, identityTag));
+    }
+
+    // L'empreinte porte sa langue : celle d'une autre locale ne se résout pas
+    @Test
+    void unknownAndForeignHashesAreNotFound() throws Exception {
+        String hash = compressibleBlob("en");
+        String digest = hash.substring(hash.indexOf('-') + 1);
+
+        mockMvc.perform(get("/api/content/" + hash)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/content/fr-" + digest)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/content/xx-" + digest)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/content/en-0000")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/content/" + digest)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void hintTiersAreListedOnceUnlocked() throws Exception {
+        GameRoom room = gameService.createRoom("alice", "en");
+        gameService.joinRoom(room.getJoinCode(), "bob");
+        gameService.startGame(room.getId());
+        Continent continent = Continent.fromName(room.getDraw().get(0));
+        String hints = "/api/rooms/" + room.getId() + "/hints/" + continent.name();
+
+        mockMvc.perform(get(hints))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hints.length()").value(0));
+
+        gameService.requestHint(room.getId(), continent.name());
+        String tier1 = contentCatalog.hintHash("en", continent, 1);
+        mockMvc.perform(get(hints))
+                .andExpect(jsonPath("$.hints.length()").value(1))
+                .andExpect(jsonPath("$.hints[0].tier").value(1))
+                .andExpect(jsonPath("$.hints[0].content").value(tier1));
+        mockMvc.perform(get("/api/content/" + tier1)).andExpect(status().isOk());
+
+        gameService.requestHint(room.getId(), continent.name());
+        mockMvc.perform(get(hints))
+                .andExpect(jsonPath("$.hints.length()").value(ContentCatalog.HINT_TIERS))
+                .andExpect(jsonPath("$.hints[1].content").value(contentCatalog.hintHash("en", continent, 2)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.operation_atlas.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"atlas.save.dir=target/test-saves", "atlas.events.organizer-tokens=token-a, token-b"})
+@AutoConfigureMockMvc
+class EventControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    static MockHttpServletRequestBuilder provision(String token, String ip, String body) {
+        MockHttpServletRequestBuilder request = post("/api/events")
+                .header("X-Forwarded-For", ip)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+        return token == null ? request : request.header(EventController.TOKEN_HEADER, token);
+    }
+
+    @Test
+    void eventApiRequiresAnOrganizerToken() throws Exception {
+        mockMvc.perform(provision(null, "10.0.0.1", "{\"rooms\":1}"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("ERR_FORBIDDEN"));
+        mockMvc.perform(provision("token-c", "10.0.0.1", "{\"rooms\":1}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/events/any/start"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void eventsAreOnlyVisibleToTheirOrganizer() throws Exception {
+        mockMvc.perform(provision("token-a", "10.0.0.2", "{\"eventId\":\"owned\",\"rooms\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rooms.length()").value(2));
+
+        mockMvc.perform(get("/api/events/owned").header(EventController.TOKEN_HEADER, "token-a"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rooms.length()").value(2));
+        mockMvc.perform(get("/api/events/owned").header(EventController.TOKEN_HEADER, "token-b"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("ERR_EVENT_NOT_FOUND"));
+        mockMvc.perform(post("/api/events/owned/start").header(EventController.TOKEN_HEADER, "token-b"))
+                .andExpect(jsonPath("$.code").value("ERR_EVENT_NOT_FOUND"));
+        mockMvc.perform(provision("token-b", "10.0.0.2", "{\"eventId\":\"owned\",\"rooms\":1}"))
+                .andExpect(jsonPath("$.code").value("ERR_EVENT_NOT_FOUND"));
+    }
+
+    // Le quota compte les rooms, pas les appels ; une demande refusée ne consomme rien
+    @Test
+    void provisioningIsChargedPerRoom() throws Exception {
+        mockMvc.perform(provision("token-b", "10.0.0.3", "{\"rooms\":500}")).andExpect(status().isOk());
+        mockMvc.perform(provision("token-b", "10.0.0.3", "{\"rooms\":400}")).andExpect(status().isOk());
+        mockMvc.perform(provision("token-b", "10.0.0.3", "{\"rooms\":100}"))
+                .andExpect(jsonPath("$.code").value("ERR_RATE_LIMIT"));
+        mockMvc.perform(provision("token-b", "10.0.0.3", "{\"rooms\":50}")).andExpect(status().isOk());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.example.operation_atlas.controller;
+
+import com.example.operation_atlas.exception.WrongShardException;
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.service.GameService;
+import com.example.operation_atlas.service.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Noeud http://a d'un cluster de deux : ce qui appartient à http://b est redirigé
+@SpringBootTest(properties = {"atlas.save.dir=target/test-saves-shard", "atlas.cluster.nodes=http://a,http://b",
+        "atlas.cluster.self=http://a"})
+@AutoConfigureMockMvc
+class ShardRoutingTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ShardRouter shardRouter;
+
+    @Autowired
+    GameService gameService;
+
+    private String foreignKey(String prefix) {
+        for (int i = 0; ; i++) {
+            if (!shardRouter.isLocal(prefix + i)) {
+                return prefix + i;
+            }
+        }
+    }
+
+    @Test
+    void createdRoomsAndTheirJoinCodesAreLocal() {
+        for (int i = 0; i < 20; i++) {
+            GameRoom room = gameService.createRoom("alice", null);
+            assertTrue(shardRouter.isLocal(room.getId()));
+            assertTrue(shardRouter.isLocal(room.getJoinCode()));
+            assertEquals(room.getId(), gameService.resolveJoinCode(room.getJoinCode().toLowerCase()));
+        }
+    }
+
+    @Test
+    void foreignJoinCodeNamesItsOwner() {
+        String code = foreignKey("QZ");
+        WrongShardException e = assertThrows(WrongShardException.class, () -> gameService.resolveJoinCode(code));
+        assertEquals("http://b", e.getOwnerNode());
+        assertThrows(WrongShardException.class, () -> gameService.joinRoom(code, "bob"));
+    }
+
+    @Test
+    void foreignRoomRequestsAreRedirectedToTheOwner() throws Exception {
+        String roomId = foreignKey("room-");
+        mockMvc.perform(get("/api/rooms/" + roomId + "/state").queryParam("since", "3"))
+                .andExpect(status().isTemporaryRedirect())
+                .andExpect(header().string("Location", "http://b/api/rooms/" + roomId + "/state?since=3"))
+                .andExpect(jsonPath("$.code").value("ERR_WRONG_SHARD"));
+
+        String code = foreignKey("QZ");
+        mockMvc.perform(get("/api/rooms/resolve/" + code))
+                .andExpect(status().isTemporaryRedirect())
+                .andExpect(header().string("Location", "http://b/api/rooms/resolve/" + code));
+    }
+
+    @Test
+    void localRoomIsServedHere() throws Exception {
+        GameRoom room = gameService.createRoom("alice", null);
+        mockMvc.perform(get("/api/rooms/" + room.getId() + "/state"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(room.getId()));
+    }
+}
\ No newline at end of file
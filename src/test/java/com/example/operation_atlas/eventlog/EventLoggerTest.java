@@ -0,0 +1,119 @@
+package com.example.operation_atlas.eventlog;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLoggerTest {
+
+    // Appender qui bloque le thread d'écriture sur le premier événement tant que le test ne le libère pas
+    static class GatedAppender extends AppenderBase<ILoggingEvent> {
+        final List<String> lines = new CopyOnWriteArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            lines.add(event.getFormattedMessage());
+            entered.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final Logger roomLogger = (Logger) LoggerFactory.getLogger("atlas.event.room");
+    private final Logger puzzleLogger = (Logger) LoggerFactory.getLogger("atlas.event.puzzle");
+    private final GatedAppender appender = new GatedAppender();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private EventLogger eventLogger;
+
+    private EventLogger start(int bufferSize) {
+        roomLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        puzzleLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        appender.start();
+        roomLogger.addAppender(appender);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("atlas.eventlog.buffer-size", String.valueOf(bufferSize))
+                .withProperty("atlas.eventlog.sample.puzzle", "0");
+        eventLogger = new EventLogger(environment, registry);
+        return eventLogger;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        appender.gate.countDown();
+        if (eventLogger != null) {
+            eventLogger.stop();
+        }
+        roomLogger.detachAppender(appender);
+        roomLogger.setLevel(null);
+        puzzleLogger.setLevel(null);
+    }
+
+    private double dropped(String reason) {
+        return registry.get("atlas.eventlog.dropped").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void fullRingDropsAndCountsNewEvents() throws InterruptedException {
+        EventLogger logger = start(4);
+        logger.log(LogCategory.ROOM, Level.INFO, "first");
+        assertTrue(appender.entered.await(5, TimeUnit.SECONDS));
+
+        // Le thread d'écriture est bloqué : l'anneau de 4 slots se remplit puis refuse
+        for (int i = 0; i < 6; i++) {
+            logger.log(LogCategory.ROOM, Level.INFO, "queued", "i", i);
+        }
+        assertEquals(2.0, dropped("queue_full"));
+        assertEquals(4.0, registry.get("atlas.eventlog.queue").gauge().value());
+
+        appender.gate.countDown();
+        logger.stop();
+        assertEquals(List.of("event=first", "event=queued i=0", "event=queued i=1",
+                "event=queued i=2", "event=queued i=3"), appender.lines);
+        assertEquals(0.0, registry.get("atlas.eventlog.queue").gauge().value());
+    }
+
+    @Test
+    void stopDrainsPendingEventsInOrder() throws InterruptedException {
+        EventLogger logger = start(64);
+        logger.log(LogCategory.ROOM, Level.INFO, "first");
+        assertTrue(appender.entered.await(5, TimeUnit.SECONDS));
+        logger.log(LogCategory.ROOM, Level.INFO, "room.joined", "room", "R1", "player", "Ada Lovelace");
+        logger.log(LogCategory.ROOM, Level.WARN, "room.note", "text", "say \"hi\"", "missing", null);
+
+        appender.gate.countDown();
+        logger.stop();
+        assertEquals(List.of("event=first",
+                "event=room.joined room=R1 player=\"Ada Lovelace\"",
+                "event=room.note text=\"say \\\"hi\\\"\" missing=-"), appender.lines);
+        assertEquals(0.0, dropped("queue_full"));
+    }
+
+    @Test
+    void samplingSparesWarnings() throws InterruptedException {
+        EventLogger logger = start(64);
+        logger.log(LogCategory.PUZZLE, Level.INFO, "puzzle.validated");
+        logger.log(LogCategory.PUZZLE, Level.WARN, "puzzle.slow");
+        logger.stop();
+        assertEquals(1.0, dropped("sampled"));
+        assertEquals(0.0, dropped("queue_full"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.example.operation_atlas.leaderboard;
+
+import com.example.operation_atlas.eventlog.EventLogger;
+import com.example.operation_atlas.model.Continent;
+import com.example.operation_atlas.model.Player;
+import com.example.operation_atlas.model.RoomState;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardServiceTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final EventLogger eventLogger = new EventLogger(new MockEnvironment(), registry);
+
+    @TempDir
+    Path saveDir;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        eventLogger.stop();
+    }
+
+    private LeaderboardService service(long retentionMinutes) {
+        LeaderboardService service = new LeaderboardService(registry, eventLogger);
+        ReflectionTestUtils.setField(service, "saveDir", saveDir.toString());
+        ReflectionTestUtils.setField(service, "topK", 10);
+        ReflectionTestUtils.setField(service, "eventRetentionMinutes", retentionMinutes);
+        service.load();
+        return service;
+    }
+
+    private static RoomState won(String roomId) {
+        return RoomState.initial(roomId, "ABC123")
+                .withDraw(Continent.EUROPE, Continent.ASIA)
+                .withPlayer(new Player("p1", "alice"))
+                .withTimerSec(RoomState.INITIAL_TIMER_SEC - 600);
+    }
+
+    @Test
+    void closedEventBoardIsDroppedAfterRetention() {
+        LeaderboardService service = service(-1);
+        service.record(won("r1"), "evt-1");
+        service.record(won("r2"), "evt-2");
+
+        // Une room de evt-1 est encore vivante : rien n'est abandonné
+        assertEquals(0, service.pruneEvents());
+
+        service.closeEvent("evt-1");
+        assertEquals(1, service.pruneEvents());
+        assertNull(service.forEvent("evt-1"));
+        assertNotNull(service.forEvent("evt-2"));
+        // Les autres classements gardent l'entrée
+        assertEquals(2, service.overall().size());
+    }
+
+    @Test
+    void closedEventBoardStaysReadableDuringRetention() {
+        LeaderboardService service = service(60);
+        service.record(won("r1"), "evt-1");
+        service.closeEvent("evt-1");
+
+        assertEquals(0, service.pruneEvents());
+        assertEquals(1, service.forEvent("evt-1").size());
+    }
+
+    @Test
+    void restoredEventBoardsAgeOut() {
+        LeaderboardService first = service(-1);
+        first.record(won("r1"), "evt-1");
+        first.saveIfChanged();
+
+        LeaderboardService restored = service(-1);
+        assertNotNull(restored.forEvent("evt-1"));
+        assertEquals(1, restored.pruneEvents());
+        assertNull(restored.forEvent("evt-1"));
+        assertEquals(1, restored.overall().size());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.example.operation_atlas.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    private static LeaderboardEntry entry(String roomId, int seconds, int hints, long finishedAt) {
+        return new LeaderboardEntry(roomId, null, List.of("EUROPE"), List.of("a"), seconds, hints, finishedAt);
+    }
+
+    private static List<String> ids(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::getRoomId).toList();
+    }
+
+    @Test
+    void entriesAreOrderedBySecondsThenHintsThenFinishTimeThenRoom() {
+        Leaderboard board = new Leaderboard(10);
+        board.offer(entry("slow", 900, 0, 1));
+        board.offer(entry("hinted", 600, 2, 1));
+        board.offer(entry("late", 600, 0, 5));
+        board.offer(entry("b", 600, 0, 3));
+        board.offer(entry("a", 600, 0, 3));
+        board.offer(entry("fast", 300, 4, 9));
+
+        assertEquals(List.of("fast", "a", "b", "late", "hinted", "slow"), ids(board.all()));
+    }
+
+    @Test
+    void onlyTheTopKAreKept() {
+        Leaderboard board = new Leaderboard(3);
+        for (int i = 0; i < 10; i++) {
+            board.offer(entry("r" + i, 1000 - i * 10, 0, i));
+        }
+
+        assertEquals(3, board.size());
+        assertEquals(List.of("r9", "r8", "r7"), ids(board.all()));
+        // Pire que la dernière place : refusée sans toucher au classement
+        assertFalse(board.offer(entry("worse", 950, 0, 0)));
+        assertTrue(board.offer(entry("best", 1, 0, 0)));
+        assertEquals(List.of("best", "r9", "r8"), ids(board.all()));
+    }
+
+    @Test
+    void sameEntryIsOnlyCountedOnce() {
+        Leaderboard board = new Leaderboard(5);
+        assertTrue(board.offer(entry("r1", 500, 1, 7)));
+        assertFalse(board.offer(entry("r1", 500, 1, 7)));
+        assertEquals(1, board.size());
+    }
+
+    @Test
+    void pagesAreClampedToTheBoard() {
+        Leaderboard board = new Leaderboard(100);
+        for (int i = 0; i < 25; i++) {
+            board.offer(entry(String.format("r%02d", i), 100 + i, 0, 0));
+        }
+
+        assertEquals(List.of("r00", "r01", "r02", "r03", "r04", "r05", "r06", "r07", "r08", "r09"),
+                ids(board.page(0, 10)));
+        assertEquals(List.of("r20", "r21", "r22", "r23", "r24"), ids(board.page(20, 10)));
+        assertTrue(board.page(25, 10).isEmpty());
+        assertTrue(board.page(1000, 10).isEmpty());
+        assertTrue(board.page(3, 0).isEmpty());
+        assertEquals(25, board.page(0, Integer.MAX_VALUE - 1).size());
+    }
+}
\ No newline at end of file
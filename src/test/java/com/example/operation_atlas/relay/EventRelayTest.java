@@ -0,0 +1,128 @@
+package com.example.operation_atlas.relay;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRelayTest {
+
+    private final List<Runnable> cleanup = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        cleanup.forEach(Runnable::run);
+    }
+
+    private EventRelay relay(String node, MeterRegistry registry, List<RelayEnvelope> delivered) {
+        EventRelay relay = new EventRelay(new InProcessRelayTransport(), node, 64, 20, 10_000, registry);
+        relay.start(delivered::add);
+        cleanup.add(relay::stop);
+        return relay;
+    }
+
+    // Noeud fictif qui émet des lots arbitraires vers les autres noeuds du bus
+    private InProcessRelayTransport origin(String node) {
+        InProcessRelayTransport transport = new InProcessRelayTransport();
+        transport.start(node, batch -> {});
+        cleanup.add(transport::stop);
+        return transport;
+    }
+
+    private static RelayEnvelope envelope(String origin, String roomId, long sequence) {
+        return new RelayEnvelope(origin, roomId, sequence, System.currentTimeMillis(), "/topic/rooms/" + roomId,
+                (roomId + ":" + sequence).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(RelayEnvelope envelope) {
+        return new String(envelope.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void interleavedRoomsArriveInOrderPerRoomAndBatched() throws InterruptedException {
+        MeterRegistry senderRegistry = new SimpleMeterRegistry();
+        MeterRegistry receiverRegistry = new SimpleMeterRegistry();
+        EventRelay sender = relay("relay-a", senderRegistry, new CopyOnWriteArrayList<>());
+        List<RelayEnvelope> delivered = new CopyOnWriteArrayList<>();
+        relay("relay-b", receiverRegistry, delivered);
+
+        int perRoom = 200;
+        for (int i = 1; i <= perRoom; i++) {
+            for (String room : List.of("r1", "r2", "r3")) {
+                sender.publish(room, "/topic/rooms/" + room, (room + ":" + i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (delivered.size() < 3 * perRoom && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(3 * perRoom, delivered.size());
+        Map<String, Long> last = new HashMap<>();
+        for (RelayEnvelope envelope : delivered) {
+            long expected = last.getOrDefault(envelope.getRoomId(), 0L) + 1;
+            assertEquals(expected, envelope.getSequence(), envelope.getRoomId());
+            assertEquals(envelope.getRoomId() + ":" + expected, text(envelope));
+            assertEquals("relay-a", envelope.getOriginNode());
+            last.put(envelope.getRoomId(), expected);
+        }
+        // 600 événements en lots de 64 au plus
+        double batches = senderRegistry.counter("atlas.relay.batches").count();
+        assertTrue(batches >= 10 && batches < 3 * perRoom, "batches " + batches);
+        assertEquals(3.0 * perRoom, receiverRegistry.counter("atlas.relay.events", "direction", "in").count());
+        assertEquals(0.0, receiverRegistry.counter("atlas.relay.gaps").count());
+    }
+
+    @Test
+    void duplicatesAreDroppedAndGapsCounted() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        List<RelayEnvelope> delivered = new CopyOnWriteArrayList<>();
+        relay("dedup-b", registry, delivered);
+        InProcessRelayTransport origin = origin("dedup-x");
+
+        origin.send(List.of(envelope("dedup-x", "r1", 1), envelope("dedup-x", "r2", 1),
+                envelope("dedup-x", "r1", 2)));
+        // Lot rejoué (retransmission) puis un trou : r1 passe de 2 à 4
+        origin.send(List.of(envelope("dedup-x", "r1", 2), envelope("dedup-x", "r1", 1),
+                envelope("dedup-x", "r1", 4), envelope("dedup-x", "r2", 2)));
+
+        assertEquals(List.of("r1:1", "r2:1", "r1:2", "r1:4", "r2:2"), delivered.stream().map(EventRelayTest::text).toList());
+        assertEquals(2.0, registry.counter("atlas.relay.events.dropped").count());
+        assertEquals(1.0, registry.counter("atlas.relay.gaps").count());
+    }
+
+    // Les séquences sont propres à chaque noeud d'origine
+    @Test
+    void sequencesAreTrackedPerOrigin() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        List<RelayEnvelope> delivered = new CopyOnWriteArrayList<>();
+        relay("origin-b", registry, delivered);
+        origin("origin-x").send(List.of(envelope("origin-x", "r1", 1)));
+        origin("origin-y").send(List.of(envelope("origin-y", "r1", 1)));
+
+        assertEquals(2, delivered.size());
+        assertEquals(0.0, registry.counter("atlas.relay.events.dropped").count());
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfGrowing() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        // Jamais démarré : rien ne vide la file
+        EventRelay relay = new EventRelay(new InProcessRelayTransport(), "full-a", 64, 20, 2, registry);
+        for (int i = 0; i < 5; i++) {
+            relay.publish("r1", "/topic/rooms/r1", new byte[]{(byte) i});
+        }
+        assertEquals(2.0, registry.get("atlas.relay.queue").gauge().value());
+        assertEquals(3.0, registry.counter("atlas.relay.events.dropped").count());
+    }
+}
\ No newline at end of file
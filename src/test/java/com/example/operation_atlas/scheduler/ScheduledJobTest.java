@@ -0,0 +1,39 @@
+package com.example.operation_atlas.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduledJobTest {
+
+    @Test
+    void jobKeepsRunningAfterErrorsAndExceptions() throws InterruptedException {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch recovered = new CountDownLatch(1);
+        ScheduledJob job = new ScheduledJob("test", () -> {
+            switch (runs.incrementAndGet()) {
+                case 1 -> throw new StackOverflowError();
+                case 2 -> throw new IllegalStateException();
+                default -> recovered.countDown();
+            }
+        }, executor, 10, 0, ScheduledJob.OverrunPolicy.SKIP, registry);
+        try {
+            job.start();
+            assertTrue(recovered.await(5, TimeUnit.SECONDS));
+            assertEquals(2.0, registry.get("atlas.scheduler.failures").tag("job", "test").counter().count());
+        } finally {
+            job.cancel();
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,356 @@
+package com.example.operation_atlas.service;
+
+import com.example.operation_atlas.analytics.PuzzleAnalytics;
+import com.example.operation_atlas.content.ContentCatalog;
+import com.example.operation_atlas.dto.CommandResult;
+import com.example.operation_atlas.dto.RoomCommand;
+import com.example.operation_atlas.dto.RoomSnapshot;
+import com.example.operation_atlas.exception.GameException;
+import com.example.operation_atlas.model.Continent;
+import com.example.operation_atlas.model.GameRoom;
+import com.example.operation_atlas.model.GameStage;
+import com.example.operation_atlas.model.RoomState;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "atlas.save.dir=target/test-saves")
+class GameServiceTest {
+
+    static final Map<Continent, String> ANSWERS = Map.of(
+            Continent.EUROPE, "MONDE", Continent.ASIA, "03:00", Continent.AMERICAS, "0005",
+            Continent.AFRICA, "1234", Continent.OCEANIA, "D", Continent.ANTARCTICA, "VOSTOK");
+
+    @Autowired
+    GameService gameService;
+
+    @Autowired
+    SnapshotService snapshotService;
+
+    @Autowired
+    ContentCatalog contentCatalog;
+
+    @Autowired
+    PuzzleAnalytics puzzleAnalytics;
+
+    GameRoom startedRoom(String locale) {
+        GameRoom room = gameService.createRoom("alice", locale);
+        gameService.joinRoom(room.getJoinCode(), "bob");
+        gameService.startGame(room.getId());
+        return room;
+    }
+
+    @Test
+    void eachCommandPublishesOneCompleteVersion() {
+        GameRoom room = startedRoom(null);
+        List<String> draw = room.getDraw();
+        Continent first = Continent.fromName(draw.get(0));
+
+        int before = room.getVersion();
+        gameService.requestHint(room.getId(), first.name());
+        assertEquals(before + 1, room.getVersion());
+        assertEquals(1, room.getHintCount(first));
+
+        gameService.submitPuzzle(room.getId(), first.name(), ANSWERS.get(first), "p");
+        RoomState state = room.getState();
+        assertEquals(before + 2, state.getVersion());
+        assertTrue(state.isSolved(first));
+        assertNotNull(state.getFragment(first));
+
+        // Dernier puzzle : résolution et passage en META dans la même version
+        gameService.submitPuzzle(room.getId(), draw.get(1), ANSWERS.get(Continent.fromName(draw.get(1))), "p");
+        gameService.submitPuzzle(room.getId(), draw.get(2), ANSWERS.get(Continent.fromName(draw.get(2))), "p");
+        assertEquals(before + 4, room.getVersion());
+        assertEquals("META", room.getStage().name());
+    }
+
+    @Test
+    void lockFreeReadersNeverSeeHalfAppliedCommands() throws Exception {
+        GameRoom room = startedRoom(null);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            Map<Integer, String> contentByVersion = new HashMap<>();
+            while (!done.get() && failure.get() == null) {
+                RoomState state = room.getState();
+                StringBuilder content = new StringBuilder();
+                for (Continent continent : Continent.values()) {
+                    if (state.isSolved(continent) != (state.getFragment(continent) != null)) {
+                        failure.set("solved without fragment at version " + state.getVersion());
+                    }
+                    content.append(state.isSolved(continent)).append(state.getHintCount(continent));
+                }
+                String previous = contentByVersion.putIfAbsent(state.getVersion(), content.toString());
+                if (previous != null && !previous.equals(content.toString())) {
+                    failure.set("two contents for version " + state.getVersion());
+                }
+            }
+        });
+        reader.start();
+        for (String continent : room.getDraw()) {
+            gameService.requestHint(room.getId(), continent);
+            gameService.requestHint(room.getId(), continent);
+            gameService.submitPuzzle(room.getId(), continent, ANSWERS.get(Continent.fromName(continent)), "p");
+        }
+        done.set(true);
+        reader.join();
+        assertNull(failure.get());
+    }
+
+    @Test
+    void batchIsAllOrNothing() {
+        GameRoom room = startedRoom(null);
+        String first = room.getDraw().get(0);
+        String second = room.getDraw().get(1);
+        int before = room.getVersion();
+
+        List<CommandResult> results = gameService.executeBatch(room.getId(), List.of(
+                command("HINT", first, null),
+                command("PUZZLE", first, ANSWERS.get(Continent.fromName(first))),
+                command("META", null, "wrong"),
+                command("PUZZLE", second, ANSWERS.get(Continent.fromName(second)))));
+
+        assertEquals("ERR_ROLLED_BACK", results.get(0).getErrorCode());
+        assertEquals("ERR_ROLLED_BACK", results.get(1).getErrorCode());
+        assertEquals("ERR_STAGE", results.get(2).getErrorCode());
+        assertEquals("ERR_SKIPPED", results.get(3).getErrorCode());
+        assertEquals("ERR_STAGE", lastTraceOutcome(room));
+        assertEquals(before, room.getVersion());
+        assertEquals(0, room.getHintCount(Continent.fromName(first)));
+        assertFalse(room.isSolved(Continent.fromName(first)));
+
+        results = gameService.executeBatch(room.getId(), List.of(
+                command("HINT", first, null),
+                command("PUZZLE", first, ANSWERS.get(Continent.fromName(first)))));
+        assertTrue(results.stream().allMatch(CommandResult::isSuccess));
+        assertEquals(before + 1, room.getVersion());
+        assertTrue(room.isSolved(Continent.fromName(first)));
+    }
+
+    // Une mauvaise réponse est un résultat : elle n'annule pas le batch et reste comptée si un échec l'annule
+    @Test
+    void wrongAnswerInBatchIsAResultNotARollback() {
+        GameRoom room = startedRoom(null);
+        Continent first = Continent.fromName(room.getDraw().get(0));
+        Continent second = Continent.fromName(room.getDraw().get(1));
+
+        List<CommandResult> results = gameService.executeBatch(room.getId(), List.of(
+                command("PUZZLE", second.name(), "wrong"),
+                command("PUZZLE", first.name(), ANSWERS.get(first))));
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertTrue(room.isSolved(first));
+
+        long attempts = attempts(second);
+        results = gameService.executeBatch(room.getId(), List.of(
+                command("PUZZLE", second.name(), "wrong"),
+                command("HINT", second.name(), null),
+                command("META", null, "wrong")));
+        assertNotEquals("ERR_ROLLED_BACK", results.get(0).getErrorCode());
+        assertFalse(results.get(0).isSuccess());
+        assertEquals("ERR_ROLLED_BACK", results.get(1).getErrorCode());
+        assertEquals(0, room.getHintCount(second));
+        assertEquals(attempts + 1, attempts(second));
+    }
+
+    // Le passage en DEBRIEF d'une finale hors délai est publié même si le batch est annulé
+    @Test
+    void finalTimeoutInBatchStillEndsTheGame() {
+        GameRoom room = startedRoom(null);
+        room.publish(room.getState().withStage(GameStage.FINAL)
+                .withFinalStartedAt(System.currentTimeMillis() - 60_000));
+
+        RoomCommand chat = command("CHAT", null, null);
+        chat.setMessage("vite");
+        List<CommandResult> results = gameService.executeBatch(room.getId(), List.of(
+                chat,
+                command("FINAL", null, "0000")));
+
+        assertEquals("ERR_ROLLED_BACK", results.get(0).getErrorCode());
+        assertEquals("ERR_FINAL_TIMEOUT", results.get(1).getErrorCode());
+        assertEquals(GameStage.DEBRIEF, room.getStage());
+        assertEquals("ERR_FINAL_TIMEOUT", lastTraceOutcome(room));
+    }
+
+    // Chaque continent compte le temps depuis la résolution précédente, pas depuis le départ
+    @Test
+    void solveDurationIsMeasuredPerContinent() {
+        PuzzleAnalytics analytics = new PuzzleAnalytics();
+        ReflectionTestUtils.setField(gameService, "puzzleAnalytics", analytics);
+        try {
+            GameRoom room = startedRoom(null);
+            Continent first = Continent.fromName(room.getDraw().get(0));
+            Continent second = Continent.fromName(room.getDraw().get(1));
+
+            gameService.requestHint(room.getId(), first.name());
+            gameService.submitPuzzle(room.getId(), first.name(), ANSWERS.get(first), "p");
+            gameService.requestHint(room.getId(), second.name());
+            gameService.requestHint(room.getId(), second.name());
+            gameService.submitPuzzle(room.getId(), second.name(), ANSWERS.get(second), "p");
+
+            assertEquals(60L, solveSeconds(analytics, first).get("max"));
+            assertEquals(120L, solveSeconds(analytics, second).get("max"));
+            assertEquals(1L, solveSeconds(analytics, second).get("count"));
+        } finally {
+            ReflectionTestUtils.setField(gameService, "puzzleAnalytics", puzzleAnalytics);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> solveSeconds(PuzzleAnalytics analytics, Continent continent) {
+        Map<String, Object> total = (Map<String, Object>) analytics.snapshot().get("total");
+        Map<String, Object> stats = (Map<String, Object>) ((Map<String, Object>) total.get("continents"))
+                .get(continent.name());
+        return (Map<String, Object>) stats.get("solveSeconds");
+    }
+
+    @SuppressWarnings("unchecked")
+    long attempts(Continent continent) {
+        Map<String, Object> total = (Map<String, Object>) puzzleAnalytics.snapshot().get("total");
+        Map<String, Object> stats = (Map<String, Object>) ((Map<String, Object>) total.get("continents"))
+                .get(continent.name());
+        return stats == null ? 0 : (Long) stats.get("attempts");
+    }
+
+    String lastTraceOutcome(GameRoom room) {
+        return room.getTrace().entries().stream()
+                .filter(entry -> "COMMAND".equals(entry.get("kind")))
+                .reduce((previous, next) -> next)
+                .map(entry -> (String) entry.get("outcome"))
+                .orElse(null);
+    }
+
+    // Seul le timer a bougé depuis le dernier passage : la room est tout de même sauvegardée
+    @Test
+    void timerOnlyChangesAreSnapshotted() throws Exception {
+        GameRoom room = startedRoom(null);
+        Path file = Path.of("target/test-saves", room.getId() + ".json");
+        Files.deleteIfExists(file);
+
+        gameService.timerTick();
+        ReflectionTestUtils.setField(gameService, "lastSnapshotMillis", System.currentTimeMillis() + 120_000);
+        gameService.snapshotRooms();
+
+        assertTrue(Files.exists(file));
+        int saved = new ObjectMapper().readTree(file.toFile()).get("timerSec").asInt();
+        assertTrue(saved < RoomState.INITIAL_TIMER_SEC);
+    }
+
+    // Une sauvegarde qui aboutit après le retrait de la room ne recrée pas son fichier
+    @Test
+    void inFlightSaveOfRemovedRoomLeavesNoFile() throws Exception {
+        GameRoom room = startedRoom(null);
+        Path file = Path.of("target/test-saves", room.getId() + ".json");
+        Path temp = Path.of("target/test-saves", room.getId() + ".json.tmp");
+
+        snapshotService.saveRoom(room, r -> true);
+        assertTrue(Files.exists(file));
+        snapshotService.deleteRoom(room.getId());
+
+        snapshotService.saveRoom(room, r -> false);
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(temp));
+    }
+
+    // Une room provisionnée attend le démarrage de son événement au-delà du TTL d'inactivité des rooms
+    @Test
+    void unstartedEventRoomsOutliveTheRoomTtl() {
+        GameRoom room = gameService.provisionRooms("held-event", "organizer", 1, null, null).get(0);
+        GameRoom forgotten = gameService.provisionRooms("forgotten-event", "organizer", 1, null, null).get(0);
+        Object roomTtl = ReflectionTestUtils.getField(gameService, "roomTtlMinutes");
+        Object eventTtl = ReflectionTestUtils.getField(gameService, "unstartedEventTtlMinutes");
+        try {
+            // TTL négatif : toute room non tenue est échue
+            ReflectionTestUtils.setField(gameService, "roomTtlMinutes", -1);
+            gameService.cleanupRooms();
+            assertSame(room, gameService.getRoom(room.getId()));
+            assertSame(forgotten, gameService.getRoom(forgotten.getId()));
+
+            gameService.joinRoom(room.getJoinCode(), "alice");
+            gameService.joinRoom(room.getJoinCode(), "bob");
+            assertTrue(gameService.startEvent("held-event", "organizer").isEmpty());
+            gameService.cleanupRooms();
+            assertThrows(GameException.class, () -> gameService.getRoom(room.getId()));
+            assertThrows(GameException.class, () -> gameService.getEventRooms("held-event", "organizer"));
+
+            // Événement jamais démarré : expire avec son propre TTL
+            ReflectionTestUtils.setField(gameService, "unstartedEventTtlMinutes", -1);
+            gameService.cleanupRooms();
+            assertThrows(GameException.class, () -> gameService.getRoom(forgotten.getId()));
+        } finally {
+            ReflectionTestUtils.setField(gameService, "roomTtlMinutes", roomTtl);
+            ReflectionTestUtils.setField(gameService, "unstartedEventTtlMinutes", eventTtl);
+        }
+    }
+
+    @Test
+    void eventsBelongToTheirOrganizer() {
+        gameService.provisionRooms("owned-event", "organizer", 1, null, null);
+        GameException e = assertThrows(GameException.class, () -> gameService.getEventRooms("owned-event", "other"));
+        assertEquals("ERR_EVENT_NOT_FOUND", e.getErrorCode());
+        assertThrows(GameException.class, () -> gameService.provisionRooms("owned-event", "other", 1, null, null));
+        assertEquals(1, gameService.getEventRooms("owned-event", "organizer").size());
+    }
+
+    // Messages d'erreur et indices tirés du pack de la room, pas de la locale par défaut
+    @Test
+    void englishRoomGetsEnglishMessagesAndHints() throws Exception {
+        JsonNode en;
+        try (InputStream in = getClass().getResourceAsStream("/content/locales/en.json")) {
+            en = new ObjectMapper().readTree(in);
+        }
+        GameRoom room = startedRoom("en");
+        String first = room.getDraw().get(0);
+
+        List<CommandResult> results = gameService.executeBatch(room.getId(), List.of(command("PUZZLE", "EUROPE", "XYZ")));
+        assertEquals("E_EU_WRONG_LENGTH", results.get(0).getErrorCode());
+        assertEquals(en.path("messages").path("E_EU_WRONG_LENGTH").asText(), results.get(0).getMessage());
+        results = gameService.executeBatch(room.getId(), List.of(command("PUZZLE", "ASIA", "later")));
+        assertEquals("E_AS_FORMAT", results.get(0).getErrorCode());
+        assertEquals(en.path("messages").path("E_AS_FORMAT").asText(), results.get(0).getMessage());
+
+        gameService.requestHint(room.getId(), first);
+        List<Map<String, Object>> hints = gameService.getUnlockedHints(room.getId(), first);
+        assertEquals(1, hints.size());
+        String hash = (String) hints.get(0).get("content");
+        assertTrue(hash.startsWith("en-"), hash);
+        assertEquals(contentCatalog.hintHash("en", Continent.fromName(first), 1), hash);
+        assertNotEquals(contentCatalog.hintHash("fr", Continent.fromName(first), 1), hash);
+        JsonNode hint = new ObjectMapper().readTree(contentCatalog.get(hash).getIdentity());
+        assertEquals("en", hint.path("locale").asText());
+    }
+
+    // Le snapshot diffusé (topic partagé avec les spectateurs) ne donne pas de quoi rejoindre la room
+    @Test
+    void broadcastSnapshotOmitsTheJoinCode() throws Exception {
+        GameRoom room = startedRoom(null);
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode broadcast = objectMapper.readTree(objectMapper.writeValueAsBytes(RoomSnapshot.publicView(room)));
+        assertFalse(broadcast.has("joinCode"));
+        assertEquals(room.getId(), broadcast.path("id").asText());
+        JsonNode joined = objectMapper.readTree(objectMapper.writeValueAsBytes(RoomSnapshot.fromRoom(room)));
+        assertEquals(room.getJoinCode(), joined.path("joinCode").asText());
+    }
+
+    static RoomCommand command(String type, String continent, String answer) {
+        RoomCommand command = new RoomCommand();
+        command.setType(type);
+        command.setContinent(continent);
+        command.setAnswer(answer);
+        return command;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.example.operation_atlas.service;
+
+import com.example.operation_atlas.exception.GameException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+
+    static IdempotencyService service(long ttlSeconds) {
+        IdempotencyService service = new IdempotencyService();
+        ReflectionTestUtils.setField(service, "maxKeysPerRoom", 4);
+        ReflectionTestUtils.setField(service, "ttlSeconds", ttlSeconds);
+        return service;
+    }
+
+    @Test
+    void retryReplaysResultAndError() {
+        IdempotencyService service = service(600);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertEquals(1, service.execute("r", "hint", "k", "EUROPE", runs::incrementAndGet));
+        assertEquals(1, service.execute("r", "hint", "k", "EUROPE", runs::incrementAndGet));
+        assertEquals(2, service.execute("r", "meta", "k2", "EUROPE", runs::incrementAndGet));
+        assertEquals(3, service.execute("r", "hint", null, "EUROPE", runs::incrementAndGet));
+
+        GameException refused = new GameException("ERR_STAGE", "no");
+        assertSame(refused, assertThrows(GameException.class, () -> service.execute("r", "final", "k3", "x", () -> {
+            throw refused;
+        })));
+        assertSame(refused, assertThrows(GameException.class,
+                () -> service.execute("r", "final", "k3", "x", runs::incrementAndGet)));
+        assertEquals(3, runs.get());
+    }
+
+    // Une clé réutilisée pour une autre commande ou un autre contenu est refusée, sans rien exécuter
+    @Test
+    void keyReusedForAnotherRequestIsRejected() {
+        IdempotencyService service = service(600);
+        AtomicInteger runs = new AtomicInteger();
+        service.execute("r", "puzzle", "k", List.of("EUROPE", Map.of("answer", "A", "playerId", "p")),
+                runs::incrementAndGet);
+
+        assertEquals(1, service.execute("r", "puzzle", "k",
+                List.of("EUROPE", Map.of("playerId", "p", "answer", "A")), runs::incrementAndGet));
+        for (Object[] other : new Object[][]{
+                {"hint", "EUROPE"},
+                {"puzzle", List.of("ASIA", Map.of("answer", "A", "playerId", "p"))},
+                {"puzzle", List.of("EUROPE", Map.of("answer", "B", "playerId", "p"))}}) {
+            GameException e = assertThrows(GameException.class,
+                    () -> service.execute("r", (String) other[0], "k", other[1], runs::incrementAndGet));
+            assertEquals("ERR_IDEMPOTENCY_MISMATCH", e.getErrorCode());
+        }
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void unexpectedErrorIsNotRecorded() {
+        IdempotencyService service = service(600);
+        assertThrows(IllegalStateException.class, () -> service.execute("r", "join", "k", null, () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals("ok", service.execute("r", "join", "k", null, () -> "ok"));
+    }
+
+    @Test
+    void oldestKeyIsEvictedBeyondRoomLimit() {
+        IdempotencyService service = service(600);
+        AtomicInteger runs = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            service.execute("r", "hint", "k" + i, null, runs::incrementAndGet);
+        }
+        service.execute("r", "hint", "k4", null, runs::incrementAndGet);
+        assertEquals(5, runs.get());
+        service.execute("r", "hint", "k0", null, runs::incrementAndGet);
+        assertEquals(6, runs.get());
+    }
+
+    @Test
+    void expiredKeyRunsAgain() throws InterruptedException {
+        IdempotencyService service = service(0);
+        AtomicInteger runs = new AtomicInteger();
+        service.execute("r", "hint", "k", null, runs::incrementAndGet);
+        Thread.sleep(5);
+        service.evictExpired();
+        service.execute("r", "hint", "k", null, runs::incrementAndGet);
+        assertEquals(2, runs.get());
+    }
+
+    // L'éviction des caches vides ne doit jamais perdre une clé en cours d'enregistrement
+    @Test
+    void evictionRacingExecuteNeverRunsACommandTwice() throws InterruptedException {
+        IdempotencyService service = service(600);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread evictor = new Thread(() -> {
+            while (!done.get()) {
+                service.evictExpired();
+            }
+        });
+        evictor.start();
+
+        int workers = 4;
+        int roomsPerWorker = 50_000;
+        AtomicInteger runs = new AtomicInteger();
+        Thread[] threads = new Thread[workers];
+        for (int w = 0; w < workers; w++) {
+            String prefix = "w" + w + "-";
+            threads[w] = new Thread(() -> {
+                for (int i = 0; i < roomsPerWorker; i++) {
+                    String roomId = prefix + i;
+                    service.execute(roomId, "hint", "k", null, runs::incrementAndGet);
+                    service.execute(roomId, "hint", "k", null, runs::incrementAndGet);
+                }
+            });
+            threads[w].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        done.set(true);
+        evictor.join();
+
+        assertEquals(workers * roomsPerWorker, runs.get());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.example.operation_atlas.service;
+
+import com.example.operation_atlas.model.GameRoom;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JoinCodeAllocatorTest {
+
+    static JoinCodeAllocator allocator(String key, long quarantineSeconds) {
+        JoinCodeAllocator allocator = new JoinCodeAllocator();
+        ReflectionTestUtils.setField(allocator, "key", key);
+        ReflectionTestUtils.setField(allocator, "quarantineSeconds", quarantineSeconds);
+        allocator.init();
+        return allocator;
+    }
+
+    @Test
+    void permutationIsABijectionOnTheCodeSpace() {
+        JoinCodeAllocator allocator = allocator("test-key", 600);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 1_000_000; i++) {
+            int value = random.nextInt(JoinCodeAllocator.CODE_SPACE);
+            int permuted = allocator.permute(value);
+            assertTrue(permuted >= 0 && permuted < JoinCodeAllocator.CODE_SPACE);
+            assertEquals(value, allocator.unpermute(permuted));
+        }
+        // Bornes de l'espace
+        for (int value : new int[]{0, 1, JoinCodeAllocator.CODE_SPACE - 1}) {
+            assertEquals(value, allocator.unpermute(allocator.permute(value)));
+        }
+    }
+
+    @Test
+    void consecutiveCountersGiveDistinctWellFormedCodes() {
+        JoinCodeAllocator allocator = allocator("test-key", 600);
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            String code = allocator.allocate(c -> true);
+            assertTrue(code.matches("[" + JoinCodeAllocator.ALPHABET + "]{6}"), code);
+            assertTrue(codes.add(code), "duplicate " + code);
+        }
+    }
+
+    @Test
+    void sameKeyGivesSameCodesAcrossRestarts() {
+        JoinCodeAllocator first = allocator("shared", 600);
+        JoinCodeAllocator second = allocator("shared", 600);
+        JoinCodeAllocator other = allocator("other", 600);
+        String code = first.allocate(c -> true);
+        assertEquals(code, second.allocate(c -> true));
+        assertNotEquals(code, other.allocate(c -> true));
+    }
+
+    @Test
+    void resolvesBoundRoomsOnly() {
+        JoinCodeAllocator allocator = allocator("test-key", 600);
+        String code = allocator.allocate(c -> true);
+        GameRoom room = new GameRoom("r1", code);
+        assertNull(allocator.resolve(code));
+        allocator.bind(code, room);
+        assertSame(room, allocator.resolve(code));
+
+        assertNull(allocator.resolve(null));
+        assertNull(allocator.resolve("ABC"));
+        assertNull(allocator.resolve("ABCDE0"));
+        // Code bien formé mais jamais attribué
+        assertNull(allocator.resolve(JoinCodeAllocator.encode(allocator.permute(1000))));
+        assertThrows(IllegalArgumentException.class, () -> allocator.bind("ZZZZZZ", room));
+    }
+
+    @Test
+    void releasedCodeIsQuarantinedBeforeReuse() {
+        JoinCodeAllocator allocator = allocator("test-key", 600);
+        String code = allocator.allocate(c -> true);
+        GameRoom room = new GameRoom("r1", code);
+        allocator.bind(code, room);
+
+        // Libération par une autre room : sans effet
+        allocator.release(code, new GameRoom("r2", code));
+        assertSame(room, allocator.resolve(code));
+        assertEquals(0, allocator.quarantined());
+
+        allocator.release(code, room);
+        assertNull(allocator.resolve(code));
+        assertEquals(1, allocator.quarantined());
+        assertNotEquals(code, allocator.allocate(c -> true));
+        assertEquals(1, allocator.quarantined());
+    }
+
+    @Test
+    void quarantinedCodeIsReusedOnceElapsed() {
+        JoinCodeAllocator allocator = allocator("test-key", 0);
+        String code = allocator.allocate(c -> true);
+        GameRoom room = new GameRoom("r1", code);
+        allocator.bind(code, room);
+        allocator.release(code, room);
+
+        assertEquals(code, allocator.allocate(c -> true));
+        assertEquals(0, allocator.quarantined());
+        GameRoom next = new GameRoom("r2", code);
+        allocator.bind(code, next);
+        assertSame(next, allocator.resolve(code));
+    }
+
+    @Test
+    void refusedCodesAreSkipped() {
+        JoinCodeAllocator allocator = allocator("test-key", 600);
+        String code = allocator.allocate(c -> c.charAt(0) == 'A');
+        assertEquals('A', code.charAt(0));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.example.operation_atlas.service;
+
+import com.example.operation_atlas.model.GameRoom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomRegistryTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private RoomRegistry registry;
+    // Début du bucket courant : les rooms sont placées dans les minutes suivantes
+    private long base;
+
+    @BeforeEach
+    void setUp() {
+        JoinCodeAllocator joinCodes = new JoinCodeAllocator();
+        ReflectionTestUtils.setField(joinCodes, "quarantineSeconds", 600L);
+        joinCodes.init();
+        registry = new RoomRegistry(joinCodes);
+        base = System.currentTimeMillis() / MINUTE * MINUTE;
+    }
+
+    private GameRoom room(String id, long lastActivity) {
+        GameRoom room = new GameRoom(id, registry.allocateJoinCode(code -> true));
+        room.setLastActivity(Instant.ofEpochMilli(lastActivity));
+        registry.add(room);
+        return room;
+    }
+
+    private static List<String> ids(List<GameRoom> rooms) {
+        return rooms.stream().map(GameRoom::getId).sorted().toList();
+    }
+
+    @Test
+    void expiredBucketsAreTakenWholeAndBoundaryBucketIsFiltered() {
+        room("a", base + 10_000);
+        room("b", base + MINUTE + 5_000);
+        room("c", base + MINUTE + 50_000);
+        room("d", base + 2 * MINUTE);
+
+        long threshold = base + MINUTE + 30_000;
+        assertEquals(List.of("a", "b"), ids(registry.pollExpired(threshold)));
+
+        // Le bucket du seuil reste indexé : 'b' revient tant qu'il n'est pas retiré
+        assertEquals(List.of("b"), ids(registry.pollExpired(threshold)));
+        registry.remove("b");
+        assertEquals(List.of(), ids(registry.pollExpired(threshold)));
+
+        assertEquals(List.of("c", "d"), ids(registry.pollExpired(base + 3 * MINUTE)));
+        assertEquals(List.of(), ids(registry.pollExpired(base + 3 * MINUTE)));
+    }
+
+    @Test
+    void activityExactlyAtThresholdIsNotExpired() {
+        room("a", base + MINUTE);
+        room("b", base + MINUTE - 1);
+
+        assertEquals(List.of("b"), ids(registry.pollExpired(base + MINUTE)));
+        assertEquals(List.of("a"), ids(registry.pollExpired(base + MINUTE + 1)));
+    }
+
+    @Test
+    void polledRoomWithNewActivityIsReindexed() {
+        GameRoom a = room("a", base + 10_000);
+        assertEquals(List.of("a"), ids(registry.pollExpired(base + MINUTE)));
+
+        // Activité arrivée entre le poll et le verrou du cleanup
+        synchronized (a) {
+            a.setLastActivity(Instant.ofEpochMilli(base + 2 * MINUTE + 10_000));
+            registry.update(a);
+        }
+        assertEquals(List.of(), ids(registry.pollExpired(base + 2 * MINUTE)));
+        assertEquals(List.of("a"), ids(registry.activeSince(base + 2 * MINUTE)));
+        assertEquals(List.of("a"), ids(registry.pollExpired(base + 3 * MINUTE)));
+    }
+
+    @Test
+    void activityBelowSweptBucketIsStillPolled() {
+        registry.pollExpired(base + 2 * MINUTE);
+
+        // Room restaurée avec une activité ancienne : rangée dans le premier bucket non dépilé,
+        // elle n'échappe pas au prochain passage
+        room("old", base - 10 * MINUTE);
+        assertEquals(List.of("old"), ids(registry.activeSince(base + 2 * MINUTE)));
+        assertEquals(List.of("old"), ids(registry.pollExpired(base + 2 * MINUTE)));
+    }
+}
\ No newline at end of file
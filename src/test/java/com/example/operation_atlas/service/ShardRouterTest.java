@@ -0,0 +1,78 @@
+package com.example.operation_atlas.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+    static final String NODES = "http://a:8080, http://b:8080/, http://c:8080";
+
+    static ShardRouter router(String nodes, String self) {
+        ShardRouter router = new ShardRouter();
+        ReflectionTestUtils.setField(router, "clusterNodes", nodes);
+        ReflectionTestUtils.setField(router, "self", self);
+        router.buildRing();
+        return router;
+    }
+
+    @Test
+    void singleNodeOwnsEveryRoom() {
+        ShardRouter router = router("", "http://a:8080");
+        assertFalse(router.isClustered());
+        assertTrue(router.isLocal("any-room"));
+        assertEquals("http://a:8080", router.ownerOf("any-room"));
+        assertEquals(List.of("http://a:8080"), router.getNodes());
+    }
+
+    // Chaque noeud construit le même anneau : une clé a exactement un propriétaire, vu pareil partout
+    @Test
+    void everyKeyHasExactlyOneOwnerAgreedByAllNodes() {
+        List<ShardRouter> routers = List.of(router(NODES, "http://a:8080"), router(NODES, "http://b:8080"),
+                router(NODES, "http://c:8080/"));
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            String key = "room-" + i;
+            String owner = routers.get(0).ownerOf(key);
+            int local = 0;
+            for (ShardRouter router : routers) {
+                assertEquals(owner, router.ownerOf(key));
+                if (router.isLocal(key)) {
+                    local++;
+                    assertEquals(owner, router.getSelf());
+                }
+            }
+            assertEquals(1, local, key);
+            owned.merge(owner, 1, Integer::sum);
+        }
+        assertEquals(3, owned.size());
+        // 128 noeuds virtuels : aucun noeud ne s'écarte beaucoup du tiers
+        owned.values().forEach(count -> assertTrue(count > 7_000 && count < 13_000, owned.toString()));
+    }
+
+    // Hachage cohérent : un noeud de plus ne prend que des clés, il n'en déplace pas entre les anciens
+    @Test
+    void addingANodeOnlyMovesKeysToIt() {
+        ShardRouter before = router(NODES, "http://a:8080");
+        ShardRouter after = router(NODES + ",http://d:8080", "http://a:8080");
+        int moved = 0;
+        for (int i = 0; i < 20_000; i++) {
+            String key = "room-" + i;
+            if (!before.ownerOf(key).equals(after.ownerOf(key))) {
+                assertEquals("http://d:8080", after.ownerOf(key));
+                moved++;
+            }
+        }
+        assertTrue(moved > 3_000 && moved < 7_000, "moved " + moved);
+    }
+
+    @Test
+    void selfMustBeAClusterNode() {
+        assertThrows(IllegalStateException.class, () -> router(NODES, "http://z:8080"));
+    }
+}
\ No newline at end of file
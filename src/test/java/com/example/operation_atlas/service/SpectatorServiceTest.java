@@ -0,0 +1,133 @@
+package com.example.operation_atlas.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SpectatorServiceTest {
+
+    private SpectatorService service(int maxPerRoom, int maxTotal) {
+        SpectatorService service = new SpectatorService(new ObjectMapper());
+        ReflectionTestUtils.setField(service, "maxPerRoom", maxPerRoom);
+        ReflectionTestUtils.setField(service, "maxTotal", maxTotal);
+        return service;
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        return session;
+    }
+
+    @Test
+    void capsArePerRoomAndGlobal() {
+        SpectatorService service = service(2, 3);
+        assertTrue(service.tryAdd("r1", session("a"), () -> true));
+        assertTrue(service.tryAdd("r1", session("b"), () -> true));
+        assertFalse(service.tryAdd("r1", session("c"), () -> true));
+
+        WebSocketSession d = session("d");
+        assertTrue(service.tryAdd("r2", d, () -> true));
+        // Plafond global atteint : r2 a encore de la place mais l'ajout est refusé
+        assertFalse(service.tryAdd("r2", session("e"), () -> true));
+        assertEquals(3, service.totalCount());
+
+        service.remove("r2", d);
+        assertEquals(0, service.count("r2"));
+        assertTrue(service.tryAdd("r2", session("f"), () -> true));
+        assertEquals(3, service.totalCount());
+    }
+
+    @Test
+    void everySpectatorGetsTheSameEncodedFrame() throws IOException {
+        SpectatorService service = service(10, 10);
+        List<WebSocketSession> sessions = List.of(session("a"), session("b"), session("c"));
+        sessions.forEach(session -> service.tryAdd("r1", session, () -> true));
+        WebSocketSession broken = session("broken");
+        doThrow(new IOException("gone")).when(broken).sendMessage(any());
+        service.tryAdd("r1", broken, () -> true);
+
+        byte[] encoded = "{\"type\":\"TIMER_TICK\"}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(3, service.publishEncoded("r1", encoded));
+        for (WebSocketSession session : sessions) {
+            verify(session).sendMessage(argThat((WebSocketMessage<?> message) -> message instanceof BinaryMessage binary
+                    && binary.getPayload().equals(ByteBuffer.wrap(encoded))));
+        }
+        // Le spectateur en échec est retiré et fermé, les autres ne sont pas touchés
+        verify(broken).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(3, service.count("r1"));
+        assertEquals(0, service.publishEncoded("other", encoded));
+    }
+
+    @Test
+    void addAfterCloseRoomLeavesNoOrphan() throws IOException {
+        SpectatorService service = service(10, 10);
+        WebSocketSession early = session("early");
+        assertTrue(service.tryAdd("r1", early, () -> true));
+
+        // GameService retire la room du registre avant de fermer ses spectateurs
+        service.closeRoom("r1");
+        verify(early).close(CloseStatus.GOING_AWAY);
+        assertFalse(service.tryAdd("r1", session("late"), () -> false));
+        assertEquals(0, service.count("r1"));
+        assertEquals(0, service.totalCount());
+    }
+
+    @Test
+    void tryAddRacingCloseRoomNeverLeavesASession() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            SpectatorService service = service(1000, 1000);
+            AtomicBoolean live = new AtomicBoolean(true);
+            CountDownLatch go = new CountDownLatch(1);
+            List<WebSocketSession> accepted = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                threads.add(new Thread(() -> {
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 5; i++) {
+                        WebSocketSession session = session(thread + "-" + i);
+                        if (service.tryAdd("r1", session, live::get)) {
+                            accepted.add(session);
+                        }
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            go.countDown();
+            live.set(false);
+            service.closeRoom("r1");
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(0, service.count("r1"));
+            assertEquals(0, service.totalCount());
+            // Tout spectateur accepté a été fermé par closeRoom
+            for (WebSocketSession session : accepted) {
+                verify(session).close(CloseStatus.GOING_AWAY);
+            }
+        }
+    }
+}
\ No newline at end of file